@@ -0,0 +1,151 @@
+package software.amazon.voiceid.domain;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Client side token buckets, one per key, that keep calls under the rate the service is willing to serve. A key names
+ * an API, optionally prefixed with the scope its calls are throttled in, such as an account and region. Each bucket
+ * refills at its current rate and holds at most burst tokens. A call that finds the bucket empty reserves the next
+ * token anyway and waits for it, so concurrent callers are served in the order they arrived.
+ *
+ * The rate adapts to what the service reports: it is cut by decreaseFactor on every throttled call and grows back by
+ * increment on every successful one, between minRate and maxRate. Avoiding a throttle is much cheaper than recovering
+ * from it, since a throttled handler call costs a full CloudFormation retry cycle.
+ */
+@lombok.Builder(builderMethodName = "of")
+class AdaptiveRateLimiter {
+    private final double initialRate;
+    private final double minRate;
+    private final double maxRate;
+    private final double burst;
+    private final double increment;
+    @lombok.Builder.Default
+    private final double decreaseFactor = 0.5;
+    @lombok.Builder.Default
+    private final LongSupplier currentTimeMillis = System::currentTimeMillis;
+
+    private final ConcurrentMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * Limiter that holds every API at a fixed rate, slowing down only while the service throttles
+     *
+     * @param callsPerSecond rate of each API
+     */
+    static AdaptiveRateLimiter fixedRate(final double callsPerSecond) {
+        return AdaptiveRateLimiter.of()
+            .initialRate(callsPerSecond)
+            .minRate(callsPerSecond / 10)
+            .maxRate(callsPerSecond)
+            .burst(1.0)
+            .increment(callsPerSecond / 10)
+            .build();
+    }
+
+    /**
+     * Takes a token for the next call of the API
+     *
+     * @param api key of the API about to be called
+     *
+     * @return how long the caller has to wait before making the call
+     */
+    Duration reserve(final String api) {
+        return Duration.ofMillis(bucket(api).reserve(currentTimeMillis.getAsLong()));
+    }
+
+    void onSuccess(final String api) {
+        bucket(api).increase(currentTimeMillis.getAsLong(), increment, maxRate);
+    }
+
+    void onThrottle(final String api) {
+        bucket(api).decrease(currentTimeMillis.getAsLong(), decreaseFactor, minRate);
+    }
+
+    /**
+     * @return the state of the bucket of every key called so far, by key
+     */
+    Map<String, ApiMetrics> metrics() {
+        return metrics("");
+    }
+
+    /**
+     * @return the state of the buckets whose key starts with keyPrefix, by key
+     */
+    Map<String, ApiMetrics> metrics(final String keyPrefix) {
+        final Map<String, ApiMetrics> metrics = new TreeMap<>();
+        buckets.forEach((key, bucket) -> {
+            if (key.startsWith(keyPrefix)) {
+                metrics.put(key, bucket.metrics(currentTimeMillis.getAsLong()));
+            }
+        });
+        return metrics;
+    }
+
+    private Bucket bucket(final String api) {
+        return buckets.computeIfAbsent(api, key -> new Bucket(initialRate, burst, currentTimeMillis.getAsLong()));
+    }
+
+    @lombok.Value
+    static class ApiMetrics {
+        double rate;
+        double tokens;
+        long calls;
+        long delayedCalls;
+        long throttles;
+    }
+
+    private static final class Bucket {
+        private final double burst;
+        private double rate;
+        private double tokens;
+        private long refilledAtMillis;
+        private long calls;
+        private long delayedCalls;
+        private long throttles;
+
+        private Bucket(final double rate, final double burst, final long nowMillis) {
+            this.rate = rate;
+            this.burst = burst;
+            this.tokens = burst;
+            this.refilledAtMillis = nowMillis;
+        }
+
+        synchronized long reserve(final long nowMillis) {
+            refill(nowMillis);
+            calls++;
+            tokens -= 1;
+            if (tokens >= 0) {
+                return 0L;
+            }
+            delayedCalls++;
+            return (long) Math.ceil(-tokens * 1000 / rate);
+        }
+
+        synchronized void increase(final long nowMillis, final double increment, final double maxRate) {
+            refill(nowMillis);
+            rate = Math.min(maxRate, rate + increment);
+        }
+
+        synchronized void decrease(final long nowMillis, final double decreaseFactor, final double minRate) {
+            refill(nowMillis);
+            rate = Math.max(minRate, rate * decreaseFactor);
+            throttles++;
+            // The burst that got throttled is not repeated: callers queue behind the empty bucket instead.
+            tokens = Math.min(tokens, 0);
+        }
+
+        synchronized ApiMetrics metrics(final long nowMillis) {
+            refill(nowMillis);
+            return new ApiMetrics(rate, tokens, calls, delayedCalls, throttles);
+        }
+
+        private void refill(final long nowMillis) {
+            tokens = Math.min(burst, tokens + Math.max(0L, nowMillis - refilledAtMillis) * rate / 1000);
+            refilledAtMillis = nowMillis;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package software.amazon.voiceid.domain;
+
+import software.amazon.cloudformation.proxy.Delay;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+
+/**
+ * Stabilization delay for server side encryption updates. Without history the domain is polled after minDelay and the
+ * delay doubles on every attempt up to maxDelay, so quick updates are noticed within seconds while long re-encryptions
+ * are not polled needlessly often. Once enough updates have been recorded, each poll is instead scheduled for the next
+ * point at which past updates have completed.
+ *
+ * Elapsed time is measured from the stabilization start recorded in the callback context rather than derived from the
+ * attempt number, because the delays are not fixed and the start survives re-invocations.
+ */
+@lombok.Builder(builderMethodName = "of")
+class AdaptiveStabilizationDelay implements Delay {
+    // Fewer samples than this say more about the first updates a container saw than about the typical update.
+    private static final long MIN_HISTORY_SAMPLES = 3L;
+
+    private final Duration minDelay;
+    private final Duration maxDelay;
+    private final Duration timeout;
+    private final StabilizationHistogram history;
+    private final CallbackContext callbackContext;
+    @lombok.Builder.Default
+    private final LongSupplier currentTimeMillis = System::currentTimeMillis;
+
+    @Override
+    public Duration nextDelay(final int attempt) {
+        final Duration elapsed = elapsed();
+        if (elapsed.compareTo(timeout) >= 0) {
+            return Duration.ZERO;
+        }
+
+        final Optional<Duration> nextCompletion = history.size() >= MIN_HISTORY_SAMPLES
+            ? history.nextCompletionAfter(elapsed)
+            : Optional.empty();
+        final Duration delay = nextCompletion
+            .map(completion -> completion.minus(elapsed))
+            .orElseGet(() -> exponential(attempt));
+        return max(minDelay, min(delay, min(maxDelay, timeout.minus(elapsed))));
+    }
+
+    private Duration elapsed() {
+        final Long startedAt = callbackContext.getStabilizationStartedAt();
+        if (startedAt == null) {
+            return Duration.ZERO;
+        }
+        return Duration.ofMillis(Math.max(0L, currentTimeMillis.getAsLong() - startedAt));
+    }
+
+    private Duration exponential(final int attempt) {
+        // Past 2^20 times minDelay the result is capped by maxDelay anyway, so the shift never overflows.
+        return minDelay.multipliedBy(1L << Math.min(Math.max(attempt, 0), 20));
+    }
+
+    private static Duration min(final Duration first, final Duration second) {
+        return first.compareTo(second) <= 0 ? first : second;
+    }
+
+    private static Duration max(final Duration first, final Duration second) {
+        return first.compareTo(second) >= 0 ? first : second;
+    }
+}
@@ -1,6 +1,7 @@
 package software.amazon.voiceid.domain;
 
 import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.services.voiceid.VoiceIdAsyncClient;
 import software.amazon.awssdk.services.voiceid.VoiceIdClient;
 import software.amazon.awssdk.services.voiceid.model.DescribeDomainRequest;
 import software.amazon.awssdk.services.voiceid.model.DescribeDomainResponse;
@@ -12,7 +13,40 @@ import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ProxyClient;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 public abstract class BaseHandlerStd extends BaseHandler<CallbackContext> {
+    // Shared by every invocation a container serves, so a warm invocation starts from the rates the service allowed
+    // the ones before it. A container serves one invocation at a time: the calls that draw on a budget at the same
+    // moment are the asynchronous calls fanned out by one invocation. Budgets are kept per account, region and API,
+    // the scope the service throttles in.
+    private static final AdaptiveRateLimiter RATE_LIMITER = AdaptiveRateLimiter.of()
+        .initialRate(5.0)
+        .minRate(0.5)
+        .maxRate(20.0)
+        .burst(5.0)
+        .increment(0.5)
+        .build();
+    // One breaker per region, kept across warm invocations so that a degraded endpoint is not rediscovered by every
+    // invocation.
+    private static final ConcurrentMap<String, CircuitBreaker> CIRCUIT_BREAKERS = new ConcurrentHashMap<>();
+    private static final HandlerOptions OPTIONS = HandlerOptions.fromEnvironment();
+    private static final Duration INVOCATION_TIME_BUDGET = OPTIONS.getInvocationTimeBudget();
+    // DescribeDomain is read-only, so a slow call can safely be raced by a duplicate. Latencies are observed across
+    // the warm invocations of a container, like the rate limits.
+    private static final Hedger DESCRIBE_HEDGER = Hedger.of()
+        .percentile(OPTIONS.getDescribeHedgePercentile())
+        .budget(OPTIONS.getDescribeHedgeBudgetPercent() / 100.0)
+        .build();
+
+    static {
+        Priming.register();
+    }
 
     @Override
     public final ProgressEvent<ResourceModel, CallbackContext> handleRequest(
@@ -20,31 +54,166 @@ public abstract class BaseHandlerStd extends BaseHandler<CallbackContext> {
         final ResourceHandlerRequest<ResourceModel> request,
         final CallbackContext callbackContext,
         final Logger logger) {
-        return handleRequest(proxy,
-                             request,
-                             callbackContext != null ? callbackContext : new CallbackContext(),
-                             proxy.newProxy(ClientBuilder::getClient),
-                             logger);
+        final CallbackContext context = callbackContext != null ? callbackContext : new CallbackContext();
+        final InvocationDeadline deadline =
+            InvocationDeadline.fromNow(INVOCATION_TIME_BUDGET, System::currentTimeMillis);
+        context.startInvocation(deadline);
+        final RetryBudget retryBudget = RetryBudget.forInvocation(deadline);
+        final CircuitBreaker circuitBreaker =
+            CIRCUIT_BREAKERS.computeIfAbsent(String.valueOf(request.getRegion()), region -> CircuitBreaker.forEndpoint());
+        final String rateLimitScope = String.format("%s/%s/", request.getAwsAccountId(), request.getRegion());
+        try {
+            return handleRequest(proxy,
+                                 request,
+                                 context,
+                                 decorate(proxy.newProxy(ClientBuilder::getClient), deadline, retryBudget,
+                                          circuitBreaker, rateLimitScope),
+                                 decorate(proxy.newProxy(ClientBuilder::getAsyncClient), deadline, retryBudget,
+                                          circuitBreaker, rateLimitScope),
+                                 logger);
+        } catch (final ResumableHandlerException e) {
+            if (!resumesFromCallback(request)) {
+                throw e;
+            }
+            logger.log(String.format("%s, resuming in %d seconds.", e.getMessage(), e.callbackDelaySeconds()));
+            return ProgressEvent.defaultInProgressHandler(context, e.callbackDelaySeconds(),
+                                                          request.getDesiredResourceState());
+        } finally {
+            logger.log(String.format("Rate limits: %s", RATE_LIMITER.metrics(rateLimitScope)));
+            logger.log(String.format("Circuit breaker of %s: %s", request.getRegion(), circuitBreaker.metrics()));
+        }
     }
 
+    /**
+     * Layers the proxies every service call goes through, from the outside in: retries of retryable errors, the
+     * circuit breaker of the endpoint, pacing to the rate limits and the deadline of the invocation. Retries are
+     * outermost so that each attempt is paced, counted by the breaker and bounded by the deadline on its own.
+     */
+    private static <ClientT> ProxyClient<ClientT> decorate(
+        final ProxyClient<ClientT> proxyClient,
+        final InvocationDeadline deadline,
+        final RetryBudget retryBudget,
+        final CircuitBreaker circuitBreaker,
+        final String rateLimitScope) {
+        return new RetryingProxyClient<>(
+            new CircuitBreakerProxyClient<>(
+                new PacedProxyClient<>(new DeadlineProxyClient<>(proxyClient, deadline), RATE_LIMITER,
+                                       rateLimitScope, deadline),
+                circuitBreaker),
+            retryBudget);
+    }
+
+    /**
+     * Handles the request with both a blocking and a non-blocking client. Both proxies resolve their client lazily,
+     * so a handler that never issues an asynchronous call does not build an async client.
+     */
     protected abstract ProgressEvent<ResourceModel, CallbackContext> handleRequest(
         final AmazonWebServicesClientProxy proxy,
         final ResourceHandlerRequest<ResourceModel> request,
         final CallbackContext callbackContext,
         final ProxyClient<VoiceIdClient> proxyClient,
+        final ProxyClient<VoiceIdAsyncClient> asyncProxyClient,
         final Logger logger);
 
+    /**
+     * Whether the handler can pick the request up again from a callback once the invocation has spent its retry
+     * budget or reached its deadline. Read and List handlers cannot return IN_PROGRESS, so by default the failure is
+     * reported instead.
+     */
+    protected boolean resumesFromCallback(final ResourceHandlerRequest<ResourceModel> request) {
+        return false;
+    }
+
+    /**
+     * Describes the domain, reusing the response cached in the callback context when one was fetched earlier in this
+     * invocation and nothing has changed the domain since.
+     */
     protected DescribeDomainResponse describeDomain(
         final DescribeDomainRequest awsRequest,
         final ProxyClient<VoiceIdClient> client,
+        final CallbackContext callbackContext,
+        final Logger logger) {
+
+        final Optional<DescribeDomainResponse> cached =
+            callbackContext.cachedDescribeDomainResponse(awsRequest.domainId());
+        if (cached.isPresent()) {
+            logger.log(String.format("%s has been read from the invocation cache.", ResourceModel.TYPE_NAME));
+            return cached.get();
+        }
+        return refreshDomain(awsRequest, client, callbackContext, logger);
+    }
+
+    /**
+     * Describes the domain bypassing the cache, for callers such as stabilization polls that are waiting for the
+     * service side state to change. The response replaces whatever was cached. A slow call is hedged when
+     * describeHedgePercentile is set.
+     */
+    protected DescribeDomainResponse refreshDomain(
+        final DescribeDomainRequest awsRequest,
+        final ProxyClient<VoiceIdClient> client,
+        final CallbackContext callbackContext,
         final Logger logger) {
 
         final DescribeDomainResponse awsResponse;
         try {
-            awsResponse = client.injectCredentialsAndInvokeV2(awsRequest, client.client()::describeDomain);
+            awsResponse = DESCRIBE_HEDGER.callBlocking(
+                () -> client.injectCredentialsAndInvokeV2(awsRequest, client.client()::describeDomain));
         } catch (final AwsServiceException e) {
             throw Translator.translateToCfnException(e);
         }
+        verifyDomainExists(awsRequest, awsResponse, logger);
+        callbackContext.cacheDescribeDomainResponse(awsResponse);
+        return awsResponse;
+    }
+
+    /**
+     * Non-blocking variant of describeDomain. The returned future completes exceptionally with the same cfn
+     * exceptions the blocking variant throws once it is passed to joinServiceCall.
+     */
+    protected CompletableFuture<DescribeDomainResponse> describeDomainAsync(
+        final DescribeDomainRequest awsRequest,
+        final ProxyClient<VoiceIdAsyncClient> client,
+        final CallbackContext callbackContext,
+        final Logger logger) {
+
+        final Optional<DescribeDomainResponse> cached =
+            callbackContext.cachedDescribeDomainResponse(awsRequest.domainId());
+        if (cached.isPresent()) {
+            logger.log(String.format("%s has been read from the invocation cache.", ResourceModel.TYPE_NAME));
+            return CompletableFuture.completedFuture(cached.get());
+        }
+        return DESCRIBE_HEDGER.call(() -> client.injectCredentialsAndInvokeV2Async(awsRequest,
+                                                                             client.client()::describeDomain))
+            .thenApply(awsResponse -> {
+                verifyDomainExists(awsRequest, awsResponse, logger);
+                callbackContext.cacheDescribeDomainResponse(awsResponse);
+                return awsResponse;
+            });
+    }
+
+    /**
+     * Waits for an asynchronous service call and surfaces its failure the way a blocking call does: service exceptions
+     * are translated into their cfn counterpart and every other exception is rethrown unchanged.
+     */
+    protected static <ResponseT> ResponseT joinServiceCall(final CompletableFuture<ResponseT> future) {
+        try {
+            return future.join();
+        } catch (final CompletionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof AwsServiceException) {
+                throw Translator.translateToCfnException((AwsServiceException) cause);
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw e;
+        }
+    }
+
+    private void verifyDomainExists(
+        final DescribeDomainRequest awsRequest,
+        final DescribeDomainResponse awsResponse,
+        final Logger logger) {
         // When a deleteDomain request is called, the domain is not immediately deleted and is temporarily put into a
         // SUSPENDED state to serve as a grace period.
         // Although a SUSPENDED domain successfully returns from a read request, resource handlers are expected to
@@ -55,6 +224,5 @@ public abstract class BaseHandlerStd extends BaseHandler<CallbackContext> {
             throw new CfnNotFoundException(ResourceModel.TYPE_NAME, awsRequest.domainId());
         }
         logger.log(String.format("%s has successfully been read.", ResourceModel.TYPE_NAME));
-        return awsResponse;
     }
 }
@@ -0,0 +1,69 @@
+package software.amazon.voiceid.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * Runs an asynchronous call for every item of a list with at most maxConcurrency calls in flight. Each of up to
+ * maxConcurrency lanes takes the next item only once its previous call has completed, so items are never queued up
+ * inside the SDK faster than the service answers.
+ *
+ * A failed call stops its own lane, and the other lanes stop taking items as soon as they see the failure. Calls
+ * already in flight are still waited for, since they may be writes.
+ */
+final class BoundedFanOut {
+
+    private BoundedFanOut() {
+    }
+
+    /**
+     * @return future of the call results in item order, or of the first failure
+     */
+    static <ItemT, ResultT> CompletableFuture<List<ResultT>> map(
+        final List<ItemT> items,
+        final int maxConcurrency,
+        final Function<ItemT, CompletableFuture<ResultT>> call) {
+
+        final AtomicReferenceArray<ResultT> results = new AtomicReferenceArray<>(items.size());
+        final AtomicInteger nextItem = new AtomicInteger();
+        final AtomicBoolean failed = new AtomicBoolean();
+        final CompletableFuture<?>[] lanes = new CompletableFuture<?>[Math.min(maxConcurrency, items.size())];
+        for (int lane = 0; lane < lanes.length; lane++) {
+            lanes[lane] = runLane(items, call, results, nextItem, failed);
+        }
+        return CompletableFuture.allOf(lanes).thenApply(done -> {
+            final List<ResultT> ordered = new ArrayList<>(items.size());
+            for (int item = 0; item < items.size(); item++) {
+                ordered.add(results.get(item));
+            }
+            return ordered;
+        });
+    }
+
+    private static <ItemT, ResultT> CompletableFuture<Void> runLane(
+        final List<ItemT> items,
+        final Function<ItemT, CompletableFuture<ResultT>> call,
+        final AtomicReferenceArray<ResultT> results,
+        final AtomicInteger nextItem,
+        final AtomicBoolean failed) {
+
+        final int item = failed.get() ? items.size() : nextItem.getAndIncrement();
+        if (item >= items.size()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return call.apply(items.get(item))
+            .whenComplete((result, e) -> {
+                if (e != null) {
+                    failed.set(true);
+                } else {
+                    results.set(item, result);
+                }
+            })
+            .thenCompose(result -> runLane(items, call, results, nextItem, failed));
+    }
+}
@@ -1,10 +1,127 @@
 package software.amazon.voiceid.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import software.amazon.awssdk.services.voiceid.model.DescribeDomainResponse;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 import software.amazon.cloudformation.proxy.StdCallbackContext;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
 @lombok.Getter
 @lombok.Setter
 @lombok.ToString
 @lombok.EqualsAndHashCode(callSuper = true)
 public class CallbackContext extends StdCallbackContext {
+
+    // Epoch millis at which the current server side encryption update was requested. It is serialized so that
+    // stabilization can tell how long the update has been running across re-invocations.
+    private Long stabilizationStartedAt;
+
+    // Idempotency token of the CreateDomain call. It is serialized so that a re-invocation repeating the call gets the
+    // domain the first attempt created instead of a second one.
+    private String createClientToken;
+
+    // Keys of the tags added or removed by completed TagResource and UntagResource calls. They are serialized so that
+    // a re-invocation only sends the tag changes that have not been applied yet.
+    private Set<String> completedTagKeys;
+
+    // Keys of the tags whose TagResource or UntagResource call failed and that have not been applied since. The domain
+    // update can hand the request back before the failure is reported, so they are serialized to tell the
+    // re-invocation which keys it is retrying.
+    private Set<String> failedTagKeys;
+
+    // The last describe domain response known to be current. It is deliberately not serialized: a re-invocation may
+    // happen minutes later, so the snapshot only lives as long as the invocation that fetched it.
+    @JsonIgnore
+    @lombok.Getter(lombok.AccessLevel.NONE)
+    @lombok.Setter(lombok.AccessLevel.NONE)
+    @lombok.ToString.Exclude
+    @lombok.EqualsAndHashCode.Exclude
+    private transient volatile DescribeDomainResponse describeDomainResponse;
+
+    // Deadline of the invocation in progress, set by BaseHandlerStd. Like the describe domain response it only lives as
+    // long as the invocation.
+    @JsonIgnore
+    @lombok.Getter(lombok.AccessLevel.NONE)
+    @lombok.Setter(lombok.AccessLevel.NONE)
+    @lombok.ToString.Exclude
+    @lombok.EqualsAndHashCode.Exclude
+    private transient volatile InvocationDeadline invocationDeadline;
+
+    /**
+     * @return deadline of the invocation in progress, or a deadline that is never reached outside of an invocation
+     */
+    InvocationDeadline invocationDeadline() {
+        final InvocationDeadline deadline = invocationDeadline;
+        return deadline != null ? deadline : InvocationDeadline.none();
+    }
+
+    void startInvocation(final InvocationDeadline deadline) {
+        invocationDeadline = deadline;
+    }
+
+    Optional<DescribeDomainResponse> cachedDescribeDomainResponse(final String domainId) {
+        final DescribeDomainResponse cached = describeDomainResponse;
+        if (cached == null || domainId == null || !domainId.equals(cached.domain().domainId())) {
+            return Optional.empty();
+        }
+        return Optional.of(cached);
+    }
+
+    /**
+     * @return the idempotency token of the CreateDomain call, taken from the request's client request token, which
+     * CloudFormation keeps for every invocation of the operation, the first time it is needed
+     */
+    String createClientToken(final ResourceHandlerRequest<ResourceModel> request) {
+        if (createClientToken == null) {
+            createClientToken = request.getClientRequestToken() != null
+                ? request.getClientRequestToken()
+                : UUID.randomUUID().toString();
+        }
+        return createClientToken;
+    }
+
+    synchronized boolean isTagKeyCompleted(final String tagKey) {
+        return completedTagKeys != null && completedTagKeys.contains(tagKey);
+    }
+
+    // Tag calls complete on SDK threads, so the set is only changed while holding the context lock.
+    synchronized void markTagKeysCompleted(final Collection<String> tagKeys) {
+        if (completedTagKeys == null) {
+            completedTagKeys = new HashSet<>();
+        }
+        completedTagKeys.addAll(tagKeys);
+        if (failedTagKeys != null) {
+            failedTagKeys.removeAll(tagKeys);
+        }
+    }
+
+    synchronized void markTagKeysFailed(final Collection<String> tagKeys) {
+        if (failedTagKeys == null) {
+            failedTagKeys = new HashSet<>();
+        }
+        failedTagKeys.addAll(tagKeys);
+    }
+
+    synchronized Set<String> failedTagKeysSnapshot() {
+        return failedTagKeys == null ? Collections.emptySet() : new TreeSet<>(failedTagKeys);
+    }
+
+    void cacheDescribeDomainResponse(final DescribeDomainResponse response) {
+        describeDomainResponse = response;
+    }
+
+    /**
+     * Drops the cached describe domain response. Every call that changes the domain must invalidate the cache
+     * before it is made, so that a later read never returns the state from before the change.
+     */
+    void invalidateDescribeDomainResponse() {
+        describeDomainResponse = null;
+    }
 }
@@ -0,0 +1,173 @@
+package software.amazon.voiceid.domain;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker over the calls made to one VoiceID endpoint. The outcomes of the last windowSize calls are kept, and
+ * once at least minimumCalls of them are known and failureRateThreshold of them failed the circuit opens: every call
+ * is rejected without reaching the service for openDuration. After that the circuit is half open and lets trialCalls
+ * calls through. It closes again once they all succeed, and opens again as soon as one of them fails.
+ *
+ * Only failures that say the endpoint is unhealthy, such as server errors and timeouts, count against it. Requests
+ * the service rejected were still served.
+ */
+class CircuitBreaker {
+    enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    // How long a call rejected while the trial calls are running is asked to wait.
+    private static final Duration TRIAL_WAIT = Duration.ofSeconds(1L);
+
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final Duration openDuration;
+    private final int trialCalls;
+    private final LongSupplier currentTimeMillis;
+
+    private final boolean[] window;
+    private int windowNext;
+    private int windowCalls;
+    private int windowFailures;
+    private State state = State.CLOSED;
+    private long openedAtMillis;
+    private int trialsInFlight;
+    private int trialSuccesses;
+    private long calls;
+    private long failures;
+    private long rejected;
+    private long opened;
+
+    @lombok.Builder(builderMethodName = "of")
+    private CircuitBreaker(final int windowSize,
+                           final int minimumCalls,
+                           final double failureRateThreshold,
+                           final Duration openDuration,
+                           final int trialCalls,
+                           final LongSupplier currentTimeMillis) {
+        this.window = new boolean[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDuration = openDuration;
+        this.trialCalls = trialCalls;
+        this.currentTimeMillis = currentTimeMillis;
+    }
+
+    /**
+     * Breaker for the endpoint of a region: it opens for 30 seconds once half of the last 20 calls failed
+     */
+    static CircuitBreaker forEndpoint() {
+        return CircuitBreaker.of()
+            .windowSize(20)
+            .minimumCalls(10)
+            .failureRateThreshold(0.5)
+            .openDuration(Duration.ofSeconds(30L))
+            .trialCalls(2)
+            .currentTimeMillis(System::currentTimeMillis)
+            .build();
+    }
+
+    /**
+     * Asks to make a call, which has to be followed by onSuccess, onFailure or onIgnored once it completes
+     *
+     * @return empty if the call can be made, or how long to wait before asking again
+     */
+    synchronized Optional<Duration> acquire() {
+        if (state == State.OPEN) {
+            final long openForMillis = openDuration.toMillis() - (currentTimeMillis.getAsLong() - openedAtMillis);
+            if (openForMillis > 0) {
+                rejected++;
+                return Optional.of(Duration.ofMillis(openForMillis));
+            }
+            state = State.HALF_OPEN;
+            trialsInFlight = 0;
+            trialSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialsInFlight + trialSuccesses >= trialCalls) {
+                rejected++;
+                return Optional.of(TRIAL_WAIT);
+            }
+            trialsInFlight++;
+        }
+        return Optional.empty();
+    }
+
+    synchronized void onSuccess() {
+        calls++;
+        if (state == State.HALF_OPEN) {
+            trialsInFlight = Math.max(0, trialsInFlight - 1);
+            if (++trialSuccesses >= trialCalls) {
+                close();
+            }
+            return;
+        }
+        record(false);
+    }
+
+    synchronized void onFailure() {
+        calls++;
+        failures++;
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        record(true);
+        if (state == State.CLOSED && windowCalls >= minimumCalls
+            && windowFailures >= failureRateThreshold * windowCalls) {
+            open();
+        }
+    }
+
+    /**
+     * Releases a call that ended without saying anything about the endpoint, such as one that was never sent
+     */
+    synchronized void onIgnored() {
+        if (state == State.HALF_OPEN) {
+            trialsInFlight = Math.max(0, trialsInFlight - 1);
+        }
+    }
+
+    synchronized Metrics metrics() {
+        return new Metrics(state, windowCalls == 0 ? 0.0 : (double) windowFailures / windowCalls, calls, failures,
+                           rejected, opened);
+    }
+
+    private void record(final boolean failed) {
+        if (windowCalls == window.length) {
+            windowFailures -= window[windowNext] ? 1 : 0;
+        } else {
+            windowCalls++;
+        }
+        window[windowNext] = failed;
+        windowFailures += failed ? 1 : 0;
+        windowNext = (windowNext + 1) % window.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAtMillis = currentTimeMillis.getAsLong();
+        opened++;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        windowNext = 0;
+        windowCalls = 0;
+        windowFailures = 0;
+    }
+
+    @lombok.Value
+    static class Metrics {
+        State state;
+        double failureRate;
+        long calls;
+        long failures;
+        long rejected;
+        long opened;
+    }
+}
@@ -0,0 +1,129 @@
+package software.amazon.voiceid.domain;
+
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsResponse;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.pagination.sync.SdkIterable;
+import software.amazon.awssdk.services.voiceid.model.ThrottlingException;
+import software.amazon.cloudformation.proxy.ProxyClient;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * ProxyClient that makes its calls only while the CircuitBreaker of the endpoint lets them through, and fails them
+ * fast with CircuitOpenException otherwise. Every call reports its outcome to the breaker: server errors and client
+ * side failures to reach the endpoint, such as a reset connection or a timed out attempt, are failures, while any other
+ * answer from the service counts as a success. Throttling is left to the rate limiter.
+ *
+ * Calls cut short on our side say nothing about the endpoint and are not counted: calls aborted by their caller, such
+ * as the losing attempt of a hedged call, and calls that ran into the invocation deadline, which only means the
+ * invocation had too little time left for them.
+ */
+class CircuitBreakerProxyClient<ClientT> implements ProxyClient<ClientT> {
+    private final ProxyClient<ClientT> delegate;
+    private final CircuitBreaker circuitBreaker;
+
+    CircuitBreakerProxyClient(final ProxyClient<ClientT> delegate, final CircuitBreaker circuitBreaker) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Override
+    public <RequestT extends AwsRequest, ResponseT extends AwsResponse> ResponseT injectCredentialsAndInvokeV2(
+        final RequestT request,
+        final Function<RequestT, ResponseT> requestFunction) {
+        acquire(request);
+        final ResponseT response;
+        try {
+            response = delegate.injectCredentialsAndInvokeV2(request, requestFunction);
+        } catch (final RuntimeException e) {
+            recordFailure(e);
+            throw e;
+        }
+        circuitBreaker.onSuccess();
+        return response;
+    }
+
+    @Override
+    public <RequestT extends AwsRequest, ResponseT extends AwsResponse> CompletableFuture<ResponseT>
+    injectCredentialsAndInvokeV2Async(
+        final RequestT request,
+        final Function<RequestT, CompletableFuture<ResponseT>> requestFunction) {
+        acquire(request);
+        final CompletableFuture<ResponseT> future;
+        try {
+            future = delegate.injectCredentialsAndInvokeV2Async(request, requestFunction);
+        } catch (final RuntimeException e) {
+            recordFailure(e);
+            throw e;
+        }
+        // The original future is returned so that cancelling it still cancels the call.
+        future.whenComplete((response, e) -> {
+            if (e == null) {
+                circuitBreaker.onSuccess();
+            } else {
+                recordFailure(e instanceof CompletionException ? e.getCause() : e);
+            }
+        });
+        return future;
+    }
+
+    @Override
+    public <RequestT extends AwsRequest, ResponseT extends AwsResponse, IterableT extends SdkIterable<ResponseT>>
+    IterableT injectCredentialsAndInvokeIterableV2(
+        final RequestT request,
+        final Function<RequestT, IterableT> requestFunction) {
+        return delegate.injectCredentialsAndInvokeIterableV2(request, requestFunction);
+    }
+
+    @Override
+    public <RequestT extends AwsRequest, ResponseT extends AwsResponse> ResponseInputStream<ResponseT>
+    injectCredentialsAndInvokeV2InputStream(
+        final RequestT request,
+        final Function<RequestT, ResponseInputStream<ResponseT>> requestFunction) {
+        return delegate.injectCredentialsAndInvokeV2InputStream(request, requestFunction);
+    }
+
+    @Override
+    public <RequestT extends AwsRequest, ResponseT extends AwsResponse> ResponseBytes<ResponseT>
+    injectCredentialsAndInvokeV2Bytes(
+        final RequestT request,
+        final Function<RequestT, ResponseBytes<ResponseT>> requestFunction) {
+        return delegate.injectCredentialsAndInvokeV2Bytes(request, requestFunction);
+    }
+
+    @Override
+    public ClientT client() {
+        return delegate.client();
+    }
+
+    private void acquire(final AwsRequest request) {
+        final Optional<Duration> retryAfter = circuitBreaker.acquire();
+        if (retryAfter.isPresent()) {
+            throw new CircuitOpenException(PacedProxyClient.apiOf(request), retryAfter.get());
+        }
+    }
+
+    private void recordFailure(final Throwable e) {
+        if (e instanceof AwsServiceException) {
+            final AwsServiceException serviceException = (AwsServiceException) e;
+            final boolean throttled = e instanceof ThrottlingException || serviceException.isThrottlingException();
+            if (Translator.isRetryable(serviceException) && !throttled) {
+                circuitBreaker.onFailure();
+            } else {
+                circuitBreaker.onSuccess();
+            }
+        } else if (e instanceof SdkClientException && Translator.isRetryable((SdkClientException) e)) {
+            circuitBreaker.onFailure();
+        } else {
+            circuitBreaker.onIgnored();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package software.amazon.voiceid.domain;
+
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
+
+import java.time.Duration;
+
+/**
+ * Thrown instead of making a call while the CircuitBreaker of the endpoint is open. Handlers that cannot resume from a
+ * callback report it as a service internal error.
+ */
+class CircuitOpenException extends ResumableHandlerException {
+    private static final long serialVersionUID = 1L;
+
+    private final int callbackDelaySeconds;
+
+    CircuitOpenException(final String api, final Duration retryAfter) {
+        super(String.format("Not calling %s, the circuit of the VoiceID endpoint is open after repeated failures", api),
+              HandlerErrorCode.ServiceInternalError);
+        this.callbackDelaySeconds = (int) Math.max(1L, (retryAfter.toMillis() + 999L) / 1000L);
+    }
+
+    @Override
+    int callbackDelaySeconds() {
+        return callbackDelaySeconds;
+    }
+}
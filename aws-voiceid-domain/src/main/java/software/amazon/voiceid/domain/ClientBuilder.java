@@ -1,10 +1,148 @@
 package software.amazon.voiceid.domain;
 
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.awscore.client.builder.AwsClientBuilder;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.core.retry.RetryPolicy;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.sts.StsClient;
+import software.amazon.awssdk.services.voiceid.VoiceIdAsyncClient;
 import software.amazon.awssdk.services.voiceid.VoiceIdClient;
+import software.amazon.awssdk.utils.StringUtils;
 import software.amazon.cloudformation.LambdaWrapper;
 
+import java.net.URI;
+import java.time.Duration;
+
 public class ClientBuilder {
+    // Points the handlers at a local stand-in for VoiceID, for build tooling such as the AppCDS training run. Unset in
+    // deployed functions.
+    static final String ENDPOINT_OVERRIDE_ENV = "VOICEID_ENDPOINT_OVERRIDE";
+
+    // A handler container only ever talks to the region it runs in, so the cache normally holds a single client. The
+    // bound and the idle timeout keep long-lived callers that target several regions from accumulating clients.
+    private static final int MAX_CACHED_CLIENTS = 8;
+    private static final Duration CLIENT_IDLE_TIMEOUT = Duration.ofMinutes(30L);
+
+    private static final ClientOverrideConfiguration NO_RETRIES =
+        ClientOverrideConfiguration.builder().retryPolicy(RetryPolicy.none()).build();
+
+    private static final ClientCache<VoiceIdClient> CLIENTS =
+        new ClientCache<>(MAX_CACHED_CLIENTS, CLIENT_IDLE_TIMEOUT, ClientBuilder::buildClient);
+
+    private static final ClientCache<VoiceIdAsyncClient> ASYNC_CLIENTS =
+        new ClientCache<>(MAX_CACHED_CLIENTS, CLIENT_IDLE_TIMEOUT, ClientBuilder::buildAsyncClient);
+
     public static VoiceIdClient getClient() {
-        return VoiceIdClient.builder().httpClient(LambdaWrapper.HTTP_CLIENT).build();
+        return getClient(System.getenv("AWS_REGION"), endpointOverride());
+    }
+
+    /**
+     * Returns a client for the given region and endpoint, reusing a previously built client when one is cached
+     *
+     * @param region region to call, or null to let the SDK resolve it from the environment
+     * @param endpointOverride endpoint to call, or null for the regional VoiceID endpoint
+     *
+     * @return VoiceIdClient for the region and endpoint
+     */
+    public static VoiceIdClient getClient(final String region, final URI endpointOverride) {
+        return CLIENTS.get(region, endpointOverride);
+    }
+
+    public static VoiceIdAsyncClient getAsyncClient() {
+        return getAsyncClient(System.getenv("AWS_REGION"), endpointOverride());
+    }
+
+    /**
+     * Returns a non-blocking client for the given region and endpoint. Calls made through it return immediately with
+     * a CompletableFuture, so independent calls can be in flight at the same time.
+     *
+     * @param region region to call, or null to let the SDK resolve it from the environment
+     * @param endpointOverride endpoint to call, or null for the regional VoiceID endpoint
+     *
+     * @return VoiceIdAsyncClient for the region and endpoint
+     */
+    public static VoiceIdAsyncClient getAsyncClient(final String region, final URI endpointOverride) {
+        return ASYNC_CLIENTS.get(region, endpointOverride);
+    }
+
+    /**
+     * Builds a client bound to the given credentials instead of relying on the proxy to inject them. The client is not
+     * cached, since cached clients are shared across credentials, so the caller closes it once done.
+     *
+     * @param region region to call
+     * @param credentialsProvider credentials to sign every request with
+     *
+     * @return VoiceIdClient for the region and credentials
+     */
+    static VoiceIdClient newClient(final String region, final AwsCredentialsProvider credentialsProvider) {
+        final ClientCache.Key key = new ClientCache.Key(region, null);
+        return configure(VoiceIdClient.builder().httpClient(LambdaWrapper.HTTP_CLIENT), key)
+            .credentialsProvider(credentialsProvider)
+            .build();
+    }
+
+    /**
+     * Builds an STS client bound to the given credentials, to find out which account they belong to. The caller closes
+     * it once done.
+     *
+     * @param region region whose STS endpoint is called
+     * @param credentialsProvider credentials to sign every request with
+     *
+     * @return StsClient for the region and credentials
+     */
+    static StsClient newStsClient(final String region, final AwsCredentialsProvider credentialsProvider) {
+        return StsClient.builder()
+            .httpClient(LambdaWrapper.HTTP_CLIENT)
+            .region(Region.of(region))
+            .credentialsProvider(credentialsProvider)
+            .build();
+    }
+
+    static ClientCache<VoiceIdClient> clientCache() {
+        return CLIENTS;
+    }
+
+    static ClientCache<VoiceIdAsyncClient> asyncClientCache() {
+        return ASYNC_CLIENTS;
+    }
+
+    private static URI endpointOverride() {
+        final String endpointOverride = System.getenv(ENDPOINT_OVERRIDE_ENV);
+        return StringUtils.isBlank(endpointOverride) ? null : URI.create(endpointOverride);
+    }
+
+    // Handlers retry through RetryingProxyClient within the budget of their invocation, so the cached clients they
+    // use make a single attempt rather than stacking the SDK's own retries underneath.
+    private static VoiceIdClient buildClient(final ClientCache.Key key) {
+        return configure(VoiceIdClient.builder().httpClient(LambdaWrapper.HTTP_CLIENT), key)
+            .overrideConfiguration(NO_RETRIES)
+            .build();
+    }
+
+    private static VoiceIdAsyncClient buildAsyncClient(final ClientCache.Key key) {
+        return configure(VoiceIdAsyncClient.builder().httpClient(AsyncHttpClientHolder.HTTP_CLIENT), key)
+            .overrideConfiguration(NO_RETRIES)
+            .build();
+    }
+
+    private static <BuilderT extends AwsClientBuilder<BuilderT, ClientT>, ClientT> BuilderT configure(
+        final BuilderT builder,
+        final ClientCache.Key key) {
+        if (key.getRegion() != null) {
+            builder.region(Region.of(key.getRegion()));
+        }
+        if (key.getEndpointOverride() != null) {
+            builder.endpointOverride(key.getEndpointOverride());
+        }
+        return builder;
+    }
+
+    // The event loop behind the async HTTP client is only started the first time an async client is built, so
+    // invocations that never make a non-blocking call do not pay for it.
+    private static final class AsyncHttpClientHolder {
+        private static final SdkAsyncHttpClient HTTP_CLIENT = NettyNioAsyncHttpClient.builder().build();
     }
 }
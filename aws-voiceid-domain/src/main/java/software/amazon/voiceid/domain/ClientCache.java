@@ -0,0 +1,143 @@
+package software.amazon.voiceid.domain;
+
+import software.amazon.awssdk.utils.SdkAutoCloseable;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * A bounded cache of service clients that outlives a single handler invocation. Lambda keeps static state alive
+ * between warm invocations of the same container, so a client built once can be reused instead of paying for endpoint
+ * resolution, marshaller setup and signer construction on every call.
+ *
+ * Clients are keyed by region and endpoint override only. Credentials are deliberately not part of the key: the
+ * AmazonWebServicesClientProxy injects the caller's credentials into every request rather than into the client, so a
+ * cached client stays correct when the credentials change between invocations.
+ *
+ * The least recently used client is evicted once the cache is full, and clients that have not been used for longer
+ * than the idle timeout are evicted on the next lookup. Evicted clients are closed.
+ */
+class ClientCache<ClientT extends SdkAutoCloseable> {
+    private final int maxSize;
+    private final long idleTimeoutMillis;
+    private final Function<Key, ClientT> factory;
+    private final LongSupplier currentTimeMillis;
+
+    // Access-ordered so that iteration starts at the least recently used entry.
+    private final LinkedHashMap<Key, Entry<ClientT>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    ClientCache(final int maxSize, final Duration idleTimeout, final Function<Key, ClientT> factory) {
+        this(maxSize, idleTimeout, factory, System::currentTimeMillis);
+    }
+
+    ClientCache(final int maxSize,
+                final Duration idleTimeout,
+                final Function<Key, ClientT> factory,
+                final LongSupplier currentTimeMillis) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be at least 1");
+        }
+        this.maxSize = maxSize;
+        this.idleTimeoutMillis = idleTimeout.toMillis();
+        this.factory = factory;
+        this.currentTimeMillis = currentTimeMillis;
+    }
+
+    /**
+     * Returns the cached client for the region and endpoint override, building one if none is cached
+     *
+     * @param region region the client is bound to, or null to let the SDK resolve it
+     * @param endpointOverride endpoint the client talks to, or null for the regional default
+     *
+     * @return client for the key
+     */
+    synchronized ClientT get(final String region, final URI endpointOverride) {
+        final long now = currentTimeMillis.getAsLong();
+        evictIdle(now);
+
+        final Key key = new Key(region, endpointOverride);
+        final Entry<ClientT> cached = entries.get(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            cached.lastUsedMillis = now;
+            return cached.client;
+        }
+
+        misses.incrementAndGet();
+        final ClientT client = factory.apply(key);
+        entries.put(key, new Entry<>(client, now));
+        if (entries.size() > maxSize) {
+            final Iterator<Map.Entry<Key, Entry<ClientT>>> eldest = entries.entrySet().iterator();
+            evict(eldest, eldest.next().getValue());
+        }
+        return client;
+    }
+
+    /**
+     * Closes and removes every cached client
+     */
+    synchronized void clear() {
+        final Iterator<Map.Entry<Key, Entry<ClientT>>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            evict(iterator, iterator.next().getValue());
+        }
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    long hits() {
+        return hits.get();
+    }
+
+    long misses() {
+        return misses.get();
+    }
+
+    long evictions() {
+        return evictions.get();
+    }
+
+    private void evictIdle(final long now) {
+        final Iterator<Map.Entry<Key, Entry<ClientT>>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Entry<ClientT> entry = iterator.next().getValue();
+            if (now - entry.lastUsedMillis >= idleTimeoutMillis) {
+                evict(iterator, entry);
+            }
+        }
+    }
+
+    private void evict(final Iterator<Map.Entry<Key, Entry<ClientT>>> iterator, final Entry<ClientT> entry) {
+        iterator.remove();
+        evictions.incrementAndGet();
+        entry.client.close();
+    }
+
+    @lombok.Value
+    static class Key {
+        String region;
+        URI endpointOverride;
+    }
+
+    private static final class Entry<ClientT> {
+        private final ClientT client;
+        private long lastUsedMillis;
+
+        private Entry(final ClientT client, final long lastUsedMillis) {
+            this.client = client;
+            this.lastUsedMillis = lastUsedMillis;
+        }
+    }
+}
@@ -1,45 +1,77 @@
 package software.amazon.voiceid.domain;
 
 import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.services.voiceid.VoiceIdAsyncClient;
 import software.amazon.awssdk.services.voiceid.VoiceIdClient;
 import software.amazon.awssdk.services.voiceid.model.CreateDomainRequest;
 import software.amazon.awssdk.services.voiceid.model.CreateDomainResponse;
+import software.amazon.awssdk.services.voiceid.model.DescribeDomainResponse;
+import software.amazon.awssdk.services.voiceid.model.Domain;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ProxyClient;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class CreateHandler extends BaseHandlerStd {
     private Logger logger;
+    private final HandlerOptions options;
+
+    public CreateHandler() {
+        this(HandlerOptions.fromEnvironment());
+    }
+
+    public CreateHandler(final HandlerOptions options) {
+        this.options = options;
+    }
 
     protected ProgressEvent<ResourceModel, CallbackContext> handleRequest(
         final AmazonWebServicesClientProxy proxy,
         final ResourceHandlerRequest<ResourceModel> request,
         final CallbackContext callbackContext,
         final ProxyClient<VoiceIdClient> proxyClient,
+        final ProxyClient<VoiceIdAsyncClient> asyncProxyClient,
         final Logger logger) {
 
         this.logger = logger;
+        final Map<String, String> tags = TagHelper.generateTagsForCreate(request);
+        final String clientToken = callbackContext.createClientToken(request);
+        final AtomicReference<Domain> createdDomain = new AtomicReference<>();
         return ProgressEvent.progress(request.getDesiredResourceState(), callbackContext)
             .then(progress ->
                       proxy.initiate("AWS-VoiceID-Domain::Create",
                                      proxyClient,
                                      progress.getResourceModel(),
                                      progress.getCallbackContext())
-                          .translateToServiceRequest((model) -> Translator.translateToCreateRequest(
-                              model, TagHelper.generateTagsForCreate(request)))
-                          .makeServiceCall((awsRequest, client) -> createDomain(awsRequest, client, request))
-                          .progress()
+                          .translateToServiceRequest((model) -> Translator.translateToCreateRequest(model, tags, clientToken))
+                          .makeServiceCall((awsRequest, client) ->
+                                               createDomain(awsRequest, client, request, callbackContext))
+                          // Also reached by a re-invocation, with the response the call graph kept from the first.
+                          .done((awsRequest, awsResponse, client, model, context) -> {
+                              model.setDomainId(awsResponse.domain().domainId());
+                              createdDomain.set(awsResponse.domain());
+                              return ProgressEvent.progress(model, context);
+                          })
                  )
-            .then(progress -> new ReadHandler().handleRequest(proxy, request, callbackContext, proxyClient, logger));
+            .then(progress -> {
+                if (options.isVerifyWritesWithRead()) {
+                    return new ReadHandler().handleRequest(proxy, request, callbackContext, proxyClient,
+                                                           asyncProxyClient, logger);
+                }
+                // The domain was created with exactly these tags, so there is nothing a read could add.
+                return ProgressEvent.defaultSuccessHandler(
+                    Translator.translateFromWriteResponse(createdDomain.get(), tags));
+            });
     }
 
     private CreateDomainResponse createDomain(
         final CreateDomainRequest awsRequest,
         final ProxyClient<VoiceIdClient> client,
-        final ResourceHandlerRequest<ResourceModel> request) {
+        final ResourceHandlerRequest<ResourceModel> request,
+        final CallbackContext callbackContext) {
 
         final CreateDomainResponse awsResponse;
         try {
@@ -50,6 +82,18 @@ public class CreateHandler extends BaseHandlerStd {
         logger.log(String.format("%s successfully created.", ResourceModel.TYPE_NAME));
         // Setting the DomainId since it is service generated and is required for the subsequent ReadHandler request
         request.getDesiredResourceState().setDomainId(awsResponse.domain().domainId());
+        // The create response carries the complete domain, so the subsequent ReadHandler request does not need to
+        // describe it again.
+        callbackContext.cacheDescribeDomainResponse(DescribeDomainResponse.builder()
+                                                        .domain(awsResponse.domain())
+                                                        .build());
         return awsResponse;
     }
+
+    // CreateDomain is made with the same client token on every invocation, so a callback that repeats it gets the
+    // domain already created rather than a second one.
+    @Override
+    protected boolean resumesFromCallback(final ResourceHandlerRequest<ResourceModel> request) {
+        return true;
+    }
 }
@@ -0,0 +1,135 @@
+package software.amazon.voiceid.domain;
+
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsRequestOverrideConfiguration;
+import software.amazon.awssdk.awscore.AwsResponse;
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.exception.ApiCallTimeoutException;
+import software.amazon.awssdk.core.pagination.sync.SdkIterable;
+import software.amazon.cloudformation.proxy.ProxyClient;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * ProxyClient that bounds every call by the InvocationDeadline: each request is sent with the time left in the
+ * invocation as its apiCallTimeout, and a call is not started at all once too little time is left. Either way the
+ * call fails with InvocationDeadlineException, which BaseHandlerStd turns into a callback for the handlers that can
+ * resume, instead of the function timing out and losing the progress of the invocation.
+ *
+ * The proxy replaces the override configuration of a request when it injects credentials, so the timeout is added to
+ * the request the proxy hands to the request function rather than to the request passed in.
+ */
+class DeadlineProxyClient<ClientT> implements ProxyClient<ClientT> {
+    private final ProxyClient<ClientT> delegate;
+    private final InvocationDeadline deadline;
+
+    DeadlineProxyClient(final ProxyClient<ClientT> delegate, final InvocationDeadline deadline) {
+        this.delegate = delegate;
+        this.deadline = deadline;
+    }
+
+    @Override
+    public <RequestT extends AwsRequest, ResponseT extends AwsResponse> ResponseT injectCredentialsAndInvokeV2(
+        final RequestT request,
+        final Function<RequestT, ResponseT> requestFunction) {
+        final String api = PacedProxyClient.apiOf(request);
+        try {
+            return delegate.injectCredentialsAndInvokeV2(request, withTimeout(api, requestFunction));
+        } catch (final ApiCallTimeoutException e) {
+            throw timedOut(api, e);
+        }
+    }
+
+    @Override
+    public <RequestT extends AwsRequest, ResponseT extends AwsResponse> CompletableFuture<ResponseT>
+    injectCredentialsAndInvokeV2Async(
+        final RequestT request,
+        final Function<RequestT, CompletableFuture<ResponseT>> requestFunction) {
+        final String api = PacedProxyClient.apiOf(request);
+        final CompletableFuture<ResponseT> future =
+            delegate.injectCredentialsAndInvokeV2Async(request, withTimeout(api, requestFunction));
+        final CompletableFuture<ResponseT> result = new CompletableFuture<>();
+        future.whenComplete((response, e) -> {
+            if (e == null) {
+                result.complete(response);
+                return;
+            }
+            final Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+            result.completeExceptionally(cause instanceof ApiCallTimeoutException
+                                             ? timedOut(api, (ApiCallTimeoutException) cause)
+                                             : cause);
+        });
+        // Cancelling the result still cancels the call.
+        result.whenComplete((response, e) -> {
+            if (result.isCancelled()) {
+                future.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public <RequestT extends AwsRequest, ResponseT extends AwsResponse, IterableT extends SdkIterable<ResponseT>>
+    IterableT injectCredentialsAndInvokeIterableV2(
+        final RequestT request,
+        final Function<RequestT, IterableT> requestFunction) {
+        return delegate.injectCredentialsAndInvokeIterableV2(request,
+                                                             withTimeout(PacedProxyClient.apiOf(request),
+                                                                         requestFunction));
+    }
+
+    @Override
+    public <RequestT extends AwsRequest, ResponseT extends AwsResponse> ResponseInputStream<ResponseT>
+    injectCredentialsAndInvokeV2InputStream(
+        final RequestT request,
+        final Function<RequestT, ResponseInputStream<ResponseT>> requestFunction) {
+        return delegate.injectCredentialsAndInvokeV2InputStream(request,
+                                                                withTimeout(PacedProxyClient.apiOf(request),
+                                                                            requestFunction));
+    }
+
+    @Override
+    public <RequestT extends AwsRequest, ResponseT extends AwsResponse> ResponseBytes<ResponseT>
+    injectCredentialsAndInvokeV2Bytes(
+        final RequestT request,
+        final Function<RequestT, ResponseBytes<ResponseT>> requestFunction) {
+        return delegate.injectCredentialsAndInvokeV2Bytes(request,
+                                                          withTimeout(PacedProxyClient.apiOf(request),
+                                                                      requestFunction));
+    }
+
+    @Override
+    public ClientT client() {
+        return delegate.client();
+    }
+
+    /**
+     * Takes the timeout of the call up front, so a call without enough time left fails before it reaches the proxy
+     */
+    private <RequestT extends AwsRequest, ResultT> Function<RequestT, ResultT> withTimeout(
+        final String api,
+        final Function<RequestT, ResultT> requestFunction) {
+        final Duration timeout = deadline.callTimeout(api);
+        return request -> requestFunction.apply(withApiCallTimeout(request, timeout));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <RequestT extends AwsRequest> RequestT withApiCallTimeout(final RequestT request,
+                                                                             final Duration timeout) {
+        final AwsRequestOverrideConfiguration overrideConfiguration = request.overrideConfiguration()
+            .map(AwsRequestOverrideConfiguration::toBuilder)
+            .orElseGet(AwsRequestOverrideConfiguration::builder)
+            .apiCallTimeout(timeout)
+            .build();
+        return (RequestT) request.toBuilder().overrideConfiguration(overrideConfiguration).build();
+    }
+
+    private static InvocationDeadlineException timedOut(final String api, final ApiCallTimeoutException e) {
+        return new InvocationDeadlineException(String.format("%s did not complete before the invocation deadline",
+                                                             api), e);
+    }
+}
@@ -1,6 +1,7 @@
 package software.amazon.voiceid.domain;
 
 import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.services.voiceid.VoiceIdAsyncClient;
 import software.amazon.awssdk.services.voiceid.VoiceIdClient;
 import software.amazon.awssdk.services.voiceid.model.DeleteDomainRequest;
 import software.amazon.awssdk.services.voiceid.model.DeleteDomainResponse;
@@ -18,6 +19,7 @@ public class DeleteHandler extends BaseHandlerStd {
         final ResourceHandlerRequest<ResourceModel> request,
         final CallbackContext callbackContext,
         final ProxyClient<VoiceIdClient> proxyClient,
+        final ProxyClient<VoiceIdAsyncClient> asyncProxyClient,
         final Logger logger) {
 
         this.logger = logger;
@@ -29,7 +31,8 @@ public class DeleteHandler extends BaseHandlerStd {
                                      progress.getResourceModel(),
                                      progress.getCallbackContext())
                           .translateToServiceRequest(Translator::translateToReadRequest)
-                          .makeServiceCall((awsRequest, client) -> describeDomain(awsRequest, client, logger))
+                          .makeServiceCall((awsRequest, client) ->
+                                               describeDomain(awsRequest, client, callbackContext, logger))
                           .progress()
                  )
             .then(progress ->
@@ -38,7 +41,7 @@ public class DeleteHandler extends BaseHandlerStd {
                                      progress.getResourceModel(),
                                      progress.getCallbackContext())
                           .translateToServiceRequest(Translator::translateToDeleteRequest)
-                          .makeServiceCall((awsRequest, client) -> deleteDomain(awsRequest, client))
+                          .makeServiceCall((awsRequest, client) -> deleteDomain(awsRequest, client, callbackContext))
                           .progress()
                  )
             .then(progress -> ProgressEvent.defaultSuccessHandler(null));
@@ -46,9 +49,11 @@ public class DeleteHandler extends BaseHandlerStd {
 
     private DeleteDomainResponse deleteDomain(
         final DeleteDomainRequest awsRequest,
-        final ProxyClient<VoiceIdClient> client) {
+        final ProxyClient<VoiceIdClient> client,
+        final CallbackContext callbackContext) {
 
         final DeleteDomainResponse awsResponse;
+        callbackContext.invalidateDescribeDomainResponse();
         try {
             awsResponse = client.injectCredentialsAndInvokeV2(awsRequest, client.client()::deleteDomain);
         } catch (final AwsServiceException e) {
@@ -57,4 +62,9 @@ public class DeleteHandler extends BaseHandlerStd {
         logger.log(String.format("%s successfully deleted.", ResourceModel.TYPE_NAME));
         return awsResponse;
     }
+
+    @Override
+    protected boolean resumesFromCallback(final ResourceHandlerRequest<ResourceModel> request) {
+        return true;
+    }
 }
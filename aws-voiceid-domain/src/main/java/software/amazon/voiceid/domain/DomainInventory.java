@@ -0,0 +1,225 @@
+package software.amazon.voiceid.domain;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.services.voiceid.VoiceIdClient;
+import software.amazon.awssdk.services.voiceid.model.DescribeDomainResponse;
+import software.amazon.awssdk.services.voiceid.model.DomainStatus;
+import software.amazon.awssdk.services.voiceid.model.DomainSummary;
+import software.amazon.awssdk.services.voiceid.model.ListTagsForResourceResponse;
+import software.amazon.awssdk.services.voiceid.model.ResourceNotFoundException;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.ProxyClient;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Snapshot of the full model of every active domain in an account, kept current by incremental syncs. A sync lists
+ * the domain summaries and only describes the domains that are new or whose updatedAt moved since the last sync, so an
+ * unchanged account costs nothing but its ListDomains pages. Domains that are no longer listed as active, because they
+ * were deleted or suspended, are tombstoned: dropped from the snapshot and reported in the sync result.
+ *
+ * Between runs the inventories of several accounts and regions are kept in one JSON file, keyed by scopeOf, which
+ * load restores and save replaces.
+ */
+final class DomainInventory {
+    private final Map<String, Entry> entries;
+
+    DomainInventory() {
+        this(new HashMap<>());
+    }
+
+    /**
+     * @param entries snapshot restored from an earlier sync, keyed by domain id. It is updated in place.
+     */
+    DomainInventory(final Map<String, Entry> entries) {
+        this.entries = entries;
+    }
+
+    Map<String, Entry> getEntries() {
+        return Collections.unmodifiableMap(entries);
+    }
+
+    /**
+     * Brings the snapshot up to date with the domains the service currently lists
+     *
+     * @param proxyClient client to list and read domains with
+     * @param logger logger
+     *
+     * @return the domain ids that were added, updated, tombstoned and left unchanged by this sync
+     */
+    SyncResult sync(final ProxyClient<VoiceIdClient> proxyClient, final Logger logger) {
+        final Set<String> listed = new HashSet<>();
+        final List<String> added = new ArrayList<>();
+        final List<String> updated = new ArrayList<>();
+        final long[] unchanged = {0L};
+
+        DomainTraversal.forEachDomainSummary(proxyClient, domainSummary -> {
+            final String domainId = domainSummary.domainId();
+            final Entry entry = entries.get(domainId);
+            if (entry != null && isUnchanged(entry, domainSummary)) {
+                listed.add(domainId);
+                unchanged[0]++;
+                return;
+            }
+            final Optional<ResourceModel> model = readModel(proxyClient, domainId, logger);
+            if (!model.isPresent()) {
+                // Deleted since it was listed, so it is tombstoned along with the domains no longer listed.
+                return;
+            }
+            listed.add(domainId);
+            entries.put(domainId, new Entry(domainSummary.updatedAt(), model.get()));
+            (entry == null ? added : updated).add(domainId);
+        });
+
+        final List<String> tombstoned = new ArrayList<>();
+        for (final Iterator<String> domainIds = entries.keySet().iterator(); domainIds.hasNext(); ) {
+            final String domainId = domainIds.next();
+            if (!listed.contains(domainId)) {
+                domainIds.remove();
+                tombstoned.add(domainId);
+            }
+        }
+
+        logger.log(String.format("%s inventory synced: %d added, %d updated, %d tombstoned, %d unchanged.",
+                                 ResourceModel.TYPE_NAME, added.size(), updated.size(), tombstoned.size(),
+                                 unchanged[0]));
+        return new SyncResult(added, updated, tombstoned, unchanged[0]);
+    }
+
+    /**
+     * @return key of the inventory of an account and region in a saved snapshot
+     */
+    static String scopeOf(final String accountId, final String region) {
+        return accountId + "/" + region;
+    }
+
+    /**
+     * Restores the inventories saved by an earlier run
+     *
+     * @param file snapshot file, which need not exist yet
+     * @param objectMapper mapper the models are read with
+     *
+     * @return inventory of every scope in the file, or no inventories if there is no file
+     */
+    static ConcurrentMap<String, DomainInventory> load(final Path file, final ObjectMapper objectMapper)
+        throws IOException {
+        final ConcurrentMap<String, DomainInventory> inventories = new ConcurrentHashMap<>();
+        if (!Files.exists(file)) {
+            return inventories;
+        }
+        final JsonNode snapshot = objectMapper.readTree(file.toFile());
+        for (final Iterator<Map.Entry<String, JsonNode>> scopes = snapshot.fields(); scopes.hasNext(); ) {
+            final Map.Entry<String, JsonNode> scope = scopes.next();
+            final Map<String, Entry> entries = new HashMap<>();
+            for (final Iterator<Map.Entry<String, JsonNode>> domains = scope.getValue().fields(); domains.hasNext(); ) {
+                final Map.Entry<String, JsonNode> domain = domains.next();
+                final JsonNode updatedAt = domain.getValue().get("updatedAt");
+                entries.put(domain.getKey(), new Entry(
+                    updatedAt == null || updatedAt.isNull() ? null : Instant.parse(updatedAt.asText()),
+                    objectMapper.treeToValue(domain.getValue().get("model"), ResourceModel.class)));
+            }
+            inventories.put(scope.getKey(), new DomainInventory(entries));
+        }
+        return inventories;
+    }
+
+    /**
+     * Saves the inventories for the next run. The file is written next to the target and moved over it, so an
+     * interrupted save leaves the previous snapshot in place.
+     *
+     * @param file snapshot file
+     * @param inventories inventory of every scope, keyed by scopeOf
+     * @param objectMapper mapper the models are written with
+     */
+    static void save(final Path file,
+                     final Map<String, DomainInventory> inventories,
+                     final ObjectMapper objectMapper) throws IOException {
+        final ObjectNode snapshot = objectMapper.createObjectNode();
+        for (final Map.Entry<String, DomainInventory> scope : new TreeMap<>(inventories).entrySet()) {
+            final ObjectNode domains = snapshot.putObject(scope.getKey());
+            for (final Map.Entry<String, Entry> domain : new TreeMap<>(scope.getValue().entries).entrySet()) {
+                final ObjectNode entry = domains.putObject(domain.getKey());
+                final Instant updatedAt = domain.getValue().getUpdatedAt();
+                entry.put("updatedAt", updatedAt == null ? null : updatedAt.toString());
+                entry.set("model", objectMapper.valueToTree(domain.getValue().getModel()));
+            }
+        }
+        final Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        objectMapper.writeValue(temporary.toFile(), snapshot);
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // A summary without updatedAt cannot prove the domain is unchanged, so the domain is read again.
+    private static boolean isUnchanged(final Entry entry, final DomainSummary domainSummary) {
+        return domainSummary.updatedAt() != null && domainSummary.updatedAt().equals(entry.getUpdatedAt());
+    }
+
+    /**
+     * Reads the full model of a listed domain the way the read handler does
+     *
+     * @return the model, or empty if the domain was deleted or suspended since it was listed
+     */
+    static Optional<ResourceModel> readModel(
+        final ProxyClient<VoiceIdClient> proxyClient,
+        final String domainId,
+        final Logger logger) {
+
+        try {
+            final DescribeDomainResponse describeDomainResponse = proxyClient.injectCredentialsAndInvokeV2(
+                Translator.translateToReadRequest(ResourceModel.builder().domainId(domainId).build()),
+                proxyClient.client()::describeDomain);
+            if (describeDomainResponse.domain().domainStatus() == DomainStatus.SUSPENDED) {
+                logger.log(String.format("%s [%s] has been suspended since it was listed.",
+                                         ResourceModel.TYPE_NAME, domainId));
+                return Optional.empty();
+            }
+            final ListTagsForResourceResponse listTagsResponse = proxyClient.injectCredentialsAndInvokeV2(
+                Translator.translateToListTagsRequest(describeDomainResponse.domain().arn()),
+                proxyClient.client()::listTagsForResource);
+            return Optional.of(Translator.translateFromReadResponse(
+                describeDomainResponse, TagHelper.convertToCfnTags(listTagsResponse.tags())));
+        } catch (final ResourceNotFoundException e) {
+            logger.log(String.format("%s [%s] has been deleted since it was listed.",
+                                     ResourceModel.TYPE_NAME, domainId));
+            return Optional.empty();
+        } catch (final AwsServiceException e) {
+            throw Translator.translateToCfnException(e);
+        }
+    }
+
+    /**
+     * The model of a domain as of the updatedAt it was read at
+     */
+    @lombok.Value
+    static class Entry {
+        Instant updatedAt;
+        ResourceModel model;
+    }
+
+    @lombok.Value
+    static class SyncResult {
+        List<String> added;
+        List<String> updated;
+        List<String> tombstoned;
+        long unchanged;
+    }
+}
@@ -0,0 +1,89 @@
+package software.amazon.voiceid.domain;
+
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.core.pagination.sync.SdkIterable;
+import software.amazon.awssdk.services.voiceid.VoiceIdClient;
+import software.amazon.awssdk.services.voiceid.model.DomainSummary;
+import software.amazon.awssdk.services.voiceid.model.ListDomainsResponse;
+import software.amazon.cloudformation.proxy.ProxyClient;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * Walks every active domain of an account page by page. A page is only requested once the consumer has worked through
+ * the one before it and nothing is collected, so memory stays flat however many domains the account has.
+ *
+ * Pages are requested through injectCredentialsAndInvokeV2 rather than handing the listDomainsPaginator to
+ * injectCredentialsAndInvokeIterableV2, which walks every page once to log it before returning the paginator.
+ */
+final class DomainTraversal {
+
+    private DomainTraversal() {
+    }
+
+    /**
+     * Passes the summary of every active domain to the consumer, in the order the service lists them
+     *
+     * @param proxyClient client to list domains with
+     * @param consumer receives one domain summary at a time
+     *
+     * @return the number of domains passed to the consumer
+     */
+    static long forEachDomainSummary(
+        final ProxyClient<VoiceIdClient> proxyClient,
+        final Consumer<DomainSummary> consumer) {
+
+        final long[] count = {0L};
+        try {
+            Translator.streamActiveDomainSummaries(pages(proxyClient)).forEach(domainSummary -> {
+                consumer.accept(domainSummary);
+                count[0]++;
+            });
+        } catch (final AwsServiceException e) {
+            throw Translator.translateToCfnException(e);
+        }
+        return count[0];
+    }
+
+    /**
+     * Passes the model of every active domain to the consumer, carrying the primary identifier only as list does
+     *
+     * @param proxyClient client to list domains with
+     * @param consumer receives one resource model at a time
+     *
+     * @return the number of domains passed to the consumer
+     */
+    static long forEachDomain(final ProxyClient<VoiceIdClient> proxyClient, final Consumer<ResourceModel> consumer) {
+        return forEachDomainSummary(
+            proxyClient, domainSummary -> consumer.accept(Translator.translateFromDomainSummary(domainSummary)));
+    }
+
+    /**
+     * @return the ListDomains pages of the account, each requested when the iteration reaches it
+     */
+    static SdkIterable<ListDomainsResponse> pages(final ProxyClient<VoiceIdClient> proxyClient) {
+        return () -> new Iterator<ListDomainsResponse>() {
+            private boolean started;
+            private String nextToken;
+
+            @Override
+            public boolean hasNext() {
+                return !started || nextToken != null;
+            }
+
+            @Override
+            public ListDomainsResponse next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                final ListDomainsResponse awsResponse = proxyClient.injectCredentialsAndInvokeV2(
+                    Translator.translateToListRequest(nextToken), proxyClient.client()::listDomains);
+                started = true;
+                nextToken = awsResponse.nextToken();
+                return awsResponse;
+            }
+        };
+    }
+}
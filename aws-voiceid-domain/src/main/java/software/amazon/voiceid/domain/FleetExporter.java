@@ -0,0 +1,341 @@
+package software.amazon.voiceid.domain;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.ProfileCredentialsProvider;
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsResponse;
+import software.amazon.awssdk.services.sts.StsClient;
+import software.amazon.awssdk.services.voiceid.VoiceIdClient;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.ProxyClient;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Command line entry point that snapshots the full model of every active domain across a fleet of accounts and
+ * regions. Targets are exported in parallel, each through its own client and its own rate limit per API, and every
+ * domain is written to the output as one JSON line as soon as it has been read, so memory does not grow with the
+ * fleet.
+ *
+ * Before a target is read, the account its credentials belong to is looked up with GetCallerIdentity, and the target
+ * fails unless that is the account it names, so a profile for the wrong account cannot export domains under another
+ * account's label.
+ *
+ * A target that fails is recorded in the output as an error line and does not stop the other targets.
+ *
+ * With --incremental, the domain inventories saved by the previous run are loaded from the snapshot file and synced
+ * instead, so only the domains that are new or changed since then are read. The inventories are held in memory, each
+ * target's domains are written once its sync is done, and the file is replaced with the synced inventories once every
+ * target is done.
+ *
+ * usage: FleetExporter [--parallelism N] [--max-calls-per-second N] [--incremental SNAPSHOT_FILE] OUTPUT_FILE
+ * ACCOUNT:REGION[:PROFILE]...
+ */
+public final class FleetExporter {
+    private static final int DEFAULT_PARALLELISM = 8;
+    private static final double DEFAULT_MAX_CALLS_PER_SECOND = 5.0;
+    private static final String USAGE =
+        "usage: FleetExporter [--parallelism N] [--max-calls-per-second N] [--incremental SNAPSHOT_FILE] OUTPUT_FILE "
+            + "ACCOUNT:REGION[:PROFILE]...";
+
+    private final int parallelism;
+    private final double maxCallsPerSecond;
+    private final Function<Target, VoiceIdClient> clients;
+    private final Function<Target, String> callerAccounts;
+    private final ConcurrentMap<String, DomainInventory> inventories;
+    private final Logger logger;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * @param parallelism number of targets exported at the same time
+     * @param maxCallsPerSecond rate limit of each API of each target, or zero for no limit
+     * @param clients builds the client of a target, which is closed once the target has been exported
+     * @param callerAccounts looks up the account the credentials of a target belong to
+     * @param logger logger for progress and failures
+     */
+    FleetExporter(final int parallelism,
+                  final double maxCallsPerSecond,
+                  final Function<Target, VoiceIdClient> clients,
+                  final Function<Target, String> callerAccounts,
+                  final Logger logger) {
+        this(parallelism, maxCallsPerSecond, clients, callerAccounts, null, logger);
+    }
+
+    /**
+     * @param inventories inventories to sync each target into, keyed by DomainInventory.scopeOf, or null to read
+     *                    every domain. Targets without an inventory get a new one.
+     */
+    FleetExporter(final int parallelism,
+                  final double maxCallsPerSecond,
+                  final Function<Target, VoiceIdClient> clients,
+                  final Function<Target, String> callerAccounts,
+                  final ConcurrentMap<String, DomainInventory> inventories,
+                  final Logger logger) {
+        this.parallelism = parallelism;
+        this.maxCallsPerSecond = maxCallsPerSecond;
+        this.clients = clients;
+        this.callerAccounts = callerAccounts;
+        this.inventories = inventories;
+        this.logger = logger;
+    }
+
+    public static void main(final String[] args) throws IOException, InterruptedException {
+        int parallelism = DEFAULT_PARALLELISM;
+        double maxCallsPerSecond = DEFAULT_MAX_CALLS_PER_SECOND;
+        Path snapshot = null;
+        int arg = 0;
+        try {
+            for (; arg < args.length && args[arg].startsWith("--"); arg += 2) {
+                if ("--parallelism".equals(args[arg])) {
+                    parallelism = Integer.parseInt(args[arg + 1]);
+                } else if ("--max-calls-per-second".equals(args[arg])) {
+                    maxCallsPerSecond = Double.parseDouble(args[arg + 1]);
+                } else if ("--incremental".equals(args[arg])) {
+                    snapshot = Paths.get(args[arg + 1]);
+                } else {
+                    throw new IllegalArgumentException("Unknown option " + args[arg]);
+                }
+            }
+            if (args.length - arg < 2 || parallelism < 1) {
+                throw new IllegalArgumentException("An output file and at least one target are required");
+            }
+        } catch (final IllegalArgumentException | IndexOutOfBoundsException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+
+        final List<Target> targets = new ArrayList<>();
+        for (int target = arg + 1; target < args.length; target++) {
+            targets.add(Target.parse(args[target]));
+        }
+        final ObjectMapper objectMapper = new ObjectMapper();
+        final ConcurrentMap<String, DomainInventory> inventories =
+            snapshot == null ? null : DomainInventory.load(snapshot, objectMapper);
+        final FleetExporter exporter = new FleetExporter(parallelism, maxCallsPerSecond,
+                                                         target -> ClientBuilder.newClient(target.getRegion(),
+                                                                                           credentialsOf(target)),
+                                                         FleetExporter::callerAccountOf,
+                                                         inventories,
+                                                         System.err::println);
+        final Summary summary;
+        try (Writer writer = Files.newBufferedWriter(Paths.get(args[arg]), StandardCharsets.UTF_8)) {
+            summary = exporter.export(targets, writer);
+        }
+        if (snapshot != null) {
+            // A failed target keeps what it had before along with whatever its sync got through.
+            DomainInventory.save(snapshot, inventories, objectMapper);
+        }
+        System.err.println(String.format("Exported %d domains from %d targets, %d targets failed.",
+                                         summary.getDomains(), targets.size(), summary.getFailedTargets()));
+        if (summary.getFailedTargets() > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Exports every target, at most parallelism targets at a time
+     *
+     * @param targets accounts and regions to export
+     * @param writer output the JSON lines are written to, flushed after every line
+     *
+     * @return number of domains exported and of targets that failed
+     */
+    Summary export(final List<Target> targets, final Writer writer) throws InterruptedException {
+        final SnapshotWriter snapshotWriter = new SnapshotWriter(writer);
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism,
+                                                                                            targets.size())));
+        try {
+            final List<Future<Long>> exports = new ArrayList<>();
+            for (final Target target : targets) {
+                exports.add(executor.submit(() -> exportTarget(target, snapshotWriter)));
+            }
+            long domains = 0L;
+            int failedTargets = 0;
+            for (final Future<Long> export : exports) {
+                final Long exported = export.get();
+                if (exported == null) {
+                    failedTargets++;
+                } else {
+                    domains += exported;
+                }
+            }
+            return new Summary(domains, failedTargets);
+        } catch (final ExecutionException e) {
+            // Failures of a target are recorded by exportTarget, so only a failing output gets here.
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause()
+                : new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * @return number of domains exported, or null if the target failed
+     */
+    private Long exportTarget(final Target target, final SnapshotWriter snapshotWriter) {
+        final long[] domains = {0L};
+        final AdaptiveRateLimiter rateLimiter = AdaptiveRateLimiter.fixedRate(maxCallsPerSecond);
+        try (VoiceIdClient client = clients.apply(target)) {
+            final String callerAccount = callerAccounts.apply(target);
+            if (!target.getAccountId().equals(callerAccount)) {
+                throw new IllegalStateException(String.format("The credentials of %s belong to account %s",
+                                                              target, callerAccount));
+            }
+            final ProxyClient<VoiceIdClient> proxyClient = maxCallsPerSecond > 0
+                ? new PacedProxyClient<>(directProxy(client), rateLimiter)
+                : directProxy(client);
+            if (inventories != null) {
+                final DomainInventory inventory = inventories.computeIfAbsent(
+                    DomainInventory.scopeOf(target.getAccountId(), target.getRegion()),
+                    scope -> new DomainInventory());
+                inventory.sync(proxyClient, logger);
+                for (final DomainInventory.Entry entry : inventory.getEntries().values()) {
+                    snapshotWriter.write(new SnapshotRecord(target.getAccountId(), target.getRegion(),
+                                                            entry.getModel(), null));
+                    domains[0]++;
+                }
+            } else {
+                DomainTraversal.forEachDomainSummary(proxyClient, domainSummary -> DomainInventory
+                    .readModel(proxyClient, domainSummary.domainId(), logger)
+                    .ifPresent(model -> {
+                        snapshotWriter.write(new SnapshotRecord(target.getAccountId(), target.getRegion(), model,
+                                                                null));
+                        domains[0]++;
+                    }));
+            }
+        } catch (final UncheckedIOException e) {
+            throw e;
+        } catch (final RuntimeException e) {
+            logger.log(String.format("Exporting %s failed after %d domains: %s", target, domains[0], e.getMessage()));
+            snapshotWriter.write(new SnapshotRecord(target.getAccountId(), target.getRegion(), null,
+                                                    String.valueOf(e.getMessage())));
+            return null;
+        }
+        logger.log(String.format("Exported %d domains from %s, rate limits %s.", domains[0], target,
+                                 rateLimiter.metrics()));
+        return domains[0];
+    }
+
+    private static String callerAccountOf(final Target target) {
+        try (StsClient sts = ClientBuilder.newStsClient(target.getRegion(), credentialsOf(target))) {
+            return sts.getCallerIdentity().account();
+        }
+    }
+
+    private static AwsCredentialsProvider credentialsOf(final Target target) {
+        return target.getProfile() == null
+            ? DefaultCredentialsProvider.create()
+            : ProfileCredentialsProvider.create(target.getProfile());
+    }
+
+    /**
+     * ProxyClient for a client that carries its own credentials, so requests are passed through unchanged
+     */
+    private static <ClientT> ProxyClient<ClientT> directProxy(final ClientT client) {
+        return new ProxyClient<ClientT>() {
+            @Override
+            public <RequestT extends AwsRequest, ResponseT extends AwsResponse> ResponseT injectCredentialsAndInvokeV2(
+                final RequestT request,
+                final Function<RequestT, ResponseT> requestFunction) {
+                return requestFunction.apply(request);
+            }
+
+            @Override
+            public <RequestT extends AwsRequest, ResponseT extends AwsResponse> CompletableFuture<ResponseT>
+            injectCredentialsAndInvokeV2Async(
+                final RequestT request,
+                final Function<RequestT, CompletableFuture<ResponseT>> requestFunction) {
+                return requestFunction.apply(request);
+            }
+
+            @Override
+            public ClientT client() {
+                return client;
+            }
+        };
+    }
+
+    /**
+     * An account and region to export, with the named profile to take its credentials from
+     */
+    @lombok.Value
+    static class Target {
+        String accountId;
+        String region;
+        String profile;
+
+        /**
+         * @param spec ACCOUNT:REGION, or ACCOUNT:REGION:PROFILE to use a named profile instead of the default
+         *             credentials
+         */
+        static Target parse(final String spec) {
+            final String[] parts = spec.split(":", -1);
+            if (parts.length < 2 || parts.length > 3 || parts[0].isEmpty() || parts[1].isEmpty()
+                || (parts.length == 3 && parts[2].isEmpty())) {
+                throw new IllegalArgumentException("Invalid target " + spec + ", expected ACCOUNT:REGION[:PROFILE]");
+            }
+            return new Target(parts[0], parts[1], parts.length == 3 ? parts[2] : null);
+        }
+
+        @Override
+        public String toString() {
+            return accountId + "/" + region;
+        }
+    }
+
+    @lombok.Value
+    static class Summary {
+        long domains;
+        int failedTargets;
+    }
+
+    /**
+     * One line of the snapshot: either the model of a domain or the error a target failed with
+     */
+    @lombok.Value
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    static class SnapshotRecord {
+        String accountId;
+        String region;
+        ResourceModel model;
+        String error;
+    }
+
+    private final class SnapshotWriter {
+        private final Writer writer;
+
+        private SnapshotWriter(final Writer writer) {
+            this.writer = writer;
+        }
+
+        synchronized void write(final SnapshotRecord record) {
+            try {
+                writer.write(objectMapper.writeValueAsString(record));
+                writer.write('\n');
+                writer.flush();
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package software.amazon.voiceid.domain;
+
+import software.amazon.awssdk.utils.StringUtils;
+
+import java.time.Duration;
+
+/**
+ * Tunables shared by the handlers. The generated HandlerWrapper only uses the no-argument handler constructors, so
+ * deployed handlers pick their options up from the function environment; tests pass options in directly.
+ */
+@lombok.Value
+@lombok.Builder(toBuilder = true)
+public class HandlerOptions {
+    static final String VERIFY_WRITES_WITH_READ_ENV = "VERIFY_WRITES_WITH_READ";
+    static final String IN_INVOCATION_POLL_BUDGET_SECONDS_ENV = "IN_INVOCATION_POLL_BUDGET_SECONDS";
+    static final String CONCURRENT_UPDATE_PHASES_ENV = "CONCURRENT_UPDATE_PHASES";
+    static final String LIST_TARGET_PAGE_SIZE_ENV = "LIST_TARGET_PAGE_SIZE";
+    static final String LIST_TIME_BUDGET_SECONDS_ENV = "LIST_TIME_BUDGET_SECONDS";
+    static final String ENRICHED_LIST_ENV = "ENRICHED_LIST";
+    static final String LIST_DESCRIBE_CONCURRENCY_ENV = "LIST_DESCRIBE_CONCURRENCY";
+    static final String INVOCATION_TIME_BUDGET_SECONDS_ENV = "INVOCATION_TIME_BUDGET_SECONDS";
+    static final String DESCRIBE_HEDGE_PERCENTILE_ENV = "DESCRIBE_HEDGE_PERCENTILE";
+    static final String DESCRIBE_HEDGE_BUDGET_PERCENT_ENV = "DESCRIBE_HEDGE_BUDGET_PERCENT";
+
+    /**
+     * When set, create and update finish with a full ReadHandler round trip instead of returning the model projected
+     * from the write responses and the tags that were applied.
+     */
+    @lombok.Builder.Default
+    boolean verifyWritesWithRead = false;
+
+    /**
+     * How long update keeps polling a stabilizing domain within one invocation before it schedules a callback. It has
+     * to stay well below the handler timeout, since a poll can start right before the budget runs out.
+     */
+    @lombok.Builder.Default
+    Duration inInvocationPollBudget = Duration.ZERO;
+
+    /**
+     * When set, update sends its tag and untag calls while the domain update and its stabilization are running, and
+     * joins them before the final model is returned.
+     */
+    @lombok.Builder.Default
+    boolean concurrentUpdatePhases = false;
+
+    /**
+     * When positive, list keeps fetching domain pages until it has at least this many active domains or runs out of
+     * domains or listTimeBudget, instead of returning whatever a single service page leaves after filtering.
+     */
+    @lombok.Builder.Default
+    int listTargetPageSize = 0;
+
+    /**
+     * How long list keeps fetching pages to fill a page of listTargetPageSize domains.
+     */
+    @lombok.Builder.Default
+    Duration listTimeBudget = Duration.ofSeconds(20L);
+
+    /**
+     * When set, list describes every active domain and reads its tags, returning the same models read does instead of
+     * models that only carry the domain identifier.
+     */
+    @lombok.Builder.Default
+    boolean enrichedList = false;
+
+    /**
+     * How many domains an enriched list reads at once.
+     */
+    @lombok.Builder.Default
+    int listDescribeConcurrency = 4;
+
+    /**
+     * How long a single invocation may run before the function times out. Service calls are bounded so that the
+     * handler hands over to a callback a few seconds before then, so it must not exceed the function timeout.
+     */
+    @lombok.Builder.Default
+    Duration invocationTimeBudget = Duration.ofSeconds(60L);
+
+    /**
+     * When between 1 and 99, a DescribeDomain call that has not returned within this percentile of recently observed
+     * DescribeDomain latencies is sent a second time, and whichever response arrives first is used.
+     */
+    @lombok.Builder.Default
+    int describeHedgePercentile = 0;
+
+    /**
+     * At most how many hedged DescribeDomain calls are sent per hundred DescribeDomain calls.
+     */
+    @lombok.Builder.Default
+    int describeHedgeBudgetPercent = 10;
+
+    static HandlerOptions fromEnvironment() {
+        return HandlerOptions.builder()
+            .verifyWritesWithRead(Boolean.parseBoolean(System.getenv(VERIFY_WRITES_WITH_READ_ENV)))
+            .inInvocationPollBudget(parseSeconds(System.getenv(IN_INVOCATION_POLL_BUDGET_SECONDS_ENV)))
+            .concurrentUpdatePhases(Boolean.parseBoolean(System.getenv(CONCURRENT_UPDATE_PHASES_ENV)))
+            .listTargetPageSize(parsePositive(System.getenv(LIST_TARGET_PAGE_SIZE_ENV), 0))
+            .listTimeBudget(parseSeconds(System.getenv(LIST_TIME_BUDGET_SECONDS_ENV), Duration.ofSeconds(20L)))
+            .enrichedList(Boolean.parseBoolean(System.getenv(ENRICHED_LIST_ENV)))
+            .listDescribeConcurrency(parsePositive(System.getenv(LIST_DESCRIBE_CONCURRENCY_ENV), 4))
+            .invocationTimeBudget(parseSeconds(System.getenv(INVOCATION_TIME_BUDGET_SECONDS_ENV),
+                                               Duration.ofSeconds(60L)))
+            .describeHedgePercentile(parsePositive(System.getenv(DESCRIBE_HEDGE_PERCENTILE_ENV), 0))
+            .describeHedgeBudgetPercent(parsePositive(System.getenv(DESCRIBE_HEDGE_BUDGET_PERCENT_ENV), 10))
+            .build();
+    }
+
+    static Duration parseSeconds(final String value) {
+        return parseSeconds(value, Duration.ZERO);
+    }
+
+    static Duration parseSeconds(final String value, final Duration defaultValue) {
+        return StringUtils.isBlank(value) ? defaultValue : Duration.ofSeconds(parseCount(value));
+    }
+
+    static int parsePositive(final String value, final int defaultValue) {
+        final long count = parseCount(value);
+        return count > 0L ? (int) Math.min(count, Integer.MAX_VALUE) : defaultValue;
+    }
+
+    // A missing or malformed value disables the option rather than failing every request.
+    static long parseCount(final String value) {
+        if (StringUtils.isBlank(value)) {
+            return 0L;
+        }
+        try {
+            return Math.max(0L, Long.parseLong(value.trim()));
+        } catch (final NumberFormatException e) {
+            return 0L;
+        }
+    }
+}
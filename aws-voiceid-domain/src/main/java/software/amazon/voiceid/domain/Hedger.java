@@ -0,0 +1,210 @@
+package software.amazon.voiceid.domain;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Hedges an idempotent call: when the call has not completed within the given percentile of the latencies observed
+ * over the last windowSize calls, one duplicate is sent and whichever of the two succeeds first is used. A failure is
+ * only reported once every attempt sent has failed.
+ *
+ * Every call earns budget hedges, and credit never exceeds a single hedge, so hedges add at most budget extra calls
+ * per call on top of the regular load. No call is hedged until minSamples latencies have been observed.
+ */
+@lombok.Builder(builderMethodName = "of")
+class Hedger {
+    private static final ThreadFactory DAEMON_THREADS = runnable -> {
+        final Thread thread = new Thread(runnable, "voiceid-hedger");
+        thread.setDaemon(true);
+        return thread;
+    };
+    private static final ScheduledExecutorService HEDGE_SCHEDULER =
+        Executors.newSingleThreadScheduledExecutor(DAEMON_THREADS);
+    // Runs blocking calls that are being hedged, so that the caller can wait for whichever attempt completes first, and
+    // interrupts the one that loses.
+    private static final ExecutorService BLOCKING_CALLS = Executors.newCachedThreadPool(DAEMON_THREADS);
+
+    private final int percentile;
+    private final double budget;
+    @lombok.Builder.Default
+    private final int windowSize = 100;
+    @lombok.Builder.Default
+    private final int minSamples = 20;
+    @lombok.Builder.Default
+    private final LongSupplier currentTimeMillis = System::currentTimeMillis;
+
+    private final Deque<Long> latencies = new ArrayDeque<>();
+    private final AtomicLong hedgesSent = new AtomicLong();
+    // Hedges that may still be sent, in thousandths of a hedge.
+    private final AtomicLong creditMillis = new AtomicLong();
+
+    boolean isEnabled() {
+        return percentile > 0 && percentile < 100 && budget > 0;
+    }
+
+    long hedgesSent() {
+        return hedgesSent.get();
+    }
+
+    /**
+     * @param attempt starts an attempt of the call, called once for the call and once more for its hedge
+     *
+     * @return future of the first attempt that succeeds, or of the last failure
+     */
+    <ResponseT> CompletableFuture<ResponseT> call(final Supplier<CompletableFuture<ResponseT>> attempt) {
+        final Optional<Duration> hedgeDelay = hedgeDelay();
+        earnCredit();
+        final CompletableFuture<ResponseT> result = new CompletableFuture<>();
+        final AtomicInteger attemptsRunning = new AtomicInteger(1);
+        final CompletableFuture<ResponseT> primary = timed(attempt);
+        complete(result, primary, attemptsRunning);
+        result.whenComplete((response, e) -> {
+            if (result.isCancelled()) {
+                primary.cancel(true);
+            }
+        });
+        if (!hedgeDelay.isPresent()) {
+            return result;
+        }
+        HEDGE_SCHEDULER.schedule(() -> {
+            if (result.isDone() || !takeCredit()) {
+                return;
+            }
+            attemptsRunning.incrementAndGet();
+            hedgesSent.incrementAndGet();
+            final CompletableFuture<ResponseT> hedge;
+            try {
+                hedge = timed(attempt);
+            } catch (final RuntimeException e) {
+                attemptsRunning.decrementAndGet();
+                return;
+            }
+            complete(result, hedge, attemptsRunning);
+            // Whichever attempt loses is not waited for.
+            result.whenComplete((response, e) -> {
+                primary.cancel(true);
+                hedge.cancel(true);
+            });
+        }, hedgeDelay.get().toMillis(), TimeUnit.MILLISECONDS);
+        return result;
+    }
+
+    /**
+     * Blocking variant of call. Unless the call can be hedged it is made on the caller's thread.
+     *
+     * A hedged call runs its attempts on pooled threads, and the thread of the losing attempt is interrupted. The SDK
+     * aborts a call whose thread is interrupted with an AbortedException, which the circuit breaker does not count,
+     * but only once the call checks for it: an attempt that is already reading its response runs to completion and
+     * counts like any other call. The rate limiter token it took stays spent, since its request was sent either way.
+     *
+     * @return response of the first attempt that succeeds
+     */
+    <ResponseT> ResponseT callBlocking(final Supplier<ResponseT> blockingCall) {
+        if (!hedgeDelay().isPresent()) {
+            earnCredit();
+            final long startedAt = currentTimeMillis.getAsLong();
+            final ResponseT response = blockingCall.get();
+            recordLatency(currentTimeMillis.getAsLong() - startedAt);
+            return response;
+        }
+        try {
+            return call(() -> interruptible(blockingCall)).join();
+        } catch (final CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Starts the blocking call on a pooled thread. Cancelling a CompletableFuture does not interrupt the task that
+     * completes it, so the returned future interrupts the thread itself when it is cancelled.
+     */
+    private static <ResponseT> CompletableFuture<ResponseT> interruptible(final Supplier<ResponseT> blockingCall) {
+        final CompletableFuture<ResponseT> attempt = new CompletableFuture<>();
+        final Future<?> task = BLOCKING_CALLS.submit(() -> {
+            try {
+                attempt.complete(blockingCall.get());
+            } catch (final RuntimeException e) {
+                attempt.completeExceptionally(e);
+            }
+        });
+        attempt.whenComplete((response, e) -> {
+            if (attempt.isCancelled()) {
+                task.cancel(true);
+            }
+        });
+        return attempt;
+    }
+
+    /**
+     * @return how long to wait for a call before hedging it, or empty if calls are not hedged yet
+     */
+    synchronized Optional<Duration> hedgeDelay() {
+        if (!isEnabled() || latencies.size() < minSamples) {
+            return Optional.empty();
+        }
+        final long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        final int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return Optional.of(Duration.ofMillis(sorted[Math.max(0, rank - 1)]));
+    }
+
+    private <ResponseT> CompletableFuture<ResponseT> timed(final Supplier<CompletableFuture<ResponseT>> attempt) {
+        final long startedAt = currentTimeMillis.getAsLong();
+        final CompletableFuture<ResponseT> future = attempt.get();
+        future.whenComplete((response, e) -> {
+            if (e == null) {
+                recordLatency(currentTimeMillis.getAsLong() - startedAt);
+            }
+        });
+        return future;
+    }
+
+    private static <ResponseT> void complete(final CompletableFuture<ResponseT> result,
+                                             final CompletableFuture<ResponseT> attempt,
+                                             final AtomicInteger attemptsRunning) {
+        attempt.whenComplete((response, e) -> {
+            if (e == null) {
+                result.complete(response);
+            } else if (attemptsRunning.decrementAndGet() == 0) {
+                result.completeExceptionally(e instanceof CompletionException ? e.getCause() : e);
+            }
+        });
+    }
+
+    private synchronized void recordLatency(final long latencyMillis) {
+        latencies.addLast(latencyMillis);
+        while (latencies.size() > windowSize) {
+            latencies.removeFirst();
+        }
+    }
+
+    private synchronized void earnCredit() {
+        creditMillis.set(Math.min(1_000L, creditMillis.get() + (long) (budget * 1_000)));
+    }
+
+    private synchronized boolean takeCredit() {
+        if (creditMillis.get() < 1_000L) {
+            return false;
+        }
+        creditMillis.addAndGet(-1_000L);
+        return true;
+    }
+}
@@ -0,0 +1,74 @@
+package software.amazon.voiceid.domain;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * The point in an invocation by which the handler has to stop calling the service so that it still has time to return
+ * its progress event and have the callback context checkpointed before the function times out. Service calls are
+ * given whatever time is left up to that point as their timeout, and a call that would not get at least
+ * MIN_CALL_TIME is not started at all.
+ */
+final class InvocationDeadline {
+    // Kept back at the end of the invocation for the handler to return and for the wrapper to serialize the callback
+    // context and report progress.
+    static final Duration CHECKPOINT_RESERVE = Duration.ofSeconds(5L);
+    // A call given less time than this is unlikely to complete, so the invocation hands over to a callback instead.
+    static final Duration MIN_CALL_TIME = Duration.ofSeconds(1L);
+
+    private static final InvocationDeadline NONE = new InvocationDeadline(Long.MAX_VALUE, System::currentTimeMillis);
+
+    private final long checkpointAtMillis;
+    private final LongSupplier currentTimeMillis;
+
+    private InvocationDeadline(final long checkpointAtMillis, final LongSupplier currentTimeMillis) {
+        this.checkpointAtMillis = checkpointAtMillis;
+        this.currentTimeMillis = currentTimeMillis;
+    }
+
+    /**
+     * @param timeBudget how long the invocation may run in total, from now
+     */
+    static InvocationDeadline fromNow(final Duration timeBudget, final LongSupplier currentTimeMillis) {
+        return new InvocationDeadline(
+            currentTimeMillis.getAsLong() + timeBudget.toMillis() - CHECKPOINT_RESERVE.toMillis(), currentTimeMillis);
+    }
+
+    /**
+     * @return deadline that is never reached, for callers outside of a handler invocation
+     */
+    static InvocationDeadline none() {
+        return NONE;
+    }
+
+    /**
+     * @return epoch millis past which no call should still be running
+     */
+    long checkpointAtMillis() {
+        return checkpointAtMillis;
+    }
+
+    /**
+     * @return whether a call can still be made after waiting for the given interval
+     */
+    boolean allows(final Duration wait) {
+        return checkpointAtMillis - currentTimeMillis.getAsLong() - wait.toMillis() >= MIN_CALL_TIME.toMillis();
+    }
+
+    /**
+     * @param api name of the API about to be called
+     *
+     * @return the time left for the call
+     *
+     * @throws InvocationDeadlineException if too little time is left to start the call
+     */
+    Duration callTimeout(final String api) {
+        final long remainingMillis = checkpointAtMillis - currentTimeMillis.getAsLong();
+        if (remainingMillis < MIN_CALL_TIME.toMillis()) {
+            throw new InvocationDeadlineException(
+                String.format("%d ms left in the invocation, not enough to call %s", Math.max(0L, remainingMillis),
+                              api));
+        }
+        return Duration.ofMillis(remainingMillis);
+    }
+}
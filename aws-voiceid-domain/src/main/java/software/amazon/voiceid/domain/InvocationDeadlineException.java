@@ -0,0 +1,27 @@
+package software.amazon.voiceid.domain;
+
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
+
+/**
+ * Thrown when a call is not started, or timed out, because the invocation reached its InvocationDeadline. The call did
+ * not fail on the service side, so handlers that cannot resume from a callback report it as a network failure that
+ * CloudFormation may retry.
+ */
+class InvocationDeadlineException extends ResumableHandlerException {
+    private static final long serialVersionUID = 1L;
+    // Handing over at the deadline is not a sign of trouble, so the callback comes right away.
+    private static final int CALLBACK_DELAY_SECONDS = 1;
+
+    InvocationDeadlineException(final String message) {
+        super(message, HandlerErrorCode.NetworkFailure);
+    }
+
+    InvocationDeadlineException(final String message, final Throwable cause) {
+        super(message, cause, HandlerErrorCode.NetworkFailure);
+    }
+
+    @Override
+    int callbackDelaySeconds() {
+        return CALLBACK_DELAY_SECONDS;
+    }
+}
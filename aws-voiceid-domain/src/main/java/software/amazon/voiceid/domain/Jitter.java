@@ -0,0 +1,31 @@
+package software.amazon.voiceid.domain;
+
+import java.security.SecureRandom;
+import java.util.Random;
+
+/**
+ * Source of the randomness behind retry and poll jitter. ThreadLocalRandom derives its seeds from state captured when
+ * the JVM starts, so every container restored from the same snapshot would draw the same jitter and retry in lockstep.
+ * This source is reseeded from fresh entropy by Priming whenever the JVM is restored.
+ */
+final class Jitter {
+    private static volatile Random random = newRandom();
+
+    private Jitter() {
+    }
+
+    /**
+     * @return uniformly distributed value between 0 (inclusive) and 1 (exclusive)
+     */
+    static double nextDouble() {
+        return random.nextDouble();
+    }
+
+    static void reseed() {
+        random = newRandom();
+    }
+
+    private static Random newRandom() {
+        return new Random(new SecureRandom().nextLong());
+    }
+}
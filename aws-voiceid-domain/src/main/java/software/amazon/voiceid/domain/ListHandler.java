@@ -1,9 +1,11 @@
 package software.amazon.voiceid.domain;
 
 import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.services.voiceid.VoiceIdAsyncClient;
 import software.amazon.awssdk.services.voiceid.VoiceIdClient;
 import software.amazon.awssdk.services.voiceid.model.ListDomainsResponse;
-import software.amazon.cloudformation.exceptions.CfnGeneralServiceException;
+import software.amazon.awssdk.services.voiceid.model.ResourceNotFoundException;
+import software.amazon.cloudformation.exceptions.CfnNotFoundException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.OperationStatus;
@@ -13,8 +15,28 @@ import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
 
 public class ListHandler extends BaseHandlerStd {
+    private final HandlerOptions options;
+    private final LongSupplier currentTimeMillis;
+
+    public ListHandler() {
+        this(HandlerOptions.fromEnvironment());
+    }
+
+    public ListHandler(final HandlerOptions options) {
+        this(options, System::currentTimeMillis);
+    }
+
+    ListHandler(final HandlerOptions options, final LongSupplier currentTimeMillis) {
+        this.options = options;
+        this.currentTimeMillis = currentTimeMillis;
+    }
 
     @Override
     public ProgressEvent<ResourceModel, CallbackContext> handleRequest(
@@ -22,6 +44,22 @@ public class ListHandler extends BaseHandlerStd {
         final ResourceHandlerRequest<ResourceModel> request,
         final CallbackContext callbackContext,
         final ProxyClient<VoiceIdClient> proxyClient,
+        final ProxyClient<VoiceIdAsyncClient> asyncProxyClient,
+        final Logger logger) {
+
+        final ProgressEvent<ResourceModel, CallbackContext> page = options.getListTargetPageSize() > 0
+            ? listFilledPage(request, asyncProxyClient, logger)
+            : listPage(request, proxyClient, logger);
+        if (!options.isEnrichedList()) {
+            return page;
+        }
+        page.setResourceModels(readModels(page.getResourceModels(), callbackContext, asyncProxyClient, logger));
+        return page;
+    }
+
+    private ProgressEvent<ResourceModel, CallbackContext> listPage(
+        final ResourceHandlerRequest<ResourceModel> request,
+        final ProxyClient<VoiceIdClient> proxyClient,
         final Logger logger) {
 
         final List<ResourceModel> models;
@@ -46,4 +84,92 @@ public class ListHandler extends BaseHandlerStd {
             .status(OperationStatus.SUCCESS)
             .build();
     }
+
+    /**
+     * Lists domains page after page until the active domains fill a page of the target size. Suspended domains are
+     * filtered out of every service page, so a page full of recently deleted domains would otherwise come back empty
+     * and cost CloudFormation another list round trip. The next service page is requested before the current one is
+     * translated, and the page that is returned may exceed the target by up to one service page.
+     */
+    private ProgressEvent<ResourceModel, CallbackContext> listFilledPage(
+        final ResourceHandlerRequest<ResourceModel> request,
+        final ProxyClient<VoiceIdAsyncClient> asyncProxyClient,
+        final Logger logger) {
+
+        final long deadline = currentTimeMillis.getAsLong() + options.getListTimeBudget().toMillis();
+        final List<ResourceModel> models = new ArrayList<>();
+        CompletableFuture<ListDomainsResponse> nextPage = listDomains(asyncProxyClient, request.getNextToken());
+        String nextToken;
+        int pages = 0;
+        do {
+            final ListDomainsResponse awsResponse = joinServiceCall(nextPage);
+            nextToken = awsResponse.nextToken();
+            nextPage = nextToken == null ? null : listDomains(asyncProxyClient, nextToken);
+            models.addAll(Translator.translateFromListRequest(awsResponse));
+            pages++;
+        } while (nextToken != null && models.size() < options.getListTargetPageSize()
+            && currentTimeMillis.getAsLong() < deadline);
+
+        if (nextPage != null) {
+            // The prefetched page is read again from nextToken by the next list request.
+            nextPage.cancel(true);
+        }
+        logger.log(String.format("%s has successfully been listed from %d pages.", ResourceModel.TYPE_NAME, pages));
+        return ProgressEvent.<ResourceModel, CallbackContext>builder()
+            .resourceModels(models)
+            .nextToken(nextToken)
+            .status(OperationStatus.SUCCESS)
+            .build();
+    }
+
+    /**
+     * Reads every listed domain the way ReadHandler does, with at most listDescribeConcurrency domains in flight.
+     * Domains deleted or suspended since they were listed are left out rather than failing the whole page.
+     */
+    private List<ResourceModel> readModels(
+        final List<ResourceModel> models,
+        final CallbackContext callbackContext,
+        final ProxyClient<VoiceIdAsyncClient> asyncProxyClient,
+        final Logger logger) {
+
+        final List<ResourceModel> readModels = joinServiceCall(BoundedFanOut.map(
+            models,
+            options.getListDescribeConcurrency(),
+            model -> readModel(model, callbackContext, asyncProxyClient, logger)));
+        return readModels.stream().filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    private CompletableFuture<ResourceModel> readModel(
+        final ResourceModel model,
+        final CallbackContext callbackContext,
+        final ProxyClient<VoiceIdAsyncClient> asyncProxyClient,
+        final Logger logger) {
+
+        return describeDomainAsync(Translator.translateToReadRequest(model), asyncProxyClient, callbackContext, logger)
+            .thenCompose(describeDomainResponse -> asyncProxyClient
+                .injectCredentialsAndInvokeV2Async(
+                    Translator.translateToListTagsRequest(describeDomainResponse.domain().arn()),
+                    asyncProxyClient.client()::listTagsForResource)
+                .thenApply(listTagsResponse -> Translator.translateFromReadResponse(
+                    describeDomainResponse, TagHelper.convertToCfnTags(listTagsResponse.tags()))))
+            .handle((readModel, e) -> {
+                if (e == null) {
+                    return readModel;
+                }
+                final Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                if (cause instanceof CfnNotFoundException || cause instanceof ResourceNotFoundException) {
+                    logger.log(String.format("%s [%s] is no longer active, leaving it out of the list.",
+                                             ResourceModel.TYPE_NAME, model.getDomainId()));
+                    return null;
+                }
+                throw e instanceof CompletionException ? (CompletionException) e : new CompletionException(e);
+            });
+    }
+
+    private static CompletableFuture<ListDomainsResponse> listDomains(
+        final ProxyClient<VoiceIdAsyncClient> asyncProxyClient,
+        final String nextToken) {
+        return asyncProxyClient.injectCredentialsAndInvokeV2Async(Translator.translateToListRequest(nextToken),
+                                                                  asyncProxyClient.client()::listDomains);
+    }
 }
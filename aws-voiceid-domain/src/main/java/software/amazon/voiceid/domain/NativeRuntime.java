@@ -0,0 +1,183 @@
+package software.amazon.voiceid.domain;
+
+import com.amazonaws.services.lambda.runtime.ClientContext;
+import com.amazonaws.services.lambda.runtime.CognitoIdentity;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.amazonaws.services.lambda.runtime.RequestStreamHandler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Entry point of the native image built by the native profile. It implements the Lambda custom runtime loop: it takes
+ * the next invocation from the runtime API, passes it to the HandlerWrapper method named by _HANDLER, handleRequest or
+ * testEntrypoint, and posts back what the handler wrote or the error it threw.
+ */
+public final class NativeRuntime {
+    private static final String RUNTIME_API_VERSION = "2018-06-01";
+
+    private NativeRuntime() {
+    }
+
+    public static void main(final String[] args) throws IOException {
+        final String runtimeApi = String.format("http://%s/%s/runtime", System.getenv("AWS_LAMBDA_RUNTIME_API"),
+                                                RUNTIME_API_VERSION);
+        final RequestStreamHandler handler;
+        try {
+            handler = handlerOf(System.getenv("_HANDLER"));
+        } catch (final RuntimeException e) {
+            post(new URL(runtimeApi + "/init/error"), errorOf(e));
+            throw e;
+        }
+        while (true) {
+            final HttpURLConnection next = (HttpURLConnection) new URL(runtimeApi + "/invocation/next").openConnection();
+            final String requestId = next.getHeaderField("Lambda-Runtime-Aws-Request-Id");
+            final InvocationContext context = new InvocationContext(
+                requestId,
+                next.getHeaderField("Lambda-Runtime-Invoked-Function-Arn"),
+                Long.parseLong(next.getHeaderField("Lambda-Runtime-Deadline-Ms")));
+            final ByteArrayOutputStream response = new ByteArrayOutputStream();
+            try (InputStream event = next.getInputStream()) {
+                handler.handleRequest(event, response, context);
+            } catch (final IOException | RuntimeException e) {
+                post(new URL(String.format("%s/invocation/%s/error", runtimeApi, requestId)), errorOf(e));
+                continue;
+            }
+            post(new URL(String.format("%s/invocation/%s/response", runtimeApi, requestId)), response.toByteArray());
+        }
+    }
+
+    private static RequestStreamHandler handlerOf(final String handlerName) {
+        final HandlerWrapper handlerWrapper = new HandlerWrapper();
+        final String method = handlerName == null ? "" : handlerName.substring(handlerName.lastIndexOf(':') + 1);
+        switch (method) {
+            case "handleRequest":
+                return handlerWrapper::handleRequest;
+            case "testEntrypoint":
+                return handlerWrapper::testEntrypoint;
+            default:
+                throw new IllegalArgumentException(String.format("Unsupported handler %s", handlerName));
+        }
+    }
+
+    private static byte[] errorOf(final Exception e) {
+        return String.format("{\"errorMessage\":\"%s\",\"errorType\":\"%s\"}",
+                             escape(String.valueOf(e.getMessage())), e.getClass().getName())
+            .getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String escape(final String value) {
+        final StringBuilder escaped = new StringBuilder(value.length());
+        for (final char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                escaped.append('\\').append(c);
+            } else if (c < 0x20) {
+                escaped.append(String.format("\\u%04x", (int) c));
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    private static void post(final URL url, final byte[] body) throws IOException {
+        final HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setFixedLengthStreamingMode(body.length);
+        try (OutputStream output = connection.getOutputStream()) {
+            output.write(body);
+        }
+        connection.getResponseCode();
+        connection.disconnect();
+    }
+
+    /**
+     * Lambda context of one invocation, as far as the runtime API describes it
+     */
+    static final class InvocationContext implements Context {
+        private static final LambdaLogger LOGGER = new LambdaLogger() {
+            @Override
+            public void log(final String message) {
+                System.out.println(message);
+            }
+
+            @Override
+            public void log(final byte[] message) {
+                log(new String(message, StandardCharsets.UTF_8));
+            }
+        };
+
+        private final String awsRequestId;
+        private final String invokedFunctionArn;
+        private final long deadlineMillis;
+
+        InvocationContext(final String awsRequestId, final String invokedFunctionArn, final long deadlineMillis) {
+            this.awsRequestId = awsRequestId;
+            this.invokedFunctionArn = invokedFunctionArn;
+            this.deadlineMillis = deadlineMillis;
+        }
+
+        @Override
+        public String getAwsRequestId() {
+            return awsRequestId;
+        }
+
+        @Override
+        public String getLogGroupName() {
+            return System.getenv("AWS_LAMBDA_LOG_GROUP_NAME");
+        }
+
+        @Override
+        public String getLogStreamName() {
+            return System.getenv("AWS_LAMBDA_LOG_STREAM_NAME");
+        }
+
+        @Override
+        public String getFunctionName() {
+            return System.getenv("AWS_LAMBDA_FUNCTION_NAME");
+        }
+
+        @Override
+        public String getFunctionVersion() {
+            return System.getenv("AWS_LAMBDA_FUNCTION_VERSION");
+        }
+
+        @Override
+        public String getInvokedFunctionArn() {
+            return invokedFunctionArn;
+        }
+
+        @Override
+        public CognitoIdentity getIdentity() {
+            return null;
+        }
+
+        @Override
+        public ClientContext getClientContext() {
+            return null;
+        }
+
+        @Override
+        public int getRemainingTimeInMillis() {
+            return (int) Math.max(0L, deadlineMillis - System.currentTimeMillis());
+        }
+
+        @Override
+        public int getMemoryLimitInMB() {
+            final String memory = System.getenv("AWS_LAMBDA_FUNCTION_MEMORY_SIZE");
+            return memory == null ? 0 : Integer.parseInt(memory);
+        }
+
+        @Override
+        public LambdaLogger getLogger() {
+            return LOGGER;
+        }
+    }
+}
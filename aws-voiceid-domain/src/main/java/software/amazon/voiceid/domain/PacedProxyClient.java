@@ -0,0 +1,244 @@
+package software.amazon.voiceid.domain;
+
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsResponse;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.pagination.sync.SdkIterable;
+import software.amazon.awssdk.services.voiceid.model.ThrottlingException;
+import software.amazon.cloudformation.exceptions.CfnInternalFailureException;
+import software.amazon.cloudformation.proxy.ProxyClient;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * ProxyClient that holds every call made through it to the rate of its API in an AdaptiveRateLimiter, so callers stay
+ * within the request rate the account can sustain alongside its other VoiceID traffic. Blocking callers wait their turn
+ * on their own thread before the call is made, while non-blocking calls are scheduled for their turn so that no SDK or
+ * scheduler thread is held up waiting. Every throttled call slows its API down.
+ *
+ * A turn that would only come once too little of the invocation is left for the call fails with an
+ * InvocationDeadlineException instead of being waited for.
+ *
+ * A limiter shared by proxies for different accounts or regions is given a scope per proxy, which prefixes the API in
+ * the key of its buckets, so that one account's throttles do not slow another's calls down.
+ */
+class PacedProxyClient<ClientT> implements ProxyClient<ClientT> {
+    // Starts the non-blocking calls whose turn is still to come. It only hands them to the async client, so one thread
+    // is enough.
+    private static final ScheduledExecutorService PACING_SCHEDULER = Executors.newSingleThreadScheduledExecutor(
+        runnable -> {
+            final Thread thread = new Thread(runnable, "voiceid-pacing-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+    private final ProxyClient<ClientT> delegate;
+    private final AdaptiveRateLimiter rateLimiter;
+    private final String scope;
+    private final InvocationDeadline deadline;
+    private final ShortPollSchedule.Sleeper sleeper;
+
+    PacedProxyClient(final ProxyClient<ClientT> delegate, final AdaptiveRateLimiter rateLimiter) {
+        this(delegate, rateLimiter, "");
+    }
+
+    PacedProxyClient(final ProxyClient<ClientT> delegate, final AdaptiveRateLimiter rateLimiter, final String scope) {
+        this(delegate, rateLimiter, scope, InvocationDeadline.none());
+    }
+
+    PacedProxyClient(final ProxyClient<ClientT> delegate,
+                     final AdaptiveRateLimiter rateLimiter,
+                     final String scope,
+                     final InvocationDeadline deadline) {
+        this(delegate, rateLimiter, scope, deadline, interval -> Thread.sleep(interval.toMillis()));
+    }
+
+    PacedProxyClient(final ProxyClient<ClientT> delegate,
+                     final AdaptiveRateLimiter rateLimiter,
+                     final String scope,
+                     final ShortPollSchedule.Sleeper sleeper) {
+        this(delegate, rateLimiter, scope, InvocationDeadline.none(), sleeper);
+    }
+
+    PacedProxyClient(final ProxyClient<ClientT> delegate,
+                     final AdaptiveRateLimiter rateLimiter,
+                     final String scope,
+                     final InvocationDeadline deadline,
+                     final ShortPollSchedule.Sleeper sleeper) {
+        this.delegate = delegate;
+        this.rateLimiter = rateLimiter;
+        this.scope = scope;
+        this.deadline = deadline;
+        this.sleeper = sleeper;
+    }
+
+    @Override
+    public <RequestT extends AwsRequest, ResponseT extends AwsResponse> ResponseT injectCredentialsAndInvokeV2(
+        final RequestT request,
+        final Function<RequestT, ResponseT> requestFunction) {
+        final String key = awaitTurn(request);
+        final ResponseT response;
+        try {
+            response = delegate.injectCredentialsAndInvokeV2(request, requestFunction);
+        } catch (final RuntimeException e) {
+            recordFailure(key, e);
+            throw e;
+        }
+        rateLimiter.onSuccess(key);
+        return response;
+    }
+
+    @Override
+    public <RequestT extends AwsRequest, ResponseT extends AwsResponse> CompletableFuture<ResponseT>
+    injectCredentialsAndInvokeV2Async(
+        final RequestT request,
+        final Function<RequestT, CompletableFuture<ResponseT>> requestFunction) {
+        final String key = scope + apiOf(request);
+        final Duration wait;
+        try {
+            wait = reserveTurn(key);
+        } catch (final InvocationDeadlineException e) {
+            final CompletableFuture<ResponseT> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+        if (wait.isZero()) {
+            // The original future is returned so that cancelling it still cancels the call.
+            return invokeAsync(key, request, requestFunction);
+        }
+
+        final CompletableFuture<ResponseT> result = new CompletableFuture<>();
+        PACING_SCHEDULER.schedule(() -> {
+            if (result.isDone()) {
+                return;
+            }
+            final CompletableFuture<ResponseT> future;
+            try {
+                future = invokeAsync(key, request, requestFunction);
+            } catch (final RuntimeException e) {
+                result.completeExceptionally(e);
+                return;
+            }
+            future.whenComplete((response, e) -> {
+                if (e == null) {
+                    result.complete(response);
+                } else {
+                    result.completeExceptionally(e instanceof CompletionException ? e.getCause() : e);
+                }
+            });
+            // Cancelling the returned future cancels the call once it has been started.
+            result.whenComplete((response, e) -> {
+                if (result.isCancelled()) {
+                    future.cancel(true);
+                }
+            });
+        }, wait.toMillis(), TimeUnit.MILLISECONDS);
+        return result;
+    }
+
+    private <RequestT extends AwsRequest, ResponseT extends AwsResponse> CompletableFuture<ResponseT> invokeAsync(
+        final String key,
+        final RequestT request,
+        final Function<RequestT, CompletableFuture<ResponseT>> requestFunction) {
+        final CompletableFuture<ResponseT> future =
+            delegate.injectCredentialsAndInvokeV2Async(request, requestFunction);
+        future.whenComplete((response, e) -> {
+            if (e == null) {
+                rateLimiter.onSuccess(key);
+            } else {
+                recordFailure(key, e instanceof CompletionException ? e.getCause() : e);
+            }
+        });
+        return future;
+    }
+
+    @Override
+    public <RequestT extends AwsRequest, ResponseT extends AwsResponse, IterableT extends SdkIterable<ResponseT>>
+    IterableT injectCredentialsAndInvokeIterableV2(
+        final RequestT request,
+        final Function<RequestT, IterableT> requestFunction) {
+        awaitTurn(request);
+        return delegate.injectCredentialsAndInvokeIterableV2(request, requestFunction);
+    }
+
+    @Override
+    public <RequestT extends AwsRequest, ResponseT extends AwsResponse> ResponseInputStream<ResponseT>
+    injectCredentialsAndInvokeV2InputStream(
+        final RequestT request,
+        final Function<RequestT, ResponseInputStream<ResponseT>> requestFunction) {
+        awaitTurn(request);
+        return delegate.injectCredentialsAndInvokeV2InputStream(request, requestFunction);
+    }
+
+    @Override
+    public <RequestT extends AwsRequest, ResponseT extends AwsResponse> ResponseBytes<ResponseT>
+    injectCredentialsAndInvokeV2Bytes(
+        final RequestT request,
+        final Function<RequestT, ResponseBytes<ResponseT>> requestFunction) {
+        awaitTurn(request);
+        return delegate.injectCredentialsAndInvokeV2Bytes(request, requestFunction);
+    }
+
+    @Override
+    public ClientT client() {
+        return delegate.client();
+    }
+
+    /**
+     * @return name of the API the request calls, such as DescribeDomain for a DescribeDomainRequest
+     */
+    static String apiOf(final AwsRequest request) {
+        final String requestName = request.getClass().getSimpleName();
+        return requestName.endsWith("Request")
+            ? requestName.substring(0, requestName.length() - "Request".length())
+            : requestName;
+    }
+
+    /**
+     * @return key of the rate limiter bucket the call was paced by
+     */
+    private String awaitTurn(final AwsRequest request) {
+        final String key = scope + apiOf(request);
+        final Duration wait = reserveTurn(key);
+        if (wait.isZero()) {
+            return key;
+        }
+        try {
+            sleeper.sleep(wait);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CfnInternalFailureException(e);
+        }
+        return key;
+    }
+
+    /**
+     * @return how long until the turn of the call comes
+     *
+     * @throws InvocationDeadlineException if the turn comes too late in the invocation for the call to be made
+     */
+    private Duration reserveTurn(final String key) {
+        final Duration wait = rateLimiter.reserve(key);
+        if (!wait.isZero() && !deadline.allows(wait)) {
+            throw new InvocationDeadlineException(
+                String.format("The turn of %s comes in %d ms, too late in the invocation to make the call", key,
+                              wait.toMillis()));
+        }
+        return wait;
+    }
+
+    private void recordFailure(final String key, final Throwable e) {
+        if (e instanceof ThrottlingException
+            || (e instanceof AwsServiceException && ((AwsServiceException) e).isThrottlingException())) {
+            rateLimiter.onThrottle(key);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package software.amazon.voiceid.domain;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.crac.Context;
+import org.crac.Core;
+import org.crac.Resource;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.core.retry.RetryPolicy;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.http.ExecutableHttpRequest;
+import software.amazon.awssdk.http.HttpExecuteRequest;
+import software.amazon.awssdk.http.HttpExecuteResponse;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.voiceid.VoiceIdClient;
+import software.amazon.awssdk.services.voiceid.model.CreateDomainResponse;
+import software.amazon.awssdk.services.voiceid.model.DescribeDomainResponse;
+import software.amazon.awssdk.services.voiceid.model.InternalServerException;
+import software.amazon.awssdk.services.voiceid.model.ListDomainsResponse;
+import software.amazon.awssdk.services.voiceid.model.ListTagsForResourceResponse;
+import software.amazon.awssdk.services.voiceid.model.UpdateDomainResponse;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+import software.amazon.cloudformation.resource.Serializer;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Prepares the JVM to be snapshotted by Lambda SnapStart, or any other CRaC checkpoint. Before the checkpoint a domain
+ * is taken through every translation the handlers make, the resource model and callback context are serialized, and
+ * each VoiceID operation is sent through a client whose HTTP layer answers locally, so the classes and marshallers the
+ * first invocation needs are already loaded and initialized in the snapshot. Nothing leaves the host while priming.
+ *
+ * Cached clients are closed before the checkpoint, since a pooled connection would be dead once the snapshot is
+ * restored, and the client for the function's region is built again after the restore. The restore also reseeds the
+ * jitter, which would otherwise be identical in every container restored from the same snapshot.
+ *
+ * Without a CRaC capable runtime registering is a no-op.
+ */
+final class Priming implements Resource {
+    // CRaC only keeps weak references to registered resources.
+    private static final Priming INSTANCE = new Priming();
+
+    private static final String PRIMING_DOMAIN_ID = "PrimingDomainId";
+    private static final String PRIMING_DOMAIN_ARN =
+        "arn:aws:voiceid:us-east-1:123456789012:domain/" + PRIMING_DOMAIN_ID;
+    // A single body serves every operation: each response unmarshaller picks the members it knows and skips the rest.
+    private static final String CANNED_RESPONSE = "{"
+        + "\"Domain\":{\"Arn\":\"" + PRIMING_DOMAIN_ARN + "\",\"CreatedAt\":1.6E9,\"Description\":\"Priming\","
+        + "\"DomainId\":\"" + PRIMING_DOMAIN_ID + "\",\"DomainStatus\":\"ACTIVE\",\"Name\":\"Priming\","
+        + "\"ServerSideEncryptionConfiguration\":{\"KmsKeyId\":\"PrimingKmsKeyId\"},"
+        + "\"ServerSideEncryptionUpdateDetails\":{\"UpdateStatus\":\"COMPLETED\"},\"UpdatedAt\":1.6E9},"
+        + "\"DomainSummaries\":[{\"Arn\":\"" + PRIMING_DOMAIN_ARN + "\",\"CreatedAt\":1.6E9,"
+        + "\"DomainId\":\"" + PRIMING_DOMAIN_ID + "\",\"DomainStatus\":\"ACTIVE\",\"Name\":\"Priming\","
+        + "\"ServerSideEncryptionConfiguration\":{\"KmsKeyId\":\"PrimingKmsKeyId\"},\"UpdatedAt\":1.6E9}],"
+        + "\"Tags\":[{\"Key\":\"PrimingKey\",\"Value\":\"PrimingValue\"}]"
+        + "}";
+
+    private Priming() {
+    }
+
+    static void register() {
+        Core.getGlobalContext().register(INSTANCE);
+    }
+
+    @Override
+    public void beforeCheckpoint(final Context<? extends Resource> context) throws Exception {
+        prime();
+        ClientBuilder.clientCache().clear();
+        ClientBuilder.asyncClientCache().clear();
+    }
+
+    @Override
+    public void afterRestore(final Context<? extends Resource> context) {
+        Jitter.reseed();
+        if (System.getenv("AWS_REGION") != null) {
+            ClientBuilder.getClient();
+        }
+    }
+
+    /**
+     * Runs a domain through the code paths of all five handlers without calling the service
+     */
+    static void prime() throws IOException {
+        final Map<String, String> tags = Collections.singletonMap("PrimingKey", "PrimingValue");
+        final ResourceModel model = ResourceModel.builder()
+            .domainId(PRIMING_DOMAIN_ID)
+            .name("Priming")
+            .description("Priming")
+            .serverSideEncryptionConfiguration(ServerSideEncryptionConfiguration.builder()
+                                                   .kmsKeyId("PrimingKmsKeyId")
+                                                   .build())
+            .tags(TagHelper.convertToCfnTags(TagHelper.convertToList(tags)))
+            .build();
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .desiredResourceState(model)
+            .previousResourceState(model)
+            .desiredResourceTags(tags)
+            .previousResourceTags(Collections.emptyMap())
+            .build();
+
+        final Serializer serializer = new Serializer();
+        serializer.deserialize(serializer.serialize(model), new TypeReference<ResourceModel>() {});
+        final CallbackContext callbackContext = new CallbackContext();
+        callbackContext.setStabilizationStartedAt(0L);
+        callbackContext.setCompletedTagKeys(tags.keySet());
+        serializer.deserialize(serializer.serialize(callbackContext), new TypeReference<CallbackContext>() {});
+
+        final Map<String, String> tagsForCreate = TagHelper.generateTagsForCreate(request);
+        TagHelper.generateTagsToAdd(request.getPreviousResourceTags(), tagsForCreate);
+        TagHelper.generateTagsToRemove(tagsForCreate, request.getPreviousResourceTags());
+
+        try (VoiceIdClient client = primingClient()) {
+            final CreateDomainResponse created =
+                client.createDomain(Translator.translateToCreateRequest(model, tagsForCreate,
+                                                                    callbackContext.createClientToken(request)));
+            Translator.translateFromWriteResponse(created.domain(), tagsForCreate);
+            final DescribeDomainResponse described = client.describeDomain(Translator.translateToReadRequest(model));
+            final ListTagsForResourceResponse listedTags =
+                client.listTagsForResource(Translator.translateToListTagsRequest(PRIMING_DOMAIN_ARN));
+            Translator.translateFromReadResponse(described, TagHelper.convertToCfnTags(listedTags.tags()));
+            final UpdateDomainResponse updated = client.updateDomain(Translator.translateToUpdateRequest(model));
+            Translator.translateFromWriteResponse(updated.domain(), tagsForCreate);
+            client.tagResource(Translator.translateToTagRequest(PRIMING_DOMAIN_ARN, tagsForCreate));
+            client.untagResource(Translator.translateToUntagRequest(PRIMING_DOMAIN_ARN, tagsForCreate.keySet()));
+            final ListDomainsResponse listed = client.listDomains(Translator.translateToListRequest(null));
+            Translator.translateFromListRequest(listed);
+            client.deleteDomain(Translator.translateToDeleteRequest(model));
+        }
+        Translator.translateToCfnException(InternalServerException.builder().message("Priming").build());
+    }
+
+    private static VoiceIdClient primingClient() {
+        return VoiceIdClient.builder()
+            .httpClient(new CannedHttpClient())
+            .region(Optional.ofNullable(System.getenv("AWS_REGION")).map(Region::of).orElse(Region.US_EAST_1))
+            .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("priming", "priming")))
+            .overrideConfiguration(ClientOverrideConfiguration.builder().retryPolicy(RetryPolicy.none()).build())
+            .build();
+    }
+
+    /**
+     * HTTP client that answers every request with CANNED_RESPONSE instead of sending it
+     */
+    private static final class CannedHttpClient implements SdkHttpClient {
+        @Override
+        public ExecutableHttpRequest prepareRequest(final HttpExecuteRequest request) {
+            return new ExecutableHttpRequest() {
+                @Override
+                public HttpExecuteResponse call() {
+                    return HttpExecuteResponse.builder()
+                        .response(SdkHttpResponse.builder()
+                                      .statusCode(200)
+                                      .putHeader("Content-Type", "application/x-amz-json-1.0")
+                                      .build())
+                        .responseBody(AbortableInputStream.create(
+                            new ByteArrayInputStream(CANNED_RESPONSE.getBytes(StandardCharsets.UTF_8))))
+                        .build();
+                }
+
+                @Override
+                public void abort() {
+                }
+            };
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package software.amazon.voiceid.domain;
 
 import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.services.voiceid.VoiceIdAsyncClient;
 import software.amazon.awssdk.services.voiceid.VoiceIdClient;
 import software.amazon.awssdk.services.voiceid.model.DescribeDomainRequest;
 import software.amazon.awssdk.services.voiceid.model.DescribeDomainResponse;
@@ -13,6 +14,8 @@ import software.amazon.cloudformation.proxy.ProxyClient;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 public class ReadHandler extends BaseHandlerStd {
     private Logger logger;
@@ -22,24 +25,63 @@ public class ReadHandler extends BaseHandlerStd {
         final ResourceHandlerRequest<ResourceModel> request,
         final CallbackContext callbackContext,
         final ProxyClient<VoiceIdClient> proxyClient,
+        final ProxyClient<VoiceIdAsyncClient> asyncProxyClient,
         final Logger logger) {
 
         this.logger = logger;
-        final DescribeDomainRequest describeDomainRequest =
-            Translator.translateToReadRequest(request.getDesiredResourceState());
-        final DescribeDomainResponse describeDomainResponseResponse =
-            describeDomain(describeDomainRequest, proxyClient, logger);
-        final ListTagsForResourceRequest listTagsForResourceRequest =
-            Translator.translateToListTagsRequest(describeDomainResponseResponse.domain().arn());
+        final ResourceModel model = request.getDesiredResourceState();
+        final DescribeDomainRequest describeDomainRequest = Translator.translateToReadRequest(model);
+        final Optional<String> domainArn = Translator.translateToDomainArn(request.getAwsPartition(),
+                                                                           request.getRegion(),
+                                                                           request.getAwsAccountId(),
+                                                                           model.getDomainId());
+        if (!domainArn.isPresent()) {
+            final DescribeDomainResponse describeDomainResponse =
+                describeDomain(describeDomainRequest, proxyClient, callbackContext, logger);
+            final List<Tag> tags = listTags(proxyClient, describeDomainResponse.domain().arn());
+            return ProgressEvent.defaultSuccessHandler(Translator.translateFromReadResponse(describeDomainResponse,
+                                                                                            tags));
+        }
+
+        // The arn is known up front, so the tags are fetched while the domain is being described instead of after.
+        final CompletableFuture<DescribeDomainResponse> describeDomainFuture =
+            describeDomainAsync(describeDomainRequest, asyncProxyClient, callbackContext, logger);
+        final CompletableFuture<ListTagsForResourceResponse> listTagsFuture =
+            asyncProxyClient.injectCredentialsAndInvokeV2Async(Translator.translateToListTagsRequest(domainArn.get()),
+                                                               asyncProxyClient.client()::listTagsForResource);
+
+        // A missing or suspended domain is reported from the describe call, whatever the tags call returned.
+        final DescribeDomainResponse describeDomainResponse;
+        try {
+            describeDomainResponse = joinServiceCall(describeDomainFuture);
+        } catch (final RuntimeException e) {
+            listTagsFuture.cancel(true);
+            throw e;
+        }
+
         final List<Tag> tags;
+        if (domainArn.get().equals(describeDomainResponse.domain().arn())) {
+            tags = TagHelper.convertToCfnTags(joinServiceCall(listTagsFuture).tags());
+        } else {
+            logger.log(String.format("%s [%s] arn differs from the expected arn, reading tags again.",
+                                     ResourceModel.TYPE_NAME, model.getDomainId()));
+            listTagsFuture.cancel(true);
+            tags = listTags(proxyClient, describeDomainResponse.domain().arn());
+        }
+        return ProgressEvent.defaultSuccessHandler(Translator.translateFromReadResponse(describeDomainResponse, tags));
+    }
+
+    private List<Tag> listTags(
+        final ProxyClient<VoiceIdClient> proxyClient,
+        final String domainArn) {
+        final ListTagsForResourceRequest listTagsForResourceRequest = Translator.translateToListTagsRequest(domainArn);
         try {
-            final ListTagsForResourceResponse listTagsForResourceResponse = proxy.injectCredentialsAndInvokeV2(
+            final ListTagsForResourceResponse listTagsForResourceResponse = proxyClient.injectCredentialsAndInvokeV2(
                 listTagsForResourceRequest,
                 proxyClient.client()::listTagsForResource);
-            tags = TagHelper.convertToCfnTags(listTagsForResourceResponse.tags());
+            return TagHelper.convertToCfnTags(listTagsForResourceResponse.tags());
         } catch (final AwsServiceException e) {
             throw Translator.translateToCfnException(e);
         }
-        return ProgressEvent.defaultSuccessHandler(Translator.translateFromReadResponse(describeDomainResponseResponse, tags));
     }
 }
@@ -0,0 +1,26 @@
+package software.amazon.voiceid.domain;
+
+import software.amazon.cloudformation.exceptions.BaseHandlerException;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
+
+/**
+ * Failure that says nothing about the request itself, only that this invocation cannot make progress right now.
+ * Handlers that can resume from a callback return IN_PROGRESS with callbackDelaySeconds instead, and the others report
+ * the error code.
+ */
+abstract class ResumableHandlerException extends BaseHandlerException {
+    private static final long serialVersionUID = 1L;
+
+    ResumableHandlerException(final String message, final HandlerErrorCode errorCode) {
+        super(message, errorCode);
+    }
+
+    ResumableHandlerException(final String message, final Throwable cause, final HandlerErrorCode errorCode) {
+        super(message, cause, errorCode);
+    }
+
+    /**
+     * @return how long CloudFormation should wait before invoking the handler again
+     */
+    abstract int callbackDelaySeconds();
+}
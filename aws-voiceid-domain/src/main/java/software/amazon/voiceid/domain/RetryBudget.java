@@ -0,0 +1,64 @@
+package software.amazon.voiceid.domain;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleSupplier;
+
+/**
+ * How much retrying a single handler invocation may do. Every retry takes one of maxRetries and waits a jittered
+ * backoff that doubles from baseDelay up to maxDelay with each attempt of the same call, and the backoffs of all calls
+ * together may not exceed maxBackoff nor run past the deadline of the invocation. Once the budget is spent the
+ * invocation hands the work back to CloudFormation instead of retrying further, so retries never eat into the time the
+ * handler needs to report its progress.
+ */
+@lombok.Builder(builderMethodName = "of")
+class RetryBudget {
+    private final int maxRetries;
+    private final Duration maxBackoff;
+    private final Duration baseDelay;
+    private final Duration maxDelay;
+    @lombok.Builder.Default
+    private final DoubleSupplier random = Jitter::nextDouble;
+    @lombok.Builder.Default
+    private final InvocationDeadline deadline = InvocationDeadline.none();
+
+    private final AtomicInteger retries = new AtomicInteger();
+    private final AtomicLong backoffMillis = new AtomicLong();
+
+    /**
+     * Budget of a handler invocation: a handful of retries backing off for at most 20 seconds altogether, which leaves
+     * most of the invocation to the calls themselves
+     */
+    static RetryBudget forInvocation(final InvocationDeadline deadline) {
+        return RetryBudget.of()
+            .deadline(deadline)
+            .maxRetries(6)
+            .maxBackoff(Duration.ofSeconds(20L))
+            .baseDelay(Duration.ofMillis(250L))
+            .maxDelay(Duration.ofSeconds(5L))
+            .build();
+    }
+
+    /**
+     * Takes a retry out of the budget
+     *
+     * @param attempt number of times the call has been retried already
+     *
+     * @return how long to back off before the retry, or empty once the budget is spent
+     */
+    Optional<Duration> reserveRetry(final int attempt) {
+        final long ceilingMillis = Math.min(maxDelay.toMillis(), baseDelay.toMillis() << Math.min(attempt, 20));
+        final long delayMillis = (long) (random.getAsDouble() * ceilingMillis);
+        if (retries.incrementAndGet() > maxRetries || backoffMillis.addAndGet(delayMillis) > maxBackoff.toMillis()
+            || !deadline.allows(Duration.ofMillis(delayMillis))) {
+            return Optional.empty();
+        }
+        return Optional.of(Duration.ofMillis(delayMillis));
+    }
+
+    int retries() {
+        return Math.min(retries.get(), maxRetries);
+    }
+}
@@ -0,0 +1,36 @@
+package software.amazon.voiceid.domain;
+
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
+
+/**
+ * Thrown when a call keeps failing with a retryable error after the invocation has spent its retry budget. It carries
+ * the error code the last failure translates to, so a handler that cannot resume later reports exactly what it would
+ * have reported without retrying.
+ */
+class RetryBudgetExhaustedException extends ResumableHandlerException {
+    private static final long serialVersionUID = 1L;
+    // Long enough for a throttled or struggling API to recover before the handler is invoked again.
+    private static final int CALLBACK_DELAY_SECONDS = 10;
+
+    RetryBudgetExhaustedException(final AwsServiceException lastFailure) {
+        super(String.format("Retry budget exhausted: %s", lastFailure.getMessage()),
+              lastFailure,
+              Translator.translateToCfnException(lastFailure).getErrorCode());
+    }
+
+    /**
+     * @param lastFailure client side failure, such as a reset connection, which is reported as a network failure
+     */
+    RetryBudgetExhaustedException(final SdkClientException lastFailure) {
+        super(String.format("Retry budget exhausted: %s", lastFailure.getMessage()),
+              lastFailure,
+              HandlerErrorCode.NetworkFailure);
+    }
+
+    @Override
+    int callbackDelaySeconds() {
+        return CALLBACK_DELAY_SECONDS;
+    }
+}
@@ -0,0 +1,186 @@
+package software.amazon.voiceid.domain;
+
+import software.amazon.awssdk.awscore.AwsRequest;
+import software.amazon.awssdk.awscore.AwsResponse;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.core.ResponseBytes;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.pagination.sync.SdkIterable;
+import software.amazon.cloudformation.exceptions.CfnInternalFailureException;
+import software.amazon.cloudformation.proxy.ProxyClient;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * ProxyClient that retries calls failing with an error Translator classifies as retryable, backing off as the
+ * invocation's RetryBudget allows. That covers the service's throttles and server side failures as well as client side
+ * failures such as a reset connection, since the clients underneath make a single attempt. Terminal errors are passed on unchanged at the first failure. A call still failing
+ * once the budget is spent fails with RetryBudgetExhaustedException, which BaseHandlerStd turns into a callback for the
+ * handlers that can resume.
+ *
+ * Blocking calls back off on the caller's thread. Non-blocking calls schedule their retry instead, so no thread waits
+ * for it.
+ */
+class RetryingProxyClient<ClientT> implements ProxyClient<ClientT> {
+    private static final ScheduledExecutorService RETRY_SCHEDULER = Executors.newSingleThreadScheduledExecutor(
+        runnable -> {
+            final Thread thread = new Thread(runnable, "voiceid-retry-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+    private final ProxyClient<ClientT> delegate;
+    private final RetryBudget retryBudget;
+    private final ShortPollSchedule.Sleeper sleeper;
+
+    RetryingProxyClient(final ProxyClient<ClientT> delegate, final RetryBudget retryBudget) {
+        this(delegate, retryBudget, interval -> Thread.sleep(interval.toMillis()));
+    }
+
+    RetryingProxyClient(final ProxyClient<ClientT> delegate,
+                        final RetryBudget retryBudget,
+                        final ShortPollSchedule.Sleeper sleeper) {
+        this.delegate = delegate;
+        this.retryBudget = retryBudget;
+        this.sleeper = sleeper;
+    }
+
+    @Override
+    public <RequestT extends AwsRequest, ResponseT extends AwsResponse> ResponseT injectCredentialsAndInvokeV2(
+        final RequestT request,
+        final Function<RequestT, ResponseT> requestFunction) {
+        for (int attempt = 0; ; attempt++) {
+            final Duration backoff;
+            try {
+                return delegate.injectCredentialsAndInvokeV2(request, requestFunction);
+            } catch (final AwsServiceException | SdkClientException e) {
+                backoff = backoffBeforeRetry(e, attempt).orElseThrow(() -> e);
+            }
+            try {
+                sleeper.sleep(backoff);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CfnInternalFailureException(e);
+            }
+        }
+    }
+
+    @Override
+    public <RequestT extends AwsRequest, ResponseT extends AwsResponse> CompletableFuture<ResponseT>
+    injectCredentialsAndInvokeV2Async(
+        final RequestT request,
+        final Function<RequestT, CompletableFuture<ResponseT>> requestFunction) {
+        final CompletableFuture<ResponseT> result = new CompletableFuture<>();
+        final AtomicReference<CompletableFuture<ResponseT>> attemptInFlight = new AtomicReference<>();
+        // Cancelling the result cancels whichever attempt is in flight.
+        result.whenComplete((response, e) -> {
+            if (result.isCancelled() && attemptInFlight.get() != null) {
+                attemptInFlight.get().cancel(true);
+            }
+        });
+        attemptAsync(request, requestFunction, 0, result, attemptInFlight);
+        return result;
+    }
+
+    @Override
+    public <RequestT extends AwsRequest, ResponseT extends AwsResponse, IterableT extends SdkIterable<ResponseT>>
+    IterableT injectCredentialsAndInvokeIterableV2(
+        final RequestT request,
+        final Function<RequestT, IterableT> requestFunction) {
+        return delegate.injectCredentialsAndInvokeIterableV2(request, requestFunction);
+    }
+
+    @Override
+    public <RequestT extends AwsRequest, ResponseT extends AwsResponse> ResponseInputStream<ResponseT>
+    injectCredentialsAndInvokeV2InputStream(
+        final RequestT request,
+        final Function<RequestT, ResponseInputStream<ResponseT>> requestFunction) {
+        return delegate.injectCredentialsAndInvokeV2InputStream(request, requestFunction);
+    }
+
+    @Override
+    public <RequestT extends AwsRequest, ResponseT extends AwsResponse> ResponseBytes<ResponseT>
+    injectCredentialsAndInvokeV2Bytes(
+        final RequestT request,
+        final Function<RequestT, ResponseBytes<ResponseT>> requestFunction) {
+        return delegate.injectCredentialsAndInvokeV2Bytes(request, requestFunction);
+    }
+
+    @Override
+    public ClientT client() {
+        return delegate.client();
+    }
+
+    private <RequestT extends AwsRequest, ResponseT extends AwsResponse> void attemptAsync(
+        final RequestT request,
+        final Function<RequestT, CompletableFuture<ResponseT>> requestFunction,
+        final int attempt,
+        final CompletableFuture<ResponseT> result,
+        final AtomicReference<CompletableFuture<ResponseT>> attemptInFlight) {
+        if (result.isDone()) {
+            return;
+        }
+        final CompletableFuture<ResponseT> future;
+        try {
+            future = delegate.injectCredentialsAndInvokeV2Async(request, requestFunction);
+        } catch (final RuntimeException e) {
+            result.completeExceptionally(e);
+            return;
+        }
+        attemptInFlight.set(future);
+        future.whenComplete((response, e) -> {
+            if (e == null) {
+                result.complete(response);
+                return;
+            }
+            final Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+            final Optional<Duration> backoff;
+            try {
+                backoff = cause instanceof AwsServiceException || cause instanceof SdkClientException
+                    ? backoffBeforeRetry((SdkException) cause, attempt)
+                    : Optional.empty();
+            } catch (final RetryBudgetExhaustedException exhausted) {
+                result.completeExceptionally(exhausted);
+                return;
+            }
+            if (!backoff.isPresent()) {
+                result.completeExceptionally(cause);
+                return;
+            }
+            RETRY_SCHEDULER.schedule(() -> attemptAsync(request, requestFunction, attempt + 1, result,
+                                                        attemptInFlight),
+                                     backoff.get().toMillis(), TimeUnit.MILLISECONDS);
+        });
+    }
+
+    /**
+     * @return how long to back off before retrying the failed call, or empty if its failure is terminal
+     *
+     * @throws RetryBudgetExhaustedException if the failure is retryable but the budget is spent
+     */
+    private Optional<Duration> backoffBeforeRetry(final SdkException e, final int attempt) {
+        final boolean retryable = e instanceof AwsServiceException
+            ? Translator.isRetryable((AwsServiceException) e)
+            : Translator.isRetryable((SdkClientException) e);
+        if (!retryable) {
+            return Optional.empty();
+        }
+        final Optional<Duration> backoff = retryBudget.reserveRetry(attempt);
+        if (!backoff.isPresent()) {
+            throw e instanceof AwsServiceException
+                ? new RetryBudgetExhaustedException((AwsServiceException) e)
+                : new RetryBudgetExhaustedException((SdkClientException) e);
+        }
+        return backoff;
+    }
+}
@@ -0,0 +1,60 @@
+package software.amazon.voiceid.domain;
+
+import java.time.Duration;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Schedule for polling a stabilizing domain again within the same invocation instead of handing control back to
+ * CloudFormation after every unsuccessful poll. Polls are spaced a random interval between minInterval and
+ * maxInterval apart, so concurrent stacks updating domains do not poll in lockstep, and stop once the next poll would
+ * land past the budget of the invocation. A zero budget disables in-invocation polling.
+ */
+@lombok.Builder(builderMethodName = "of")
+class ShortPollSchedule {
+    private final Duration budget;
+    private final Duration minInterval;
+    private final Duration maxInterval;
+    @lombok.Builder.Default
+    private final LongSupplier currentTimeMillis = System::currentTimeMillis;
+    @lombok.Builder.Default
+    private final DoubleSupplier random = Jitter::nextDouble;
+    @lombok.Builder.Default
+    private final Sleeper sleeper = interval -> Thread.sleep(interval.toMillis());
+
+    /**
+     * Returns the point past which this invocation stops polling, to be taken once when the invocation starts
+     *
+     * @return deadline in epoch millis
+     */
+    long deadlineFromNow() {
+        return currentTimeMillis.getAsLong() + budget.toMillis();
+    }
+
+    /**
+     * Waits for the next poll if it still fits within the invocation
+     *
+     * @param deadline the deadline taken when the invocation started
+     *
+     * @return true once it is time to poll again, false if polling should be left to a callback instead
+     */
+    boolean awaitNextPoll(final long deadline) {
+        final Duration interval = minInterval.plus(
+            Duration.ofMillis((long) (random.getAsDouble() * maxInterval.minus(minInterval).toMillis())));
+        if (currentTimeMillis.getAsLong() + interval.toMillis() > deadline) {
+            return false;
+        }
+        try {
+            sleeper.sleep(interval);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return true;
+    }
+
+    @FunctionalInterface
+    interface Sleeper {
+        void sleep(Duration interval) throws InterruptedException;
+    }
+}
@@ -0,0 +1,59 @@
+package software.amazon.voiceid.domain;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Records how long past server side encryption updates took to complete. Durations are counted in buckets whose upper
+ * bounds double from FIRST_BUCKET, so a handful of counters covers everything from seconds to the stabilization
+ * timeout. The histogram is kept in memory, which means it accumulates over the warm invocations of a container.
+ */
+class StabilizationHistogram {
+    private static final Duration FIRST_BUCKET = Duration.ofSeconds(5L);
+    private static final int BUCKET_COUNT = 10;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    void record(final Duration completionTime) {
+        counts.incrementAndGet(bucketOf(completionTime));
+    }
+
+    long size() {
+        long size = 0L;
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            size += counts.get(bucket);
+        }
+        return size;
+    }
+
+    /**
+     * Returns the earliest point after elapsed at which past updates have completed
+     *
+     * @param elapsed time since the update started
+     *
+     * @return upper bound of the first non-empty bucket past elapsed, or empty if no recorded update took longer
+     */
+    Optional<Duration> nextCompletionAfter(final Duration elapsed) {
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            final Duration upperBound = upperBound(bucket);
+            if (upperBound.compareTo(elapsed) > 0 && counts.get(bucket) > 0) {
+                return Optional.of(upperBound);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static int bucketOf(final Duration completionTime) {
+        for (int bucket = 0; bucket < BUCKET_COUNT - 1; bucket++) {
+            if (completionTime.compareTo(upperBound(bucket)) <= 0) {
+                return bucket;
+            }
+        }
+        return BUCKET_COUNT - 1;
+    }
+
+    private static Duration upperBound(final int bucket) {
+        return FIRST_BUCKET.multipliedBy(1L << bucket);
+    }
+}
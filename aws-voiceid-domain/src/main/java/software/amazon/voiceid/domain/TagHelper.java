@@ -1,15 +1,13 @@
 package software.amazon.voiceid.domain;
 
-import org.apache.commons.collections.MapUtils;
-import software.amazon.awssdk.awscore.exception.AwsServiceException;
-import software.amazon.awssdk.services.voiceid.VoiceIdClient;
+import software.amazon.awssdk.services.voiceid.VoiceIdAsyncClient;
 import software.amazon.awssdk.services.voiceid.model.Tag;
-import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ProxyClient;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -17,9 +15,17 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public class TagHelper {
+    // TagResource and UntagResource accept as many tags per call as a domain can carry, 200. Changes are still split
+    // up so that their chunks can be in flight at once and a failed chunk only leaves its own tags to apply again.
+    static final int MAX_TAGS_PER_CALL = 50;
+    static final int MAX_CONCURRENT_TAG_CALLS = 4;
 
     /**
      * Converts a tag map to a list of SDK Tag objects, filtering out value-less tag entries
@@ -29,7 +35,7 @@ public class TagHelper {
      * @return List of Tag objects
      */
     protected static List<Tag> convertToList(final Map<String, String> tagMap) {
-        if (MapUtils.isEmpty(tagMap)) {
+        if (tagMap == null || tagMap.isEmpty()) {
             return Collections.emptyList();
         }
         return tagMap.entrySet().stream()
@@ -111,9 +117,13 @@ public class TagHelper {
             .collect(Collectors.toSet());
     }
 
+    /**
+     * Adds tags to the domain in chunks the service accepts, see addTagsInChunks
+     *
+     * @return progress event to continue the handler chain with once every chunk has been applied
+     */
     protected static ProgressEvent<ResourceModel, CallbackContext> tagResource(
-        final AmazonWebServicesClientProxy proxy,
-        final ProxyClient<VoiceIdClient> proxyClient,
+        final ProxyClient<VoiceIdAsyncClient> asyncProxyClient,
         final ResourceModel resourceModel,
         final ResourceHandlerRequest<ResourceModel> handlerRequest,
         final CallbackContext callbackContext,
@@ -123,21 +133,17 @@ public class TagHelper {
 
         logger.log(String.format("[UPDATE][IN PROGRESS] Going to add tags for domain resource: %s with AccountId: %s",
                                  resourceModel.getDomainId(), handlerRequest.getAwsAccountId()));
-        return proxy.initiate("AWS-VoiceID-Domain::TagOps", proxyClient, resourceModel, callbackContext)
-            .translateToServiceRequest(model -> Translator.translateToTagRequest(resourceArn, addedTags))
-            .makeServiceCall((request, client) -> {
-                try {
-                    return proxy.injectCredentialsAndInvokeV2(request, client.client()::tagResource);
-                } catch (final AwsServiceException e) {
-                    throw Translator.translateToCfnException(e);
-                }
-            })
-            .progress();
+        BaseHandlerStd.joinServiceCall(addTagsInChunks(asyncProxyClient, callbackContext, addedTags, resourceArn));
+        return ProgressEvent.progress(resourceModel, callbackContext);
     }
 
+    /**
+     * Removes tags from the domain in chunks the service accepts, see removeTagsInChunks
+     *
+     * @return progress event to continue the handler chain with once every chunk has been applied
+     */
     protected static ProgressEvent<ResourceModel, CallbackContext> untagResource(
-        final AmazonWebServicesClientProxy proxy,
-        final ProxyClient<VoiceIdClient> proxyClient,
+        final ProxyClient<VoiceIdAsyncClient> asyncProxyClient,
         final ResourceModel resourceModel,
         final ResourceHandlerRequest<ResourceModel> handlerRequest,
         final CallbackContext callbackContext,
@@ -147,16 +153,75 @@ public class TagHelper {
 
         logger.log(String.format("[UPDATE][IN PROGRESS] Going to remove tags for domain resource: %s with AccountId: %s",
                                  resourceModel.getDomainId(), handlerRequest.getAwsAccountId()));
-        return proxy.initiate("AWS-VoiceID-Domain::TagOps", proxyClient, resourceModel, callbackContext)
-            .translateToServiceRequest(model -> Translator.translateToUntagRequest(resourceArn, removedTags))
-            .makeServiceCall((request, client) -> {
-                try {
-                    return proxy.injectCredentialsAndInvokeV2(request, client.client()::untagResource);
-                } catch (final AwsServiceException e) {
-                    throw Translator.translateToCfnException(e);
-                }
-            })
-            .progress();
+        BaseHandlerStd.joinServiceCall(removeTagsInChunks(asyncProxyClient, callbackContext, removedTags, resourceArn));
+        return ProgressEvent.progress(resourceModel, callbackContext);
+    }
+
+    /**
+     * Adds tags to the domain with at most MAX_TAGS_PER_CALL tags per TagResource call and at most
+     * MAX_CONCURRENT_TAG_CALLS calls in flight. Tags applied by a completed call are recorded in the callback context
+     * and skipped when a re-invocation applies the same tags again, while the tags of a failed call are recorded as
+     * failed and sent again.
+     *
+     * @return future that completes once every chunk has been applied, or with the first failure
+     */
+    protected static CompletableFuture<Void> addTagsInChunks(
+        final ProxyClient<VoiceIdAsyncClient> asyncProxyClient,
+        final CallbackContext callbackContext,
+        final Map<String, String> addedTags,
+        final String resourceArn) {
+
+        final Map<String, String> pendingTags = new TreeMap<>(addedTags);
+        pendingTags.keySet().removeIf(callbackContext::isTagKeyCompleted);
+        return runInChunks(callbackContext, pendingTags.keySet(), chunk -> {
+            final Map<String, String> chunkTags = new TreeMap<>(pendingTags);
+            chunkTags.keySet().retainAll(chunk);
+            return asyncProxyClient.injectCredentialsAndInvokeV2Async(
+                Translator.translateToTagRequest(resourceArn, chunkTags), asyncProxyClient.client()::tagResource);
+        });
+    }
+
+    /**
+     * Removes tags from the domain the same way addTagsInChunks adds them, chunked by UntagResource tag keys
+     *
+     * @return future that completes once every chunk has been applied, or with the first failure
+     */
+    protected static CompletableFuture<Void> removeTagsInChunks(
+        final ProxyClient<VoiceIdAsyncClient> asyncProxyClient,
+        final CallbackContext callbackContext,
+        final Set<String> removedTags,
+        final String resourceArn) {
+
+        final Set<String> pendingKeys = new TreeSet<>(removedTags);
+        pendingKeys.removeIf(callbackContext::isTagKeyCompleted);
+        return runInChunks(callbackContext, pendingKeys, chunk -> asyncProxyClient.injectCredentialsAndInvokeV2Async(
+            Translator.translateToUntagRequest(resourceArn, new TreeSet<>(chunk)),
+            asyncProxyClient.client()::untagResource));
+    }
+
+    private static CompletableFuture<Void> runInChunks(
+        final CallbackContext callbackContext,
+        final Collection<String> tagKeys,
+        final Function<List<String>, CompletableFuture<?>> call) {
+
+        if (tagKeys.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        callbackContext.invalidateDescribeDomainResponse();
+        final List<String> keys = new ArrayList<>(tagKeys);
+        final List<List<String>> chunks = new ArrayList<>();
+        for (int from = 0; from < keys.size(); from += MAX_TAGS_PER_CALL) {
+            chunks.add(keys.subList(from, Math.min(from + MAX_TAGS_PER_CALL, keys.size())));
+        }
+        return BoundedFanOut.map(chunks, MAX_CONCURRENT_TAG_CALLS, chunk -> call.apply(chunk)
+                .whenComplete((response, e) -> {
+                    if (e == null) {
+                        callbackContext.markTagKeysCompleted(chunk);
+                    } else {
+                        callbackContext.markTagKeysFailed(chunk);
+                    }
+                }))
+            .thenApply(responses -> null);
     }
 
 }
@@ -0,0 +1,111 @@
+package software.amazon.voiceid.domain;
+
+import software.amazon.awssdk.services.voiceid.VoiceIdAsyncClient;
+import software.amazon.cloudformation.proxy.Logger;
+import software.amazon.cloudformation.proxy.ProxyClient;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Tag and untag calls dispatched while the domain itself is being updated. Neither depends on the domain update or
+ * its stabilization, and they touch disjoint tag keys, so they can all be in flight at once.
+ *
+ * Failures are reported in the order the sequential update runs its phases: a failed domain update wins over a
+ * failed tag call, which wins over a failed untag call. Every failure is logged with the phase it came from.
+ */
+class TagPhases {
+    private static final TagPhases NONE = new TagPhases(null, null);
+
+    private final CompletableFuture<?> tagFuture;
+    private final CompletableFuture<?> untagFuture;
+    private boolean settled;
+
+    private TagPhases(final CompletableFuture<?> tagFuture, final CompletableFuture<?> untagFuture) {
+        this.tagFuture = tagFuture;
+        this.untagFuture = untagFuture;
+        this.settled = tagFuture == null;
+    }
+
+    static TagPhases none() {
+        return NONE;
+    }
+
+    static TagPhases dispatch(
+        final ProxyClient<VoiceIdAsyncClient> asyncProxyClient,
+        final CallbackContext callbackContext,
+        final String resourceArn,
+        final Map<String, String> tagsToAdd,
+        final Set<String> tagsToRemove,
+        final Logger logger) {
+
+        logger.log(String.format("[UPDATE][IN PROGRESS] Going to add %d and remove %d tags for domain resource: %s "
+                                     + "alongside the domain update", tagsToAdd.size(), tagsToRemove.size(),
+                                 resourceArn));
+        final Set<String> failedTagKeys = callbackContext.failedTagKeysSnapshot();
+        if (!failedTagKeys.isEmpty()) {
+            logger.log(String.format("Retrying the tag keys whose calls failed in an earlier invocation: %s",
+                                     failedTagKeys));
+        }
+        final CompletableFuture<?> tagFuture =
+            TagHelper.addTagsInChunks(asyncProxyClient, callbackContext, tagsToAdd, resourceArn);
+        final CompletableFuture<?> untagFuture =
+            TagHelper.removeTagsInChunks(asyncProxyClient, callbackContext, tagsToRemove, resourceArn);
+        return new TagPhases(tagFuture, untagFuture);
+    }
+
+    boolean isDispatched() {
+        return this != NONE;
+    }
+
+    /**
+     * Waits for both phases once the domain update has completed, failing with the first failed phase
+     */
+    void join(final Logger logger) {
+        if (settled) {
+            return;
+        }
+        settled = true;
+        final RuntimeException tagFailure = failureOf("TagResource", tagFuture, logger);
+        final RuntimeException untagFailure = failureOf("UntagResource", untagFuture, logger);
+        if (tagFailure != null) {
+            throw tagFailure;
+        }
+        if (untagFailure != null) {
+            throw untagFailure;
+        }
+    }
+
+    /**
+     * Waits for both phases when the domain update did not complete in this invocation. The calls are writes, so they
+     * are waited for rather than abandoned, but a failure is not reported: the update's own result is. The keys of
+     * failed calls are left in the callback context, and the re-invocation that resumes the update sends them again.
+     */
+    void await(final CallbackContext callbackContext, final Logger logger) {
+        if (settled) {
+            return;
+        }
+        settled = true;
+        final RuntimeException tagFailure = failureOf("TagResource", tagFuture, logger);
+        final RuntimeException untagFailure = failureOf("UntagResource", untagFuture, logger);
+        if (tagFailure != null || untagFailure != null) {
+            logger.log(String.format("Tag keys %s are left to the next invocation of the %s update",
+                                     callbackContext.failedTagKeysSnapshot(), ResourceModel.TYPE_NAME));
+        }
+    }
+
+    private static RuntimeException failureOf(
+        final String phase,
+        final CompletableFuture<?> future,
+        final Logger logger) {
+        try {
+            BaseHandlerStd.joinServiceCall(future);
+            return null;
+        } catch (final RuntimeException e) {
+            logger.log(String.format("%s phase of the %s update failed: %s", phase, ResourceModel.TYPE_NAME,
+                                     e.getMessage()));
+            return e;
+        }
+    }
+}
@@ -1,6 +1,12 @@
 package software.amazon.voiceid.domain;
 
 import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.core.exception.AbortedException;
+import software.amazon.awssdk.core.exception.ApiCallAttemptTimeoutException;
+import software.amazon.awssdk.core.exception.ApiCallTimeoutException;
+import software.amazon.awssdk.core.exception.RetryableException;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.pagination.sync.SdkIterable;
 import software.amazon.awssdk.services.voiceid.model.AccessDeniedException;
 import software.amazon.awssdk.services.voiceid.model.ConflictException;
 import software.amazon.awssdk.services.voiceid.model.CreateDomainRequest;
@@ -9,6 +15,8 @@ import software.amazon.awssdk.services.voiceid.model.DescribeDomainRequest;
 import software.amazon.awssdk.services.voiceid.model.DescribeDomainResponse;
 import software.amazon.awssdk.services.voiceid.model.Domain;
 import software.amazon.awssdk.services.voiceid.model.DomainStatus;
+import software.amazon.awssdk.services.voiceid.model.DomainSummary;
+import software.amazon.awssdk.services.voiceid.model.InternalServerException;
 import software.amazon.awssdk.services.voiceid.model.ListDomainsRequest;
 import software.amazon.awssdk.services.voiceid.model.ListDomainsResponse;
 import software.amazon.awssdk.services.voiceid.model.ListTagsForResourceRequest;
@@ -21,6 +29,7 @@ import software.amazon.awssdk.services.voiceid.model.UntagResourceRequest;
 import software.amazon.awssdk.services.voiceid.model.UpdateDomainRequest;
 import software.amazon.awssdk.services.voiceid.model.ValidationException;
 import software.amazon.awssdk.services.voiceid.model.VoiceIdException;
+import software.amazon.awssdk.utils.StringUtils;
 import software.amazon.cloudformation.exceptions.BaseHandlerException;
 import software.amazon.cloudformation.exceptions.CfnAccessDeniedException;
 import software.amazon.cloudformation.exceptions.CfnGeneralServiceException;
@@ -31,11 +40,16 @@ import software.amazon.cloudformation.exceptions.CfnResourceConflictException;
 import software.amazon.cloudformation.exceptions.CfnServiceLimitExceededException;
 import software.amazon.cloudformation.exceptions.CfnThrottlingException;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -47,16 +61,46 @@ import java.util.stream.Stream;
  */
 
 public class Translator {
+    private static final String DOMAIN_ARN_FORMAT = "arn:%s:voiceid:%s:%s:domain/%s";
+    // The largest page ListDomains returns; smaller pages only mean more round trips.
+    static final int LIST_DOMAINS_MAX_RESULTS = 10;
+
+    // The SDK instantiates the exact exception class the service model defines for each error, so the class is
+    // looked up directly instead of testing it against every type in turn.
+    private static final Map<Class<? extends AwsServiceException>, ServiceError> SERVICE_ERRORS = new HashMap<>();
+    private static final ServiceError SERVICE_ERROR = new ServiceError(CfnGeneralServiceException::new, false);
+    private static final ServiceError RETRYABLE_SERVICE_ERROR =
+        new ServiceError(CfnGeneralServiceException::new, true);
+    private static final ServiceError INTERNAL_FAILURE = new ServiceError(CfnInternalFailureException::new, false);
+    private static final ServiceError RETRYABLE_INTERNAL_FAILURE =
+        new ServiceError(CfnInternalFailureException::new, true);
+
+    static {
+        SERVICE_ERRORS.put(AccessDeniedException.class, new ServiceError(CfnAccessDeniedException::new, false));
+        // Conflicts on a domain come from an encryption update in progress, which takes far longer than a retry.
+        SERVICE_ERRORS.put(ConflictException.class, new ServiceError(CfnResourceConflictException::new, false));
+        SERVICE_ERRORS.put(InternalServerException.class, RETRYABLE_SERVICE_ERROR);
+        SERVICE_ERRORS.put(ResourceNotFoundException.class, new ServiceError(CfnNotFoundException::new, false));
+        SERVICE_ERRORS.put(ServiceQuotaExceededException.class,
+                           new ServiceError(CfnServiceLimitExceededException::new, false));
+        SERVICE_ERRORS.put(ThrottlingException.class, new ServiceError(CfnThrottlingException::new, true));
+        SERVICE_ERRORS.put(ValidationException.class, new ServiceError(CfnInvalidRequestException::new, false));
+        SERVICE_ERRORS.put(VoiceIdException.class, SERVICE_ERROR);
+    }
 
     /**
      * Request to create a domain
      *
      * @param model resource model
+     * @param clientToken idempotency token, the same for every attempt to create this domain
      *
      * @return awsRequest the voiceid service request to create a domain
      */
-    static CreateDomainRequest translateToCreateRequest(final ResourceModel model, final Map<String, String> tags) {
+    static CreateDomainRequest translateToCreateRequest(final ResourceModel model,
+                                                        final Map<String, String> tags,
+                                                        final String clientToken) {
         return CreateDomainRequest.builder()
+            .clientToken(clientToken)
             .description(model.getDescription())
             .name(model.getName())
             .serverSideEncryptionConfiguration(ServerSideEncryptionConfiguration.builder()
@@ -85,7 +129,23 @@ public class Translator {
      * @return model resource model
      */
     static ResourceModel translateFromReadResponse(final DescribeDomainResponse awsResponse, final List<Tag> tags) {
-        final Domain domain = awsResponse.domain();
+        return translateFromDomain(awsResponse.domain(), tags);
+    }
+
+    /**
+     * Projects the resource model a read would return from the domain carried by a create or update response and the
+     * tags the handler applied, so a successful write does not need another round trip
+     *
+     * @param domain the domain returned by the voiceid service write request
+     * @param tags the tags on the domain once the write completed, value-less entries are dropped
+     *
+     * @return model resource model, with tags ordered by key so the projection is stable
+     */
+    static ResourceModel translateFromWriteResponse(final Domain domain, final Map<String, String> tags) {
+        return translateFromDomain(domain, TagHelper.convertToCfnTags(TagHelper.convertToList(new TreeMap<>(tags))));
+    }
+
+    private static ResourceModel translateFromDomain(final Domain domain, final List<Tag> tags) {
         return ResourceModel.builder()
             .description(domain.description())
             .domainId(domain.domainId())
@@ -134,7 +194,7 @@ public class Translator {
      * @return awsRequest the voiceid service request to list domains within aws account
      */
     static ListDomainsRequest translateToListRequest(final String nextToken) {
-        return ListDomainsRequest.builder().nextToken(nextToken).build();
+        return ListDomainsRequest.builder().maxResults(LIST_DOMAINS_MAX_RESULTS).nextToken(nextToken).build();
     }
 
     /**
@@ -147,11 +207,41 @@ public class Translator {
      */
     static List<ResourceModel> translateFromListRequest(final ListDomainsResponse awsResponse) {
         return streamOfOrEmpty(awsResponse.domainSummaries())
-            .filter(domainSummary -> domainSummary.domainStatus() == DomainStatus.ACTIVE)
-            .map(domainSummary -> ResourceModel.builder().domainId(domainSummary.domainId()).build())
+            .filter(Translator::isActive)
+            .map(Translator::translateFromDomainSummary)
             .collect(Collectors.toList());
     }
 
+    /**
+     * Lazily streams the active domain summaries of every page. A page is only requested once the stream has
+     * consumed the one before it, so nothing but the current page is held in memory.
+     *
+     * @param awsResponses the pages of a voiceid service list domains paginator
+     *
+     * @return stream of the summaries of active domains
+     */
+    static Stream<DomainSummary> streamActiveDomainSummaries(
+        final SdkIterable<ListDomainsResponse> awsResponses) {
+        return awsResponses.stream()
+            .flatMap(awsResponse -> streamOfOrEmpty(awsResponse.domainSummaries()))
+            .filter(Translator::isActive);
+    }
+
+    /**
+     * Translates a domain summary into a resource model (primary identifier only)
+     *
+     * @param domainSummary the domain summary from a voiceid service list domains response
+     *
+     * @return model resource model
+     */
+    static ResourceModel translateFromDomainSummary(final DomainSummary domainSummary) {
+        return ResourceModel.builder().domainId(domainSummary.domainId()).build();
+    }
+
+    private static boolean isActive(final DomainSummary domainSummary) {
+        return domainSummary.domainStatus() == DomainStatus.ACTIVE;
+    }
+
     private static <T> Stream<T> streamOfOrEmpty(final Collection<T> collection) {
         return Optional.ofNullable(collection)
             .map(Collection::stream)
@@ -169,6 +259,29 @@ public class Translator {
         return ListTagsForResourceRequest.builder().resourceArn(resourceArn).build();
     }
 
+    /**
+     * Builds the arn of a domain from its identifier and the account it lives in, so that calls keyed by arn do not
+     * have to wait for a describe domain response
+     *
+     * @param partition aws partition of the account
+     * @param region region the domain lives in
+     * @param accountId account that owns the domain
+     * @param domainId domain identifier
+     *
+     * @return the domain arn, or empty if any of its parts is unknown
+     */
+    static Optional<String> translateToDomainArn(
+        final String partition,
+        final String region,
+        final String accountId,
+        final String domainId) {
+        if (StringUtils.isBlank(partition) || StringUtils.isBlank(region) || StringUtils.isBlank(accountId)
+            || StringUtils.isBlank(domainId)) {
+            return Optional.empty();
+        }
+        return Optional.of(String.format(DOMAIN_ARN_FORMAT, partition, region, accountId, domainId));
+    }
+
     /**
      * Request to add tags to a domain resource
      *
@@ -201,22 +314,60 @@ public class Translator {
      * @return the cfn exception most closely mapped from the service exception
      */
     static BaseHandlerException translateToCfnException(final AwsServiceException awsException) {
-        if (awsException instanceof AccessDeniedException) {
-            return new CfnAccessDeniedException(awsException);
-        } else if (awsException instanceof ConflictException) {
-            return new CfnResourceConflictException(awsException);
-        } else if (awsException instanceof ResourceNotFoundException) {
-            return new CfnNotFoundException(awsException);
-        } else if (awsException instanceof ServiceQuotaExceededException) {
-            return new CfnServiceLimitExceededException(awsException);
-        } else if (awsException instanceof ThrottlingException) {
-            return new CfnThrottlingException(awsException);
-        } else if (awsException instanceof ValidationException) {
-            return new CfnInvalidRequestException(awsException);
-        } else if (awsException instanceof VoiceIdException) {
-            return new CfnGeneralServiceException(awsException);
-        } else {
-            return new CfnInternalFailureException(awsException);
+        return serviceErrorOf(awsException).getTranslation().apply(awsException);
+    }
+
+    /**
+     * Tells whether the call that failed with the exception may succeed when it is made again shortly after
+     *
+     * @param awsException exception
+     *
+     * @return true for throttles and server side failures, false for errors in the request or the resource
+     */
+    static boolean isRetryable(final AwsServiceException awsException) {
+        return serviceErrorOf(awsException).isRetryable();
+    }
+
+    /**
+     * Tells whether the call that failed on the client side may succeed when it is made again shortly after. The
+     * classification follows the SDK's own default retry condition.
+     *
+     * @param clientException exception
+     *
+     * @return true for I/O failures such as a reset connection and for timed out attempts, false for aborted calls
+     */
+    static boolean isRetryable(final SdkClientException clientException) {
+        if (clientException instanceof AbortedException || clientException instanceof ApiCallTimeoutException) {
+            return false;
+        }
+        if (clientException instanceof RetryableException
+            || clientException instanceof ApiCallAttemptTimeoutException) {
+            return true;
+        }
+        for (Throwable cause = clientException.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof IOException || cause instanceof UncheckedIOException) {
+                return true;
+            }
         }
+        return false;
+    }
+
+    private static ServiceError serviceErrorOf(final AwsServiceException awsException) {
+        final ServiceError serviceError = SERVICE_ERRORS.get(awsException.getClass());
+        if (serviceError != null) {
+            return serviceError;
+        }
+        // Exceptions the service model does not define are classified by what the response says about them.
+        final boolean retryable = awsException.isThrottlingException() || awsException.statusCode() >= 500;
+        if (awsException instanceof VoiceIdException) {
+            return retryable ? RETRYABLE_SERVICE_ERROR : SERVICE_ERROR;
+        }
+        return retryable ? RETRYABLE_INTERNAL_FAILURE : INTERNAL_FAILURE;
+    }
+
+    @lombok.Value
+    private static class ServiceError {
+        Function<AwsServiceException, BaseHandlerException> translation;
+        boolean retryable;
     }
 }
@@ -1,30 +1,49 @@
 package software.amazon.voiceid.domain;
 
 import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.services.voiceid.VoiceIdAsyncClient;
 import software.amazon.awssdk.services.voiceid.VoiceIdClient;
 import software.amazon.awssdk.services.voiceid.model.DescribeDomainRequest;
 import software.amazon.awssdk.services.voiceid.model.DescribeDomainResponse;
+import software.amazon.awssdk.services.voiceid.model.Domain;
 import software.amazon.awssdk.services.voiceid.model.ServerSideEncryptionUpdateStatus;
 import software.amazon.awssdk.services.voiceid.model.UpdateDomainRequest;
 import software.amazon.awssdk.services.voiceid.model.UpdateDomainResponse;
 import software.amazon.cloudformation.exceptions.CfnNotFoundException;
 import software.amazon.cloudformation.exceptions.CfnResourceConflictException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.Delay;
 import software.amazon.cloudformation.proxy.Logger;
 import software.amazon.cloudformation.proxy.ProgressEvent;
 import software.amazon.cloudformation.proxy.ProxyClient;
 import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
-import software.amazon.cloudformation.proxy.delay.Constant;
 
 import java.time.Duration;
 import java.util.Collections;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
 
+/**
+ * Updates the domain, waits for a server side encryption update to stabilize and then applies the tag changes.
+ *
+ * The stabilization delay adapts to how long past encryption updates took. That history lives in the memory of the
+ * container serving the handler: it starts empty on every cold start, is not shared between containers, and is kept
+ * per account and region so that one account's re-encryptions do not set the polling pace for another's.
+ */
 public class UpdateHandler extends BaseHandlerStd {
+    // Completion times of the encryption updates this container has seen, keyed by account and region.
+    private static final ConcurrentMap<String, StabilizationHistogram> STABILIZATION_HISTORIES =
+        new ConcurrentHashMap<>();
+
     private Logger logger;
-    private Constant STABILIZATION_DELAY;
+    private final BiFunction<StabilizationHistogram, CallbackContext, Delay> stabilizationDelay;
+    private final HandlerOptions options;
+    private final ShortPollSchedule shortPollSchedule;
 
     public UpdateHandler() {
         // Setting stabilization timeout to 30 minutes to ensure that asynchronous KMS key update gets three attempts:
@@ -32,16 +51,43 @@ public class UpdateHandler extends BaseHandlerStd {
         // In the rare case that stabilization times out, the stack will attempt to roll back to the old KMS key. This
         // operation will likely fail because updates to KMS keys are not allowed during ongoing encryption updates.
         // There is little to do to prevent this, but it is an extremely rare event that should not occur often.
-        this.STABILIZATION_DELAY = Constant.of()
+        this.stabilizationDelay = (history, callbackContext) -> AdaptiveStabilizationDelay.of()
+            .minDelay(Duration.ofSeconds(5L))
+            .maxDelay(Duration.ofMinutes(2L))
             .timeout(Duration.ofMinutes(30L))
-            .delay(Duration.ofMinutes(1L))
+            .history(history)
+            .callbackContext(callbackContext)
             .build();
+        this.options = HandlerOptions.fromEnvironment();
+        this.shortPollSchedule = shortPollSchedule(options);
     }
 
     // This constructor is used to set a shorter stabilization delay to test stabilization in unit tests without
     // requiring the full timeout to complete.
-    public UpdateHandler(final Constant stabilizationDelay) {
-        this.STABILIZATION_DELAY = stabilizationDelay;
+    public UpdateHandler(final Delay stabilizationDelay) {
+        this(stabilizationDelay, HandlerOptions.fromEnvironment());
+    }
+
+    public UpdateHandler(final Delay stabilizationDelay, final HandlerOptions options) {
+        this(stabilizationDelay, options, shortPollSchedule(options));
+    }
+
+    UpdateHandler(final Delay stabilizationDelay,
+                  final HandlerOptions options,
+                  final ShortPollSchedule shortPollSchedule) {
+        this.stabilizationDelay = (history, callbackContext) -> stabilizationDelay;
+        this.options = options;
+        this.shortPollSchedule = shortPollSchedule;
+    }
+
+    private static ShortPollSchedule shortPollSchedule(final HandlerOptions options) {
+        // Small domains usually finish re-encrypting within a minute, so a few seconds between polls catches most
+        // updates well before the first callback would have.
+        return ShortPollSchedule.of()
+            .budget(options.getInInvocationPollBudget())
+            .minInterval(Duration.ofSeconds(2L))
+            .maxInterval(Duration.ofSeconds(4L))
+            .build();
     }
 
     protected ProgressEvent<ResourceModel, CallbackContext> handleRequest(
@@ -49,72 +95,152 @@ public class UpdateHandler extends BaseHandlerStd {
         final ResourceHandlerRequest<ResourceModel> request,
         final CallbackContext callbackContext,
         final ProxyClient<VoiceIdClient> proxyClient,
+        final ProxyClient<VoiceIdAsyncClient> asyncProxyClient,
         final Logger logger) {
 
         this.logger = logger;
+        final long pollDeadline = Math.min(shortPollSchedule.deadlineFromNow(),
+                                           callbackContext.invocationDeadline().checkpointAtMillis());
         final AtomicReference<String> resourceArn = new AtomicReference<>();
+        // The most recent domain returned by the service in this invocation, used to project the final model.
+        final AtomicReference<Domain> latestDomain = new AtomicReference<>();
+        // Only updates that switch keys re-encrypt the domain, so only they say anything about re-encryption time.
+        final boolean kmsKeyChanged = !Objects.equals(kmsKeyId(request.getPreviousResourceState()),
+                                                      kmsKeyId(request.getDesiredResourceState()));
+        final StabilizationHistogram stabilizationHistory = stabilizationHistory(request);
+        final boolean domainChanged = domainPropertiesChanged(request.getPreviousResourceState(),
+                                                              request.getDesiredResourceState());
         final Map<String, String>
             previousTags =
             request.getPreviousResourceTags() == null ? Collections.emptyMap() : request.getPreviousResourceTags();
         final Map<String, String>
             desiredTags =
             request.getDesiredResourceTags() == null ? Collections.emptyMap() : request.getDesiredResourceTags();
+        final Map<String, String> tagsToAdd = TagHelper.generateTagsToAdd(previousTags, desiredTags);
+        final Set<String> tagsToRemove = TagHelper.generateTagsToRemove(previousTags, desiredTags);
+        // Tag calls sent alongside the domain update, if any.
+        final AtomicReference<TagPhases> tagPhases = new AtomicReference<>(TagPhases.none());
+        // Tags are only sent once the domain update has been accepted, so a rejected update leaves the tags as they
+        // were; they then overlap with stabilization rather than with the update call itself.
+        final Runnable dispatchTagPhases = () -> {
+            final boolean tagsChanged = !tagsToAdd.isEmpty() || !tagsToRemove.isEmpty();
+            if (options.isConcurrentUpdatePhases() && tagsChanged) {
+                tagPhases.set(TagPhases.dispatch(asyncProxyClient, callbackContext,
+                                                 domainArn(request, resourceArn, proxyClient, callbackContext),
+                                                 tagsToAdd, tagsToRemove, logger));
+            }
+        };
 
-        return ProgressEvent.progress(request.getDesiredResourceState(), callbackContext)
-            .then(progress ->
-                      proxy.initiate("AWS-VoiceID-Domain::Update::PreUpdateCheck",
-                                     proxyClient,
-                                     progress.getResourceModel(),
-                                     progress.getCallbackContext())
-                          .translateToServiceRequest(Translator::translateToReadRequest)
-                          .makeServiceCall((awsRequest, client) -> {
-                              if (awsRequest.domainId() == null) {
-                                  throw new CfnNotFoundException(ResourceModel.TYPE_NAME, null);
-                              }
-                              final DescribeDomainResponse describeDomainResponse = describeDomain(awsRequest,
-                                                                                                   client,
-                                                                                                   logger);
-                              resourceArn.set(describeDomainResponse.domain().arn());
-                              return describeDomainResponse;
-                          })
-                          .progress()
-                 )
-            .then(progress ->
-                      proxy.initiate("AWS-VoiceID-Domain::Update",
-                                     proxyClient,
-                                     progress.getResourceModel(),
-                                     progress.getCallbackContext())
-                          .translateToServiceRequest(Translator::translateToUpdateRequest)
-                          .backoffDelay(STABILIZATION_DELAY)
-                          .makeServiceCall((awsRequest, client) -> updateDomain(awsRequest, client))
-                          .stabilize((awsRequest, awsResponse, client, model, context) ->
-                                         isStabilized(client, model, logger, resourceArn))
-                          .progress()
-                 )
-            .then(progress -> {
-                final Map<String, String> tagsToAdd = TagHelper.generateTagsToAdd(previousTags, desiredTags);
-                if (tagsToAdd.isEmpty()) {
-                    return ProgressEvent.progress(progress.getResourceModel(), callbackContext);
-                }
-                return TagHelper.tagResource(proxy, proxyClient, request.getDesiredResourceState(), request,
-                                             callbackContext, tagsToAdd, logger, resourceArn.get());
-            })
-            .then(progress -> {
-                final Set<String> tagsToRemove = TagHelper.generateTagsToRemove(previousTags, desiredTags);
-                if (tagsToRemove.isEmpty()) {
-                    return ProgressEvent.progress(progress.getResourceModel(), callbackContext);
-                }
-                return TagHelper.untagResource(proxy, proxyClient, request.getDesiredResourceState(), request,
-                                               callbackContext, tagsToRemove, logger, resourceArn.get());
-            })
-            .then(progress -> new ReadHandler().handleRequest(proxy, request, callbackContext, proxyClient, logger));
+        try {
+            final ProgressEvent<ResourceModel, CallbackContext> event =
+                ProgressEvent.progress(request.getDesiredResourceState(), callbackContext)
+                .then(progress ->
+                          proxy.initiate("AWS-VoiceID-Domain::Update::PreUpdateCheck",
+                                         proxyClient,
+                                         progress.getResourceModel(),
+                                         progress.getCallbackContext())
+                              .translateToServiceRequest(Translator::translateToReadRequest)
+                              .makeServiceCall((awsRequest, client) -> {
+                                  if (awsRequest.domainId() == null) {
+                                      throw new CfnNotFoundException(ResourceModel.TYPE_NAME, null);
+                                  }
+                                  final DescribeDomainResponse describeDomainResponse = describeDomain(awsRequest,
+                                                                                                       client,
+                                                                                                       callbackContext,
+                                                                                                       logger);
+                                  resourceArn.set(describeDomainResponse.domain().arn());
+                                  if (!domainChanged) {
+                                      // Nothing but tags will change, so the domain as it is now is what the model
+                                      // is projected from.
+                                      latestDomain.set(describeDomainResponse.domain());
+                                  }
+                                  return describeDomainResponse;
+                              })
+                              .progress()
+                     )
+                .then(progress -> {
+                    if (!domainChanged) {
+                        logger.log(String.format("%s [%s] has no property changes besides tags, skipping the update.",
+                                                 ResourceModel.TYPE_NAME, progress.getResourceModel().getDomainId()));
+                        dispatchTagPhases.run();
+                        return ProgressEvent.progress(progress.getResourceModel(), callbackContext);
+                    }
+                    return proxy.initiate("AWS-VoiceID-Domain::Update",
+                                          proxyClient,
+                                          progress.getResourceModel(),
+                                          progress.getCallbackContext())
+                        .translateToServiceRequest(Translator::translateToUpdateRequest)
+                        .backoffDelay(stabilizationDelay.apply(stabilizationHistory, callbackContext))
+                        .makeServiceCall((awsRequest, client) -> {
+                            final UpdateDomainResponse awsResponse = updateDomain(awsRequest, client, callbackContext);
+                            latestDomain.set(awsResponse.domain());
+                            // A re-invocation that finds the update in the call graph skips this, and its tags are
+                            // applied by the sequential steps after stabilization instead.
+                            dispatchTagPhases.run();
+                            return awsResponse;
+                        })
+                        .stabilize((awsRequest, awsResponse, client, model, context) ->
+                                       isStabilized(client, model, context, logger, resourceArn, latestDomain,
+                                                    kmsKeyChanged, stabilizationHistory, pollDeadline))
+                        .progress();
+                })
+                .then(progress -> {
+                    if (tagsToAdd.isEmpty() || tagPhases.get().isDispatched()) {
+                        return ProgressEvent.progress(progress.getResourceModel(), callbackContext);
+                    }
+                    return TagHelper.tagResource(asyncProxyClient, request.getDesiredResourceState(), request,
+                                                 callbackContext, tagsToAdd, logger,
+                                                 domainArn(request, resourceArn, proxyClient, callbackContext));
+                })
+                .then(progress -> {
+                    if (tagsToRemove.isEmpty() || tagPhases.get().isDispatched()) {
+                        return ProgressEvent.progress(progress.getResourceModel(), callbackContext);
+                    }
+                    return TagHelper.untagResource(asyncProxyClient, request.getDesiredResourceState(), request,
+                                                   callbackContext, tagsToRemove, logger,
+                                                   domainArn(request, resourceArn, proxyClient, callbackContext));
+                })
+                .then(progress -> {
+                    tagPhases.get().join(logger);
+                    return progress;
+                })
+                .then(progress -> {
+                    // The update step can be skipped entirely when this is a re-invocation after stabilization, in
+                    // which case no domain was returned in this invocation and a read is the only source of the
+                    // model.
+                    if (options.isVerifyWritesWithRead() || latestDomain.get() == null) {
+                        return new ReadHandler().handleRequest(proxy, request, callbackContext, proxyClient,
+                                                               asyncProxyClient, logger);
+                    }
+                    // Once the tag steps complete the domain carries the system tags and the desired tags, which is
+                    // the same merge used at creation.
+                    final Map<String, String> appliedTags = TagHelper.generateTagsForCreate(request);
+                    return ProgressEvent.defaultSuccessHandler(
+                        Translator.translateFromWriteResponse(latestDomain.get(), appliedTags));
+                });
+            // The domain update handed control back for a callback or failed, so the tag phases were never joined.
+            tagPhases.get().await(callbackContext, logger);
+            return event;
+        } catch (final RuntimeException e) {
+            tagPhases.get().await(callbackContext, logger);
+            throw e;
+        }
+    }
+
+    private static StabilizationHistogram stabilizationHistory(final ResourceHandlerRequest<ResourceModel> request) {
+        return STABILIZATION_HISTORIES.computeIfAbsent(
+            String.format("%s/%s", request.getAwsAccountId(), request.getRegion()),
+            scope -> new StabilizationHistogram());
     }
 
     private UpdateDomainResponse updateDomain(
         final UpdateDomainRequest awsRequest,
-        final ProxyClient<VoiceIdClient> client) {
+        final ProxyClient<VoiceIdClient> client,
+        final CallbackContext callbackContext) {
 
         final UpdateDomainResponse awsResponse;
+        callbackContext.invalidateDescribeDomainResponse();
+        callbackContext.setStabilizationStartedAt(System.currentTimeMillis());
         try {
             awsResponse = client.injectCredentialsAndInvokeV2(awsRequest, client.client()::updateDomain);
         } catch (final AwsServiceException e) {
@@ -124,17 +250,67 @@ public class UpdateHandler extends BaseHandlerStd {
         return awsResponse;
     }
 
+    /**
+     * The arn the tag calls are made with. It is captured from the describe domain responses of this invocation, but a
+     * re-invocation skips the calls whose responses the call graph already holds, so it is otherwise built from the
+     * request, and only read from the domain when the request does not carry the account.
+     */
+    private String domainArn(final ResourceHandlerRequest<ResourceModel> request,
+                             final AtomicReference<String> resourceArn,
+                             final ProxyClient<VoiceIdClient> proxyClient,
+                             final CallbackContext callbackContext) {
+        if (resourceArn.get() == null) {
+            final ResourceModel model = request.getDesiredResourceState();
+            resourceArn.set(Translator.translateToDomainArn(request.getAwsPartition(),
+                                                            request.getRegion(),
+                                                            request.getAwsAccountId(),
+                                                            model.getDomainId())
+                                .orElseGet(() -> describeDomain(Translator.translateToReadRequest(model), proxyClient,
+                                                                callbackContext, logger).domain().arn()));
+        }
+        return resourceArn.get();
+    }
+
     /**
      * Stabilization is required for asynchronous API calls. If false is returned, the stabilization is repeatedly
      * attempted until a terminal state is reached. If true is returned, the resource is considered stabilized
      * and can proceed with the callback chain.
+     *
+     * The domain is polled again within this invocation for as long as the short poll schedule allows, and false is
+     * only returned to the proxy, which then waits for the stabilization delay, once that budget is used up.
      */
     private Boolean isStabilized(final ProxyClient<VoiceIdClient> client,
                                  final ResourceModel model,
+                                 final CallbackContext callbackContext,
                                  final Logger logger,
-                                 final AtomicReference<String> resourceArn) {
+                                 final AtomicReference<String> resourceArn,
+                                 final AtomicReference<Domain> latestDomain,
+                                 final boolean kmsKeyChanged,
+                                 final StabilizationHistogram stabilizationHistory,
+                                 final long pollDeadline) {
+        while (!pollStabilization(client, model, callbackContext, logger, resourceArn, latestDomain, kmsKeyChanged,
+                                  stabilizationHistory)) {
+            if (!shortPollSchedule.awaitNextPoll(pollDeadline)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean pollStabilization(final ProxyClient<VoiceIdClient> client,
+                                      final ResourceModel model,
+                                      final CallbackContext callbackContext,
+                                      final Logger logger,
+                                      final AtomicReference<String> resourceArn,
+                                      final AtomicReference<Domain> latestDomain,
+                                      final boolean kmsKeyChanged,
+                                      final StabilizationHistogram stabilizationHistory) {
         final DescribeDomainRequest describeDomainRequest = Translator.translateToReadRequest(model);
-        final DescribeDomainResponse describeDomainResponse = describeDomain(describeDomainRequest, client, logger);
+        // Each poll has to observe the service side state, so it bypasses the cache. The final poll is what the
+        // model is projected from, or what a verifying ReadHandler request reuses when no tags change.
+        final DescribeDomainResponse describeDomainResponse =
+            refreshDomain(describeDomainRequest, client, callbackContext, logger);
+        latestDomain.set(describeDomainResponse.domain());
         // The serverSideEncryptionUpdateDetails are only provided for domains whose encryption will change
         // or has changed in the past. If it is null, stabilization doesn't apply for the domain.
         if (describeDomainResponse.domain().serverSideEncryptionUpdateDetails() == null) {
@@ -151,6 +327,10 @@ public class UpdateHandler extends BaseHandlerStd {
                 // The resource arn is set after stabilization because the value isn't saved across stabilization
                 // attempts.
                 resourceArn.set(describeDomainResponse.domain().arn());
+                if (kmsKeyChanged && callbackContext.getStabilizationStartedAt() != null) {
+                    stabilizationHistory.record(
+                        Duration.ofMillis(System.currentTimeMillis() - callbackContext.getStabilizationStartedAt()));
+                }
                 return true;
             case IN_PROGRESS:
                 // While encryption is IN_PROGRESS, false is returned to continue attempting to stabilize.
@@ -167,4 +347,28 @@ public class UpdateHandler extends BaseHandlerStd {
                 return false;
         }
     }
+
+    /**
+     * Compares the properties UpdateDomain can change. Tags are applied through their own calls, and an unknown
+     * previous state is treated as changed so the update is never skipped on a guess.
+     */
+    private static boolean domainPropertiesChanged(final ResourceModel previousModel,
+                                                   final ResourceModel desiredModel) {
+        return previousModel == null
+            || !Objects.equals(previousModel.getName(), desiredModel.getName())
+            || !Objects.equals(previousModel.getDescription(), desiredModel.getDescription())
+            || !Objects.equals(kmsKeyId(previousModel), kmsKeyId(desiredModel));
+    }
+
+    private static String kmsKeyId(final ResourceModel model) {
+        if (model == null || model.getServerSideEncryptionConfiguration() == null) {
+            return null;
+        }
+        return model.getServerSideEncryptionConfiguration().getKmsKeyId();
+    }
+
+    @Override
+    protected boolean resumesFromCallback(final ResourceHandlerRequest<ResourceModel> request) {
+        return true;
+    }
 }
@@ -5,7 +5,6 @@ import software.amazon.awssdk.awscore.AwsResponse;
 import software.amazon.awssdk.core.ResponseBytes;
 import software.amazon.awssdk.core.ResponseInputStream;
 import software.amazon.awssdk.core.pagination.sync.SdkIterable;
-import software.amazon.awssdk.services.voiceid.VoiceIdClient;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.Credentials;
 import software.amazon.cloudformation.proxy.LoggerProxy;
@@ -22,10 +21,10 @@ public class AbstractTestBase {
         MOCK_CREDENTIALS = new Credentials("accessKey", "secretKey", "token");
         logger = new LoggerProxy();
     }
-    static ProxyClient<VoiceIdClient> MOCK_PROXY(
+    static <ClientT> ProxyClient<ClientT> MOCK_PROXY(
         final AmazonWebServicesClientProxy proxy,
-        final VoiceIdClient voiceIdClient) {
-        return new ProxyClient<VoiceIdClient>() {
+        final ClientT client) {
+        return new ProxyClient<ClientT>() {
             @Override
             public <RequestT extends AwsRequest, ResponseT extends AwsResponse> ResponseT
             injectCredentialsAndInvokeV2(final RequestT request, final Function<RequestT, ResponseT> requestFunction) {
@@ -38,7 +37,7 @@ public class AbstractTestBase {
             injectCredentialsAndInvokeV2Async(
                 final RequestT request,
                 final Function<RequestT, CompletableFuture<ResponseT>> requestFunction) {
-                throw new UnsupportedOperationException();
+                return proxy.injectCredentialsAndInvokeV2Async(request, requestFunction);
             }
 
             @Override
@@ -66,8 +65,8 @@ public class AbstractTestBase {
             }
 
             @Override
-            public VoiceIdClient client() {
-                return voiceIdClient;
+            public ClientT client() {
+                return client;
             }
         };
     }
@@ -0,0 +1,60 @@
+package software.amazon.voiceid.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdaptiveRateLimiterTest {
+    private final AtomicLong now = new AtomicLong(1_000L);
+
+    private final AdaptiveRateLimiter rateLimiter = AdaptiveRateLimiter.of()
+        .initialRate(10.0)
+        .minRate(1.0)
+        .maxRate(12.0)
+        .burst(2.0)
+        .increment(1.0)
+        .currentTimeMillis(now::get)
+        .build();
+
+    @Test
+    public void reserve_QueuesCallsBeyondTheBurst() {
+        assertThat(rateLimiter.reserve("DescribeDomain")).isEqualTo(Duration.ZERO);
+        assertThat(rateLimiter.reserve("DescribeDomain")).isEqualTo(Duration.ZERO);
+        assertThat(rateLimiter.reserve("DescribeDomain")).isEqualTo(Duration.ofMillis(100L));
+        assertThat(rateLimiter.reserve("DescribeDomain")).isEqualTo(Duration.ofMillis(200L));
+        // Every API has its own budget.
+        assertThat(rateLimiter.reserve("UpdateDomain")).isEqualTo(Duration.ZERO);
+
+        now.addAndGet(1_000L);
+        assertThat(rateLimiter.reserve("DescribeDomain")).isEqualTo(Duration.ZERO);
+        assertThat(rateLimiter.metrics().get("DescribeDomain").getCalls()).isEqualTo(5L);
+        assertThat(rateLimiter.metrics().get("DescribeDomain").getDelayedCalls()).isEqualTo(2L);
+    }
+
+    @Test
+    public void rate_AdaptsBetweenItsBounds() {
+        rateLimiter.onThrottle("UpdateDomain");
+        assertThat(rateLimiter.metrics().get("UpdateDomain").getRate()).isEqualTo(5.0);
+        assertThat(rateLimiter.metrics().get("UpdateDomain").getTokens()).isZero();
+        for (int throttle = 0; throttle < 5; throttle++) {
+            rateLimiter.onThrottle("UpdateDomain");
+        }
+        assertThat(rateLimiter.metrics().get("UpdateDomain").getRate()).isEqualTo(1.0);
+        assertThat(rateLimiter.metrics().get("UpdateDomain").getThrottles()).isEqualTo(6L);
+
+        for (int success = 0; success < 20; success++) {
+            rateLimiter.onSuccess("UpdateDomain");
+        }
+        assertThat(rateLimiter.metrics().get("UpdateDomain").getRate()).isEqualTo(12.0);
+    }
+
+    @Test
+    public void reserve_AfterThrottleWaitsForTheSlowerRate() {
+        rateLimiter.onThrottle("TagResource");
+
+        assertThat(rateLimiter.reserve("TagResource")).isEqualTo(Duration.ofMillis(200L));
+    }
+}
@@ -0,0 +1,96 @@
+package software.amazon.voiceid.domain;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdaptiveStabilizationDelayTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private StabilizationHistogram history;
+
+    private CallbackContext callbackContext;
+
+    private AdaptiveStabilizationDelay delay;
+
+    @BeforeEach
+    public void setup() {
+        history = new StabilizationHistogram();
+        callbackContext = new CallbackContext();
+        callbackContext.setStabilizationStartedAt(0L);
+        delay = AdaptiveStabilizationDelay.of()
+            .minDelay(Duration.ofSeconds(5L))
+            .maxDelay(Duration.ofMinutes(2L))
+            .timeout(Duration.ofMinutes(30L))
+            .history(history)
+            .callbackContext(callbackContext)
+            .currentTimeMillis(now::get)
+            .build();
+    }
+
+    @Test
+    public void nextDelay_GrowsExponentiallyWithoutHistory() {
+        assertThat(delay.nextDelay(0)).isEqualTo(Duration.ofSeconds(5L));
+        assertThat(delay.nextDelay(1)).isEqualTo(Duration.ofSeconds(10L));
+        assertThat(delay.nextDelay(3)).isEqualTo(Duration.ofSeconds(40L));
+        assertThat(delay.nextDelay(10)).isEqualTo(Duration.ofMinutes(2L));
+        assertThat(delay.nextDelay(Integer.MAX_VALUE)).isEqualTo(Duration.ofMinutes(2L));
+    }
+
+    @Test
+    public void nextDelay_WaitsForNextRecordedCompletion() {
+        history.record(Duration.ofSeconds(35L));
+        history.record(Duration.ofSeconds(38L));
+        history.record(Duration.ofSeconds(70L));
+
+        assertThat(delay.nextDelay(0)).isEqualTo(Duration.ofSeconds(40L));
+
+        now.set(Duration.ofSeconds(41L).toMillis());
+        assertThat(delay.nextDelay(1)).isEqualTo(Duration.ofSeconds(39L));
+
+        // Past every recorded completion the exponential schedule takes over again.
+        now.set(Duration.ofSeconds(81L).toMillis());
+        assertThat(delay.nextDelay(2)).isEqualTo(Duration.ofSeconds(20L));
+    }
+
+    @Test
+    public void nextDelay_IgnoresSparseHistory() {
+        history.record(Duration.ofMinutes(10L));
+
+        assertThat(delay.nextDelay(0)).isEqualTo(Duration.ofSeconds(5L));
+    }
+
+    @Test
+    public void nextDelay_StopsAtTimeout() {
+        now.set(Duration.ofMinutes(29L).plusSeconds(58L).toMillis());
+        assertThat(delay.nextDelay(20)).isEqualTo(Duration.ofSeconds(5L));
+
+        now.set(Duration.ofMinutes(29L).plusSeconds(30L).toMillis());
+        assertThat(delay.nextDelay(20)).isEqualTo(Duration.ofSeconds(30L));
+
+        now.set(Duration.ofMinutes(30L).toMillis());
+        assertThat(delay.nextDelay(21)).isEqualTo(Duration.ZERO);
+    }
+
+    @Test
+    public void nextDelay_StartsFromZeroWithoutRecordedStart() {
+        callbackContext.setStabilizationStartedAt(null);
+        now.set(Duration.ofHours(1L).toMillis());
+
+        assertThat(delay.nextDelay(0)).isEqualTo(Duration.ofSeconds(5L));
+    }
+
+    @Test
+    public void histogram_CountsLongUpdatesInLastBucket() {
+        history.record(Duration.ofHours(2L));
+
+        assertThat(history.size()).isEqualTo(1L);
+        assertThat(history.nextCompletionAfter(Duration.ofMinutes(30L))).contains(Duration.ofSeconds(2560L));
+        assertThat(history.nextCompletionAfter(Duration.ofHours(1L))).isEmpty();
+    }
+}
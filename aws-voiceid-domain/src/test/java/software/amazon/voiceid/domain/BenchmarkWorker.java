@@ -0,0 +1,79 @@
+package software.amazon.voiceid.domain;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The JVM HandlerBenchmark launches for every measurement. It builds the HandlerWrapper as Lambda would during init,
+ * optionally primes it, serves HandlerWorkload the given number of rounds and prints one BENCHMARK line with what it
+ * measured. The first round warms every action up, so only the later rounds count towards steady state.
+ *
+ * Arguments: rounds, followed by --prime to run Priming during init.
+ */
+public final class BenchmarkWorker {
+    static final String RESULT_PREFIX = "BENCHMARK ";
+
+    private BenchmarkWorker() {
+    }
+
+    public static void main(final String[] args) throws IOException {
+        final int rounds = Integer.parseInt(args[0]);
+        final boolean prime = args.length > 1 && "--prime".equals(args[1]);
+
+        final HandlerWrapper handlerWrapper = new HandlerWrapper();
+        if (prime) {
+            Priming.prime();
+        }
+        final long readyMillis = System.currentTimeMillis();
+
+        final HandlerWorkload.Invoker inProcess = HandlerWorkload.inProcess(handlerWrapper);
+        final List<Long> latenciesMicros = new ArrayList<>();
+        final HandlerWorkload workload = new HandlerWorkload(event -> {
+            final long start = System.nanoTime();
+            final byte[] response = inProcess.invoke(event);
+            latenciesMicros.add((System.nanoTime() - start) / 1_000L);
+            return response;
+        });
+
+        final long firstRequestStart = System.nanoTime();
+        final long[] firstResponseMillis = new long[1];
+        new HandlerWorkload(event -> {
+            final byte[] response = inProcess.invoke(event);
+            if (firstResponseMillis[0] == 0L) {
+                firstResponseMillis[0] = System.currentTimeMillis();
+            }
+            return response;
+        }).run();
+        final long firstRoundMicros = (System.nanoTime() - firstRequestStart) / 1_000L;
+
+        // Collected after the first response has been timed, so the collection does not count towards it.
+        System.gc();
+        final long heapAfterFirstResponse = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        final int classesAfterFirstResponse = ManagementFactory.getClassLoadingMXBean().getLoadedClassCount();
+
+        for (int round = 1; round < rounds; round++) {
+            workload.run();
+        }
+
+        final ObjectMapper mapper = new ObjectMapper();
+        final ObjectNode result = mapper.createObjectNode()
+            .put("jvmStartMillis", ManagementFactory.getRuntimeMXBean().getStartTime())
+            .put("readyMillis", readyMillis)
+            .put("firstResponseMillis", firstResponseMillis[0])
+            .put("firstRoundMicros", firstRoundMicros)
+            .put("heapAfterFirstResponseBytes", heapAfterFirstResponse)
+            .put("classesAfterFirstResponse", classesAfterFirstResponse)
+            .put("classesAtExit", ManagementFactory.getClassLoadingMXBean().getLoadedClassCount());
+        final ArrayNode latencies = result.putArray("steadyStateLatenciesMicros");
+        latenciesMicros.forEach(latencies::add);
+        System.out.println(RESULT_PREFIX + mapper.writeValueAsString(result));
+        // The event loop behind the async client would otherwise keep the JVM alive.
+        System.exit(0);
+    }
+}
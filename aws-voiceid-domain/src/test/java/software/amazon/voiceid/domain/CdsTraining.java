@@ -0,0 +1,29 @@
+package software.amazon.voiceid.domain;
+
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ * Training run for the AppCDS archive built by the appcds profile, and for the reachability metadata of the native
+ * profile. HandlerWorkload is served a few times through the packaged HandlerWrapper against LocalVoiceId, so what
+ * this JVM loads and reflects on is what a deployed function does. The handlers find the stand-in through
+ * VOICEID_ENDPOINT_OVERRIDE, whose port it listens on.
+ */
+public final class CdsTraining {
+    private static final int ROUNDS = 3;
+
+    private CdsTraining() {
+    }
+
+    public static void main(final String[] args) throws IOException {
+        final URI endpoint = URI.create(System.getenv(ClientBuilder.ENDPOINT_OVERRIDE_ENV));
+        try (LocalVoiceId voiceId = LocalVoiceId.start(endpoint.getPort())) {
+            final HandlerWorkload workload = new HandlerWorkload(HandlerWorkload.inProcess(new HandlerWrapper()));
+            for (int round = 0; round < ROUNDS; round++) {
+                workload.run();
+            }
+        }
+        // The event loop behind the async client would otherwise keep the JVM alive.
+        System.exit(0);
+    }
+}
@@ -0,0 +1,190 @@
+package software.amazon.voiceid.domain;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.exception.AbortedException;
+import software.amazon.awssdk.core.exception.ApiCallTimeoutException;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.voiceid.VoiceIdAsyncClient;
+import software.amazon.awssdk.services.voiceid.VoiceIdClient;
+import software.amazon.awssdk.services.voiceid.model.DescribeDomainRequest;
+import software.amazon.awssdk.services.voiceid.model.DescribeDomainResponse;
+import software.amazon.awssdk.services.voiceid.model.InternalServerException;
+import software.amazon.awssdk.services.voiceid.model.ThrottlingException;
+import software.amazon.awssdk.services.voiceid.model.ValidationException;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
+import software.amazon.cloudformation.proxy.ProxyClient;
+
+import java.net.SocketException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CircuitBreakerProxyClientTest extends AbstractTestBase {
+    private static final DescribeDomainResponse RESPONSE = DescribeDomainResponse.builder().build();
+
+    private final AtomicLong now = new AtomicLong(1_000L);
+    private final CircuitBreaker circuitBreaker = CircuitBreaker.of()
+        .windowSize(4)
+        .minimumCalls(4)
+        .failureRateThreshold(0.5)
+        .openDuration(Duration.ofSeconds(30L))
+        .trialCalls(2)
+        .currentTimeMillis(now::get)
+        .build();
+
+    @Test
+    public void opensOnceHalfOfTheCallsFailed() {
+        final VoiceIdClient voiceIdClient = mock(VoiceIdClient.class);
+        when(voiceIdClient.describeDomain(any(DescribeDomainRequest.class)))
+            .thenReturn(RESPONSE)
+            .thenThrow(InternalServerException.builder().build())
+            .thenReturn(RESPONSE)
+            .thenThrow(SdkClientException.builder().cause(new SocketException("Connection reset")).build());
+        final ProxyClient<VoiceIdClient> proxyClient = breakerProxy(voiceIdClient);
+
+        describeDomain(proxyClient);
+        assertThrows(InternalServerException.class, () -> describeDomain(proxyClient));
+        describeDomain(proxyClient);
+        assertThrows(SdkClientException.class, () -> describeDomain(proxyClient));
+        now.addAndGet(10_000L);
+
+        final CircuitOpenException e = assertThrows(CircuitOpenException.class, () -> describeDomain(proxyClient));
+
+        assertThat(e.getErrorCode()).isEqualTo(HandlerErrorCode.ServiceInternalError);
+        assertThat(e.callbackDelaySeconds()).isEqualTo(20);
+        verify(voiceIdClient, times(4)).describeDomain(any(DescribeDomainRequest.class));
+        assertThat(circuitBreaker.metrics().getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.metrics().getRejected()).isEqualTo(1L);
+    }
+
+    @Test
+    public void rejectedAndThrottledCallsDoNotCount() {
+        final VoiceIdClient voiceIdClient = mock(VoiceIdClient.class);
+        when(voiceIdClient.describeDomain(any(DescribeDomainRequest.class)))
+            .thenThrow(ValidationException.builder().statusCode(400).build())
+            .thenThrow(ThrottlingException.builder().statusCode(429).build());
+        final ProxyClient<VoiceIdClient> proxyClient = breakerProxy(voiceIdClient);
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(RuntimeException.class, () -> describeDomain(proxyClient));
+        }
+
+        assertThat(circuitBreaker.metrics().getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(circuitBreaker.metrics().getFailures()).isZero();
+    }
+
+    @Test
+    public void abortedCallsDoNotCount() {
+        final VoiceIdClient voiceIdClient = mock(VoiceIdClient.class);
+        when(voiceIdClient.describeDomain(any(DescribeDomainRequest.class)))
+            .thenThrow(AbortedException.builder().build());
+        final ProxyClient<VoiceIdClient> proxyClient = breakerProxy(voiceIdClient);
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(AbortedException.class, () -> describeDomain(proxyClient));
+        }
+
+        assertThat(circuitBreaker.metrics().getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(circuitBreaker.metrics().getFailures()).isZero();
+    }
+
+    @Test
+    public void deadlineCutOffsDoNotCount() {
+        final VoiceIdClient voiceIdClient = mock(VoiceIdClient.class);
+        when(voiceIdClient.describeDomain(any(DescribeDomainRequest.class)))
+            .thenThrow(ApiCallTimeoutException.create(25_000L));
+        final ProxyClient<VoiceIdClient> proxyClient = new CircuitBreakerProxyClient<>(
+            new DeadlineProxyClient<>(MOCK_PROXY(proxy(), voiceIdClient), InvocationDeadline.none()), circuitBreaker);
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(InvocationDeadlineException.class, () -> describeDomain(proxyClient));
+        }
+
+        assertThat(circuitBreaker.metrics().getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(circuitBreaker.metrics().getFailures()).isZero();
+        verify(voiceIdClient, times(4)).describeDomain(any(DescribeDomainRequest.class));
+    }
+
+    @Test
+    public void closesOnceTheTrialCallsSucceed() {
+        tripBreaker();
+        now.addAndGet(30_000L);
+
+        assertThat(circuitBreaker.acquire()).isEmpty();
+        assertThat(circuitBreaker.acquire()).isEmpty();
+        assertThat(circuitBreaker.acquire()).isPresent();
+        assertThat(circuitBreaker.metrics().getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        circuitBreaker.onSuccess();
+        circuitBreaker.onSuccess();
+
+        assertThat(circuitBreaker.metrics().getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(circuitBreaker.metrics().getFailureRate()).isZero();
+    }
+
+    @Test
+    public void reopensWhenATrialCallFails() {
+        tripBreaker();
+        now.addAndGet(30_000L);
+
+        assertThat(circuitBreaker.acquire()).isEmpty();
+        circuitBreaker.onFailure();
+
+        assertThat(circuitBreaker.metrics().getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.metrics().getOpened()).isEqualTo(2L);
+        assertThat(circuitBreaker.acquire()).contains(Duration.ofSeconds(30L));
+    }
+
+    @Test
+    public void asyncFailuresCount() {
+        final VoiceIdAsyncClient voiceIdAsyncClient = mock(VoiceIdAsyncClient.class);
+        final CompletableFuture<DescribeDomainResponse> failed = new CompletableFuture<>();
+        failed.completeExceptionally(InternalServerException.builder().build());
+        when(voiceIdAsyncClient.describeDomain(any(DescribeDomainRequest.class))).thenReturn(failed);
+        final ProxyClient<VoiceIdAsyncClient> proxyClient =
+            new CircuitBreakerProxyClient<>(MOCK_PROXY(proxy(), voiceIdAsyncClient), circuitBreaker);
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(CompletionException.class, () -> describeDomainAsync(proxyClient).join());
+        }
+
+        assertThrows(CircuitOpenException.class, () -> describeDomainAsync(proxyClient));
+        verify(voiceIdAsyncClient, times(4)).describeDomain(any(DescribeDomainRequest.class));
+    }
+
+    private void tripBreaker() {
+        for (int i = 0; i < 4; i++) {
+            assertThat(circuitBreaker.acquire()).isEmpty();
+            circuitBreaker.onFailure();
+        }
+        assertThat(circuitBreaker.metrics().getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    private ProxyClient<VoiceIdClient> breakerProxy(final VoiceIdClient voiceIdClient) {
+        return new CircuitBreakerProxyClient<>(MOCK_PROXY(proxy(), voiceIdClient), circuitBreaker);
+    }
+
+    private static AmazonWebServicesClientProxy proxy() {
+        return new AmazonWebServicesClientProxy(logger, MOCK_CREDENTIALS, () -> Duration.ofSeconds(600).toMillis());
+    }
+
+    private static DescribeDomainResponse describeDomain(final ProxyClient<VoiceIdClient> proxyClient) {
+        return proxyClient.injectCredentialsAndInvokeV2(DescribeDomainRequest.builder().build(),
+                                                        proxyClient.client()::describeDomain);
+    }
+
+    private static CompletableFuture<DescribeDomainResponse> describeDomainAsync(
+        final ProxyClient<VoiceIdAsyncClient> proxyClient) {
+        return proxyClient.injectCredentialsAndInvokeV2Async(DescribeDomainRequest.builder().build(),
+                                                             proxyClient.client()::describeDomain);
+    }
+}
@@ -0,0 +1,102 @@
+package software.amazon.voiceid.domain;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.voiceid.VoiceIdClient;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class ClientCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private final List<VoiceIdClient> builtClients = new ArrayList<>();
+
+    private ClientCache<VoiceIdClient> cache;
+
+    @BeforeEach
+    public void setup() {
+        cache = new ClientCache<>(2, Duration.ofMinutes(10L), key -> {
+            final VoiceIdClient client = mock(VoiceIdClient.class);
+            builtClients.add(client);
+            return client;
+        }, now::get);
+    }
+
+    @Test
+    public void get_ReusesClientForSameKey() {
+        final VoiceIdClient first = cache.get("us-east-1", null);
+        final VoiceIdClient second = cache.get("us-east-1", null);
+
+        assertThat(second).isSameAs(first);
+        assertThat(builtClients).hasSize(1);
+        assertThat(cache.hits()).isEqualTo(1);
+        assertThat(cache.misses()).isEqualTo(1);
+    }
+
+    @Test
+    public void get_BuildsClientPerRegionAndEndpoint() {
+        final VoiceIdClient east = cache.get("us-east-1", null);
+        final VoiceIdClient eastOverride = cache.get("us-east-1", URI.create("https://localhost:8443"));
+
+        assertThat(eastOverride).isNotSameAs(east);
+        assertThat(builtClients).hasSize(2);
+        assertThat(cache.misses()).isEqualTo(2);
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void get_EvictsLeastRecentlyUsedWhenFull() {
+        final VoiceIdClient east = cache.get("us-east-1", null);
+        final VoiceIdClient west = cache.get("us-west-2", null);
+        cache.get("us-east-1", null);
+        cache.get("eu-west-1", null);
+
+        verify(west).close();
+        verify(east, never()).close();
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.evictions()).isEqualTo(1);
+        assertThat(cache.get("us-east-1", null)).isSameAs(east);
+    }
+
+    @Test
+    public void get_EvictsIdleClients() {
+        final VoiceIdClient east = cache.get("us-east-1", null);
+        now.addAndGet(Duration.ofMinutes(10L).toMillis());
+
+        final VoiceIdClient rebuilt = cache.get("us-east-1", null);
+
+        verify(east).close();
+        assertThat(rebuilt).isNotSameAs(east);
+        assertThat(cache.evictions()).isEqualTo(1);
+        assertThat(cache.misses()).isEqualTo(2);
+    }
+
+    @Test
+    public void clear_ClosesAllClients() {
+        final VoiceIdClient east = cache.get("us-east-1", null);
+        final VoiceIdClient west = cache.get("us-west-2", null);
+
+        cache.clear();
+
+        verify(east).close();
+        verify(west).close();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    public void constructor_RejectsEmptyCache() {
+        assertThrows(IllegalArgumentException.class,
+                     () -> new ClientCache<VoiceIdClient>(0, Duration.ofMinutes(1L), key -> null));
+    }
+}
@@ -4,14 +4,17 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.services.voiceid.VoiceIdAsyncClient;
 import software.amazon.awssdk.services.voiceid.VoiceIdClient;
 import software.amazon.awssdk.services.voiceid.model.CreateDomainRequest;
 import software.amazon.awssdk.services.voiceid.model.DescribeDomainRequest;
 import software.amazon.awssdk.services.voiceid.model.ListTagsForResourceRequest;
 import software.amazon.awssdk.services.voiceid.model.ServiceQuotaExceededException;
+import software.amazon.awssdk.services.voiceid.model.ThrottlingException;
 import software.amazon.awssdk.services.voiceid.model.ValidationException;
 import software.amazon.awssdk.services.voiceid.model.VoiceIdException;
 import software.amazon.cloudformation.exceptions.CfnGeneralServiceException;
@@ -32,6 +35,8 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -48,6 +53,12 @@ public class CreateHandlerTest extends AbstractTestBase {
     @Mock
     VoiceIdClient voiceIdClient;
 
+    @Mock
+    private ProxyClient<VoiceIdAsyncClient> asyncProxyClient;
+
+    @Mock
+    VoiceIdAsyncClient voiceIdAsyncClient;
+
     private CreateHandler handler = new CreateHandler();
 
     @BeforeEach
@@ -55,34 +66,35 @@ public class CreateHandlerTest extends AbstractTestBase {
         proxy = new AmazonWebServicesClientProxy(logger, MOCK_CREDENTIALS, () -> Duration.ofSeconds(600).toMillis());
         voiceIdClient = mock(VoiceIdClient.class);
         proxyClient = MOCK_PROXY(proxy, voiceIdClient);
+        voiceIdAsyncClient = mock(VoiceIdAsyncClient.class);
+        asyncProxyClient = MOCK_PROXY(proxy, voiceIdAsyncClient);
     }
 
     @AfterEach
     public void tear_down() {
         verify(voiceIdClient, atLeastOnce()).serviceName();
         verifyNoMoreInteractions(voiceIdClient);
+        verifyNoMoreInteractions(voiceIdAsyncClient);
     }
 
     @Test
     public void handleRequest_SimpleSuccess() {
         final ResourceHandlerRequest<ResourceModel> request = TestDataProvider.getRequest();
+        request.setDesiredResourceTags(TestDataProvider.getModelTags());
 
         when(voiceIdClient.createDomain(any(CreateDomainRequest.class)))
             .thenReturn(TestDataProvider.createDomainResponse());
 
-        when(voiceIdClient.describeDomain(any(DescribeDomainRequest.class)))
-            .thenReturn(TestDataProvider.describeDomainResponse());
-
-        when(voiceIdClient.listTagsForResource(any(ListTagsForResourceRequest.class)))
-            .thenReturn(TestDataProvider.listTagsForResourceResponse());
-
         final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy,
                                                                                              request,
                                                                                              new CallbackContext(),
                                                                                              proxyClient,
+                                                                                             asyncProxyClient,
                                                                                              logger);
 
         verify(proxyClient.client()).createDomain(any(CreateDomainRequest.class));
+        verify(proxyClient.client(), never()).describeDomain(any(DescribeDomainRequest.class));
+        verify(proxyClient.client(), never()).listTagsForResource(any(ListTagsForResourceRequest.class));
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
         assertThat(response.getCallbackDelaySeconds()).isEqualTo(0);
@@ -104,28 +116,113 @@ public class CreateHandlerTest extends AbstractTestBase {
         when(voiceIdClient.createDomain(any(CreateDomainRequest.class)))
             .thenReturn(TestDataProvider.createDomainResponse());
 
-        when(voiceIdClient.describeDomain(any(DescribeDomainRequest.class)))
-            .thenReturn(TestDataProvider.describeDomainResponse());
-
-        when(voiceIdClient.listTagsForResource(any(ListTagsForResourceRequest.class)))
-            .thenReturn(TestDataProvider.listTagsForResourceResponse());
-
         final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy,
                                                                                              request,
                                                                                              new CallbackContext(),
                                                                                              proxyClient,
+                                                                                             asyncProxyClient,
                                                                                              logger);
 
         verify(proxyClient.client()).createDomain(any(CreateDomainRequest.class));
+        verify(proxyClient.client(), never()).describeDomain(any(DescribeDomainRequest.class));
+        verify(proxyClient.client(), never()).listTagsForResource(any(ListTagsForResourceRequest.class));
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
         assertThat(response.getCallbackDelaySeconds()).isEqualTo(0);
-        assertThat(response.getResourceModel()).isEqualTo(request.getDesiredResourceState());
+        assertThat(response.getResourceModel())
+            .isEqualToIgnoringGivenFields(request.getDesiredResourceState(), "tags");
+        // Value-less system tags are not applied, so they are not projected either.
+        assertThat(response.getResourceModel().getTags()).containsExactlyInAnyOrder(
+            Tag.builder().key("systemTagKey").value("systemTagValue").build(),
+            Tag.builder().key("key-1").value("value-1").build(),
+            Tag.builder().key("key-2").value("value-2").build());
         assertThat(response.getResourceModels()).isNull();
         assertThat(response.getMessage()).isNull();
         assertThat(response.getErrorCode()).isNull();
     }
 
+    @Test
+        public void handleRequest_VerifyWithRead() {
+        final CreateHandler verifyingHandler =
+            new CreateHandler(HandlerOptions.builder().verifyWritesWithRead(true).build());
+        final ResourceHandlerRequest<ResourceModel> request = TestDataProvider.getRequest();
+
+        when(voiceIdClient.createDomain(any(CreateDomainRequest.class)))
+            .thenReturn(TestDataProvider.createDomainResponse());
+
+        when(voiceIdClient.listTagsForResource(any(ListTagsForResourceRequest.class)))
+            .thenReturn(TestDataProvider.listTagsForResourceResponse());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = verifyingHandler.handleRequest(proxy,
+                                                                                                      request,
+                                                                                                      new CallbackContext(),
+                                                                                                      proxyClient,
+                                                                                                      asyncProxyClient,
+                                                                                                      logger);
+
+        verify(proxyClient.client()).createDomain(any(CreateDomainRequest.class));
+        verify(proxyClient.client()).listTagsForResource(any(ListTagsForResourceRequest.class));
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel()).isEqualTo(request.getDesiredResourceState());
+    }
+
+    @Test
+    public void handleRequest_RetriedCreateReusesClientToken() {
+        final ResourceHandlerRequest<ResourceModel> request = TestDataProvider.getRequest();
+        request.setClientRequestToken("ClientRequestToken");
+        final CallbackContext callbackContext = new CallbackContext();
+
+        // The first attempt's outcome is unknown, so the domain may or may not exist when it is made again.
+        when(voiceIdClient.createDomain(any(CreateDomainRequest.class)))
+            .thenThrow(new RetryBudgetExhaustedException(ThrottlingException.builder().build()))
+            .thenReturn(TestDataProvider.createDomainResponse());
+
+        assertThrows(RetryBudgetExhaustedException.class,
+                     () -> handler.handleRequest(proxy, request, callbackContext, proxyClient, asyncProxyClient,
+                                                 logger));
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+            handler.handleRequest(proxy, request, callbackContext, proxyClient, asyncProxyClient, logger);
+
+        final ArgumentCaptor<CreateDomainRequest> createRequests = ArgumentCaptor.forClass(CreateDomainRequest.class);
+        verify(proxyClient.client(), times(2)).createDomain(createRequests.capture());
+        assertThat(createRequests.getAllValues()).extracting(CreateDomainRequest::clientToken)
+            .containsExactly("ClientRequestToken", "ClientRequestToken");
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(handler.resumesFromCallback(request)).isTrue();
+    }
+
+    @Test
+    public void handleRequest_ResumedCreateIsNotRepeated() {
+        final CreateHandler verifyingHandler =
+            new CreateHandler(HandlerOptions.builder().verifyWritesWithRead(true).build());
+        final ResourceHandlerRequest<ResourceModel> request = TestDataProvider.getRequest();
+        request.getDesiredResourceState().setDomainId(null);
+        final CallbackContext callbackContext = new CallbackContext();
+
+        when(voiceIdClient.createDomain(any(CreateDomainRequest.class)))
+            .thenReturn(TestDataProvider.createDomainResponse());
+        when(voiceIdClient.listTagsForResource(any(ListTagsForResourceRequest.class)))
+            .thenThrow(new RetryBudgetExhaustedException(ThrottlingException.builder().build()))
+            .thenReturn(TestDataProvider.listTagsForResourceResponse());
+        when(voiceIdClient.describeDomain(any(DescribeDomainRequest.class)))
+            .thenReturn(TestDataProvider.describeDomainResponse());
+
+        assertThrows(RetryBudgetExhaustedException.class,
+                     () -> verifyingHandler.handleRequest(proxy, request, callbackContext, proxyClient,
+                                                          asyncProxyClient, logger));
+        // CloudFormation sends the model back as the in progress event left it, but the invocation cache is gone.
+        request.getDesiredResourceState().setDomainId(null);
+        callbackContext.invalidateDescribeDomainResponse();
+        final ProgressEvent<ResourceModel, CallbackContext> response = verifyingHandler.handleRequest(
+            proxy, request, callbackContext, proxyClient, asyncProxyClient, logger);
+
+        verify(proxyClient.client()).createDomain(any(CreateDomainRequest.class));
+        verify(proxyClient.client()).describeDomain(any(DescribeDomainRequest.class));
+        verify(proxyClient.client(), times(2)).listTagsForResource(any(ListTagsForResourceRequest.class));
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel().getDomainId()).isEqualTo(TestDataProvider.DOMAIN_ID);
+    }
+
     @Test
     public void handleRequest_Invalid() {
         final ResourceHandlerRequest<ResourceModel> request = TestDataProvider.getRequest();
@@ -134,7 +231,7 @@ public class CreateHandlerTest extends AbstractTestBase {
             .thenThrow(ValidationException.class);
 
         assertThrows(CfnInvalidRequestException.class,
-                     () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger));
+                     () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, asyncProxyClient, logger));
         verify(proxyClient.client()).createDomain(any(CreateDomainRequest.class));
     }
 
@@ -146,7 +243,7 @@ public class CreateHandlerTest extends AbstractTestBase {
             .thenThrow(ServiceQuotaExceededException.class);
 
         assertThrows(CfnServiceLimitExceededException.class,
-                     () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger));
+                     () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, asyncProxyClient, logger));
         verify(proxyClient.client()).createDomain(any(CreateDomainRequest.class));
     }
 
@@ -158,7 +255,7 @@ public class CreateHandlerTest extends AbstractTestBase {
             .thenThrow(VoiceIdException.class);
 
         assertThrows(CfnGeneralServiceException.class,
-                     () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger));
+                     () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, asyncProxyClient, logger));
         verify(proxyClient.client()).createDomain(any(CreateDomainRequest.class));
     }
 
@@ -170,7 +267,7 @@ public class CreateHandlerTest extends AbstractTestBase {
             .thenThrow(AwsServiceException.class);
 
         assertThrows(CfnInternalFailureException.class,
-                     () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger));
+                     () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, asyncProxyClient, logger));
         verify(proxyClient.client()).createDomain(any(CreateDomainRequest.class));
     }
 }
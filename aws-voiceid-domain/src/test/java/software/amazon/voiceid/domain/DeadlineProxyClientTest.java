@@ -0,0 +1,151 @@
+package software.amazon.voiceid.domain;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import software.amazon.awssdk.core.exception.ApiCallTimeoutException;
+import software.amazon.awssdk.services.voiceid.VoiceIdAsyncClient;
+import software.amazon.awssdk.services.voiceid.VoiceIdClient;
+import software.amazon.awssdk.services.voiceid.model.DescribeDomainRequest;
+import software.amazon.awssdk.services.voiceid.model.DescribeDomainResponse;
+import software.amazon.awssdk.services.voiceid.model.ValidationException;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
+import software.amazon.cloudformation.proxy.ProxyClient;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+public class DeadlineProxyClientTest extends AbstractTestBase {
+    private static final DescribeDomainResponse RESPONSE = DescribeDomainResponse.builder().build();
+
+    private final AtomicLong now = new AtomicLong(1_000L);
+    private final InvocationDeadline deadline = InvocationDeadline.fromNow(Duration.ofSeconds(30L), now::get);
+
+    @Test
+    public void callIsBoundedByTheTimeLeft() {
+        final VoiceIdClient voiceIdClient = mock(VoiceIdClient.class);
+        when(voiceIdClient.describeDomain(any(DescribeDomainRequest.class))).thenReturn(RESPONSE);
+        final ProxyClient<VoiceIdClient> proxyClient = new DeadlineProxyClient<>(MOCK_PROXY(proxy(), voiceIdClient),
+                                                                                 deadline);
+        now.addAndGet(10_000L);
+
+        assertThat(describeDomain(proxyClient)).isEqualTo(RESPONSE);
+
+        final ArgumentCaptor<DescribeDomainRequest> captor = ArgumentCaptor.forClass(DescribeDomainRequest.class);
+        verify(voiceIdClient).describeDomain(captor.capture());
+        assertThat(captor.getValue().overrideConfiguration().get().apiCallTimeout())
+            .contains(Duration.ofSeconds(30L).minus(InvocationDeadline.CHECKPOINT_RESERVE).minusSeconds(10L));
+        // The credentials the proxy injected are kept.
+        assertThat(captor.getValue().overrideConfiguration().get().credentialsProvider()).isPresent();
+    }
+
+    @Test
+    public void callIsNotStartedWithoutEnoughTimeLeft() {
+        final VoiceIdClient voiceIdClient = mock(VoiceIdClient.class);
+        final ProxyClient<VoiceIdClient> proxyClient = new DeadlineProxyClient<>(MOCK_PROXY(proxy(), voiceIdClient),
+                                                                                 deadline);
+        now.set(deadline.checkpointAtMillis() - InvocationDeadline.MIN_CALL_TIME.toMillis() + 1L);
+
+        final InvocationDeadlineException e =
+            assertThrows(InvocationDeadlineException.class, () -> describeDomain(proxyClient));
+
+        assertThat(e.getErrorCode()).isEqualTo(HandlerErrorCode.NetworkFailure);
+        verifyNoInteractions(voiceIdClient);
+    }
+
+    @Test
+    public void timedOutCallFailsWithTheDeadline() {
+        final VoiceIdClient voiceIdClient = mock(VoiceIdClient.class);
+        when(voiceIdClient.describeDomain(any(DescribeDomainRequest.class)))
+            .thenThrow(ApiCallTimeoutException.create(25_000L))
+            .thenThrow(ValidationException.builder().build());
+        final ProxyClient<VoiceIdClient> proxyClient = new DeadlineProxyClient<>(MOCK_PROXY(proxy(), voiceIdClient),
+                                                                                 deadline);
+
+        final InvocationDeadlineException e =
+            assertThrows(InvocationDeadlineException.class, () -> describeDomain(proxyClient));
+
+        assertThat(e.getCause()).isInstanceOf(ApiCallTimeoutException.class);
+        assertThrows(ValidationException.class, () -> describeDomain(proxyClient));
+    }
+
+    @Test
+    public void asyncCallIsBoundedByTheTimeLeft() {
+        final VoiceIdAsyncClient voiceIdAsyncClient = mock(VoiceIdAsyncClient.class);
+        final CompletableFuture<DescribeDomainResponse> timedOut = new CompletableFuture<>();
+        final CompletableFuture<DescribeDomainResponse> failed = new CompletableFuture<>();
+        when(voiceIdAsyncClient.describeDomain(any(DescribeDomainRequest.class)))
+            .thenReturn(CompletableFuture.completedFuture(RESPONSE))
+            .thenReturn(timedOut)
+            .thenReturn(failed);
+        final ProxyClient<VoiceIdAsyncClient> proxyClient = new DeadlineProxyClient<>(
+            MOCK_PROXY(proxy(), voiceIdAsyncClient), deadline);
+
+        assertThat(describeDomainAsync(proxyClient).join()).isEqualTo(RESPONSE);
+        final CompletableFuture<DescribeDomainResponse> timedOutCall = describeDomainAsync(proxyClient);
+        timedOut.completeExceptionally(ApiCallTimeoutException.create(25_000L));
+        final CompletableFuture<DescribeDomainResponse> failedCall = describeDomainAsync(proxyClient);
+        failed.completeExceptionally(ValidationException.builder().build());
+
+        assertThat(assertThrows(CompletionException.class, timedOutCall::join).getCause())
+            .isInstanceOf(InvocationDeadlineException.class);
+        assertThat(assertThrows(CompletionException.class, failedCall::join).getCause())
+            .isInstanceOf(ValidationException.class);
+    }
+
+    @Test
+    public void cancellingAsyncCallCancelsTheCall() {
+        final CompletableFuture<DescribeDomainResponse> pending = new CompletableFuture<>();
+        @SuppressWarnings("unchecked")
+        final ProxyClient<VoiceIdAsyncClient> delegate = mock(ProxyClient.class);
+        when(delegate.client()).thenReturn(mock(VoiceIdAsyncClient.class));
+        doReturn(pending).when(delegate).injectCredentialsAndInvokeV2Async(any(DescribeDomainRequest.class), any());
+
+        describeDomainAsync(new DeadlineProxyClient<>(delegate, deadline)).cancel(true);
+
+        assertThat(pending.isCancelled()).isTrue();
+    }
+
+    @Test
+    public void retriesStopShortOfTheDeadline() {
+        final RetryBudget retryBudget = RetryBudget.of()
+            .maxRetries(10)
+            .maxBackoff(Duration.ofMinutes(1L))
+            .baseDelay(Duration.ofSeconds(10L))
+            .maxDelay(Duration.ofSeconds(10L))
+            .random(() -> 1.0)
+            .deadline(deadline)
+            .build();
+
+        assertThat(retryBudget.reserveRetry(0)).contains(Duration.ofSeconds(10L));
+        now.addAndGet(15_000L);
+        assertThat(retryBudget.reserveRetry(1)).isEmpty();
+        assertThat(new CallbackContext().invocationDeadline().allows(Duration.ofDays(1L))).isTrue();
+    }
+
+    private static AmazonWebServicesClientProxy proxy() {
+        return new AmazonWebServicesClientProxy(logger, MOCK_CREDENTIALS, () -> Duration.ofSeconds(600).toMillis());
+    }
+
+    private static DescribeDomainResponse describeDomain(final ProxyClient<VoiceIdClient> proxyClient) {
+        return proxyClient.injectCredentialsAndInvokeV2(DescribeDomainRequest.builder().build(),
+                                                        proxyClient.client()::describeDomain);
+    }
+
+    private static CompletableFuture<DescribeDomainResponse> describeDomainAsync(
+        final ProxyClient<VoiceIdAsyncClient> proxyClient) {
+        return proxyClient.injectCredentialsAndInvokeV2Async(DescribeDomainRequest.builder().build(),
+                                                             proxyClient.client()::describeDomain);
+    }
+}
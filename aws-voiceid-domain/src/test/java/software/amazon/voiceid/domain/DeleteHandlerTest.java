@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.voiceid.VoiceIdAsyncClient;
 import software.amazon.awssdk.services.voiceid.VoiceIdClient;
 import software.amazon.awssdk.services.voiceid.model.DeleteDomainRequest;
 import software.amazon.awssdk.services.voiceid.model.DescribeDomainRequest;
@@ -44,6 +45,12 @@ public class DeleteHandlerTest extends AbstractTestBase {
     @Mock
     VoiceIdClient voiceIdClient;
 
+    @Mock
+    private ProxyClient<VoiceIdAsyncClient> asyncProxyClient;
+
+    @Mock
+    VoiceIdAsyncClient voiceIdAsyncClient;
+
     private DeleteHandler handler = new DeleteHandler();
 
     @BeforeEach
@@ -51,12 +58,15 @@ public class DeleteHandlerTest extends AbstractTestBase {
         proxy = new AmazonWebServicesClientProxy(logger, MOCK_CREDENTIALS, () -> Duration.ofSeconds(600).toMillis());
         voiceIdClient = mock(VoiceIdClient.class);
         proxyClient = MOCK_PROXY(proxy, voiceIdClient);
+        voiceIdAsyncClient = mock(VoiceIdAsyncClient.class);
+        asyncProxyClient = MOCK_PROXY(proxy, voiceIdAsyncClient);
     }
 
     @AfterEach
     public void tear_down() {
         verify(voiceIdClient, atLeastOnce()).serviceName();
         verifyNoMoreInteractions(voiceIdClient);
+        verifyNoMoreInteractions(voiceIdAsyncClient);
     }
 
     @Test
@@ -73,6 +83,7 @@ public class DeleteHandlerTest extends AbstractTestBase {
                                                                                              request,
                                                                                              new CallbackContext(),
                                                                                              proxyClient,
+                                                                                             asyncProxyClient,
                                                                                              logger);
 
         verify(proxyClient.client()).deleteDomain(any(DeleteDomainRequest.class));
@@ -93,7 +104,7 @@ public class DeleteHandlerTest extends AbstractTestBase {
             .thenThrow(ResourceNotFoundException.class);
 
         assertThrows(CfnNotFoundException.class,
-                     () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger));
+                     () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, asyncProxyClient, logger));
         verify(proxyClient.client()).describeDomain(any(DescribeDomainRequest.class));
     }
 
@@ -105,7 +116,7 @@ public class DeleteHandlerTest extends AbstractTestBase {
             .thenReturn(TestDataProvider.describeDeletedDomainResponse());
 
         assertThrows(CfnNotFoundException.class,
-                     () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger));
+                     () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, asyncProxyClient, logger));
         verify(proxyClient.client()).describeDomain(any(DescribeDomainRequest.class));
     }
 
@@ -120,7 +131,7 @@ public class DeleteHandlerTest extends AbstractTestBase {
             .thenThrow(ValidationException.class);
 
         assertThrows(CfnInvalidRequestException.class,
-                     () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger));
+                     () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, asyncProxyClient, logger));
         verify(proxyClient.client()).deleteDomain(any(DeleteDomainRequest.class));
     }
 
@@ -135,7 +146,7 @@ public class DeleteHandlerTest extends AbstractTestBase {
             .thenThrow(VoiceIdException.class);
 
         assertThrows(CfnGeneralServiceException.class,
-                     () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger));
+                     () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, asyncProxyClient, logger));
         verify(proxyClient.client()).deleteDomain(any(DeleteDomainRequest.class));
     }
 }
@@ -0,0 +1,190 @@
+package software.amazon.voiceid.domain;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import software.amazon.awssdk.services.voiceid.VoiceIdClient;
+import software.amazon.awssdk.services.voiceid.model.DescribeDomainRequest;
+import software.amazon.awssdk.services.voiceid.model.DescribeDomainResponse;
+import software.amazon.awssdk.services.voiceid.model.DomainStatus;
+import software.amazon.awssdk.services.voiceid.model.DomainSummary;
+import software.amazon.awssdk.services.voiceid.model.ListDomainsRequest;
+import software.amazon.awssdk.services.voiceid.model.ListDomainsResponse;
+import software.amazon.awssdk.services.voiceid.model.ListTagsForResourceRequest;
+import software.amazon.awssdk.services.voiceid.model.ResourceNotFoundException;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.ProxyClient;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+public class DomainInventoryTest extends AbstractTestBase {
+    private static final Instant UPDATED_AT = Instant.parse("2022-06-01T00:00:00Z");
+
+    private VoiceIdClient voiceIdClient;
+
+    private ProxyClient<VoiceIdClient> proxyClient;
+
+    @BeforeEach
+    public void setup() {
+        final AmazonWebServicesClientProxy proxy =
+            new AmazonWebServicesClientProxy(logger, MOCK_CREDENTIALS, () -> Duration.ofSeconds(600).toMillis());
+        voiceIdClient = mock(VoiceIdClient.class);
+        proxyClient = MOCK_PROXY(proxy, voiceIdClient);
+    }
+
+    @AfterEach
+    public void tear_down() {
+        verifyNoMoreInteractions(voiceIdClient);
+    }
+
+    @Test
+    public void sync_ReadsEveryDomainOfAnEmptySnapshot() {
+        listDomains(domainSummary("domain-1", DomainStatus.ACTIVE, UPDATED_AT),
+                    domainSummary("domain-2", DomainStatus.ACTIVE, UPDATED_AT));
+        describeDomainsAs(DomainStatus.ACTIVE);
+        when(voiceIdClient.listTagsForResource(any(ListTagsForResourceRequest.class)))
+            .thenReturn(TestDataProvider.listTagsForResourceResponse());
+
+        final DomainInventory inventory = new DomainInventory();
+        final DomainInventory.SyncResult result = inventory.sync(proxyClient, logger);
+
+        assertThat(result.getAdded()).containsExactly("domain-1", "domain-2");
+        assertThat(result.getUpdated()).isEmpty();
+        assertThat(result.getTombstoned()).isEmpty();
+        assertThat(result.getUnchanged()).isZero();
+        assertThat(inventory.getEntries().get("domain-1").getUpdatedAt()).isEqualTo(UPDATED_AT);
+        assertThat(inventory.getEntries().get("domain-1").getModel().getName()).isEqualTo(TestDataProvider.NAME);
+        assertThat(inventory.getEntries().get("domain-1").getModel().getTags()).hasSize(2);
+        verify(voiceIdClient).listDomains(any(ListDomainsRequest.class));
+        verify(voiceIdClient, times(2)).describeDomain(any(DescribeDomainRequest.class));
+        verify(voiceIdClient, times(2)).listTagsForResource(any(ListTagsForResourceRequest.class));
+    }
+
+    @Test
+    public void sync_ReadsOnlyChangedDomainsAndTombstonesTheRest() {
+        final Map<String, DomainInventory.Entry> snapshot = new HashMap<>();
+        for (final String domainId : new String[] {"unchanged", "changed", "deleted", "suspended"}) {
+            snapshot.put(domainId, new DomainInventory.Entry(UPDATED_AT, model(domainId)));
+        }
+        final Instant laterUpdatedAt = UPDATED_AT.plusSeconds(60L);
+        listDomains(domainSummary("unchanged", DomainStatus.ACTIVE, UPDATED_AT),
+                    domainSummary("changed", DomainStatus.ACTIVE, laterUpdatedAt),
+                    domainSummary("new", DomainStatus.ACTIVE, UPDATED_AT),
+                    domainSummary("suspended", DomainStatus.SUSPENDED, laterUpdatedAt));
+        describeDomainsAs(DomainStatus.ACTIVE);
+        when(voiceIdClient.listTagsForResource(any(ListTagsForResourceRequest.class)))
+            .thenReturn(TestDataProvider.listTagsForResourceResponse());
+
+        final DomainInventory inventory = new DomainInventory(snapshot);
+        final DomainInventory.SyncResult result = inventory.sync(proxyClient, logger);
+
+        assertThat(result.getAdded()).containsExactly("new");
+        assertThat(result.getUpdated()).containsExactly("changed");
+        assertThat(result.getTombstoned()).containsExactlyInAnyOrder("deleted", "suspended");
+        assertThat(result.getUnchanged()).isEqualTo(1L);
+        assertThat(inventory.getEntries()).containsOnlyKeys("unchanged", "changed", "new");
+        assertThat(inventory.getEntries().get("changed").getUpdatedAt()).isEqualTo(laterUpdatedAt);
+        assertThat(inventory.getEntries().get("unchanged").getModel()).isEqualTo(model("unchanged"));
+
+        final ArgumentCaptor<DescribeDomainRequest> captor = ArgumentCaptor.forClass(DescribeDomainRequest.class);
+        verify(voiceIdClient).listDomains(any(ListDomainsRequest.class));
+        verify(voiceIdClient, times(2)).describeDomain(captor.capture());
+        assertThat(captor.getAllValues()).extracting(DescribeDomainRequest::domainId).containsExactly("changed", "new");
+        verify(voiceIdClient, times(2)).listTagsForResource(any(ListTagsForResourceRequest.class));
+    }
+
+    @Test
+    public void sync_TombstonesDomainsGoneSinceListed() {
+        final Map<String, DomainInventory.Entry> snapshot = new HashMap<>();
+        snapshot.put("deleted", new DomainInventory.Entry(UPDATED_AT, model("deleted")));
+        listDomains(domainSummary("deleted", DomainStatus.ACTIVE, null),
+                    domainSummary("suspended", DomainStatus.ACTIVE, UPDATED_AT));
+        when(voiceIdClient.describeDomain(any(DescribeDomainRequest.class))).thenAnswer(invocation -> {
+            final DescribeDomainRequest request = invocation.getArgument(0);
+            if ("deleted".equals(request.domainId())) {
+                throw ResourceNotFoundException.builder().build();
+            }
+            return describeDomainResponse(request.domainId(), DomainStatus.SUSPENDED);
+        });
+
+        final DomainInventory inventory = new DomainInventory(snapshot);
+        final DomainInventory.SyncResult result = inventory.sync(proxyClient, logger);
+
+        assertThat(result.getAdded()).isEmpty();
+        assertThat(result.getTombstoned()).containsExactly("deleted");
+        assertThat(inventory.getEntries()).isEmpty();
+        verify(voiceIdClient).listDomains(any(ListDomainsRequest.class));
+        verify(voiceIdClient, times(2)).describeDomain(any(DescribeDomainRequest.class));
+    }
+
+    @Test
+    public void save_RestoresEveryScopeOnLoad(@TempDir final Path directory) throws Exception {
+        final ObjectMapper objectMapper = new ObjectMapper();
+        final Path file = directory.resolve("inventory.json");
+        assertThat(DomainInventory.load(file, objectMapper)).isEmpty();
+
+        final ResourceModel described = TestDataProvider.getResourceModel();
+        described.setDomainId("domain-1");
+        final Map<String, DomainInventory.Entry> usEast = new HashMap<>();
+        usEast.put("domain-1", new DomainInventory.Entry(UPDATED_AT, described));
+        usEast.put("domain-2", new DomainInventory.Entry(null, model("domain-2")));
+        final Map<String, DomainInventory> inventories = new HashMap<>();
+        inventories.put(DomainInventory.scopeOf("111111111111", "us-east-1"), new DomainInventory(usEast));
+        inventories.put(DomainInventory.scopeOf("222222222222", "eu-west-1"), new DomainInventory());
+
+        DomainInventory.save(file, inventories, objectMapper);
+        final ConcurrentMap<String, DomainInventory> loaded = DomainInventory.load(file, objectMapper);
+
+        assertThat(loaded).containsOnlyKeys("111111111111/us-east-1", "222222222222/eu-west-1");
+        assertThat(loaded.get("111111111111/us-east-1").getEntries()).isEqualTo(usEast);
+        assertThat(loaded.get("222222222222/eu-west-1").getEntries()).isEmpty();
+        assertThat(directory.resolve("inventory.json.tmp")).doesNotExist();
+    }
+
+    private void listDomains(final DomainSummary... domainSummaries) {
+        when(voiceIdClient.listDomains(any(ListDomainsRequest.class)))
+            .thenReturn(ListDomainsResponse.builder().domainSummaries(domainSummaries).build());
+    }
+
+    private void describeDomainsAs(final DomainStatus domainStatus) {
+        when(voiceIdClient.describeDomain(any(DescribeDomainRequest.class))).thenAnswer(invocation -> {
+            final DescribeDomainRequest request = invocation.getArgument(0);
+            return describeDomainResponse(request.domainId(), domainStatus);
+        });
+    }
+
+    private static DescribeDomainResponse describeDomainResponse(
+        final String domainId,
+        final DomainStatus domainStatus) {
+        return DescribeDomainResponse.builder()
+            .domain(TestDataProvider.getDomain(domainStatus).toBuilder().domainId(domainId).build())
+            .build();
+    }
+
+    private static DomainSummary domainSummary(
+        final String domainId,
+        final DomainStatus domainStatus,
+        final Instant updatedAt) {
+        return DomainSummary.builder().domainId(domainId).domainStatus(domainStatus).updatedAt(updatedAt).build();
+    }
+
+    private static ResourceModel model(final String domainId) {
+        return ResourceModel.builder().domainId(domainId).build();
+    }
+}
@@ -0,0 +1,104 @@
+package software.amazon.voiceid.domain;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import software.amazon.awssdk.services.voiceid.VoiceIdClient;
+import software.amazon.awssdk.services.voiceid.model.DomainStatus;
+import software.amazon.awssdk.services.voiceid.model.DomainSummary;
+import software.amazon.awssdk.services.voiceid.model.ListDomainsRequest;
+import software.amazon.awssdk.services.voiceid.model.ListDomainsResponse;
+import software.amazon.awssdk.services.voiceid.model.ThrottlingException;
+import software.amazon.cloudformation.exceptions.CfnThrottlingException;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.ProxyClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+public class DomainTraversalTest extends AbstractTestBase {
+
+    private VoiceIdClient voiceIdClient;
+
+    private ProxyClient<VoiceIdClient> proxyClient;
+
+    @BeforeEach
+    public void setup() {
+        final AmazonWebServicesClientProxy proxy =
+            new AmazonWebServicesClientProxy(logger, MOCK_CREDENTIALS, () -> Duration.ofSeconds(600).toMillis());
+        voiceIdClient = mock(VoiceIdClient.class);
+        proxyClient = MOCK_PROXY(proxy, voiceIdClient);
+    }
+
+    @AfterEach
+    public void tear_down() {
+        verifyNoMoreInteractions(voiceIdClient);
+    }
+
+    @Test
+    public void forEachDomain_StreamsActiveDomainsAcrossPages() {
+        when(voiceIdClient.listDomains(any(ListDomainsRequest.class))).thenAnswer(invocation -> {
+            final ListDomainsRequest request = invocation.getArgument(0);
+            return request.nextToken() == null
+                ? ListDomainsResponse.builder()
+                    .domainSummaries(domainSummary("domain-1", DomainStatus.ACTIVE),
+                                     domainSummary("domain-2", DomainStatus.SUSPENDED))
+                    .nextToken("page-2")
+                    .build()
+                : ListDomainsResponse.builder()
+                    .domainSummaries(domainSummary("domain-3", DomainStatus.ACTIVE))
+                    .build();
+        });
+
+        final List<ResourceModel> models = new ArrayList<>();
+        final long count = DomainTraversal.forEachDomain(proxyClient, models::add);
+
+        assertThat(count).isEqualTo(2L);
+        assertThat(models).containsExactly(ResourceModel.builder().domainId("domain-1").build(),
+                                           ResourceModel.builder().domainId("domain-3").build());
+        final ArgumentCaptor<ListDomainsRequest> captor = ArgumentCaptor.forClass(ListDomainsRequest.class);
+        verify(voiceIdClient, times(2)).listDomains(captor.capture());
+        assertThat(captor.getAllValues()).extracting(ListDomainsRequest::nextToken).containsExactly(null, "page-2");
+    }
+
+    @Test
+    public void forEachDomain_RequestsPagesOnlyAsConsumed() {
+        when(voiceIdClient.listDomains(any(ListDomainsRequest.class))).thenReturn(
+            ListDomainsResponse.builder()
+                .domainSummaries(domainSummary("domain-1", DomainStatus.ACTIVE))
+                .nextToken("page-2")
+                .build());
+
+        assertThrows(IllegalStateException.class, () -> DomainTraversal.forEachDomain(proxyClient, model -> {
+            throw new IllegalStateException("consumer stopped");
+        }));
+
+        verify(voiceIdClient, times(1)).listDomains(any(ListDomainsRequest.class));
+    }
+
+    @Test
+    public void forEachDomainSummary_TranslatesServiceFailure() {
+        when(voiceIdClient.listDomains(any(ListDomainsRequest.class)))
+            .thenThrow(ThrottlingException.builder().build());
+
+        assertThrows(CfnThrottlingException.class,
+                     () -> DomainTraversal.forEachDomainSummary(proxyClient, domainSummary -> { }));
+
+        verify(voiceIdClient, times(1)).listDomains(any(ListDomainsRequest.class));
+    }
+
+    private static DomainSummary domainSummary(final String domainId, final DomainStatus domainStatus) {
+        return DomainSummary.builder().domainId(domainId).domainStatus(domainStatus).build();
+    }
+}
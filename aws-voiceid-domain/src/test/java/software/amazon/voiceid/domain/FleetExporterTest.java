@@ -0,0 +1,159 @@
+package software.amazon.voiceid.domain;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.voiceid.VoiceIdClient;
+import software.amazon.awssdk.services.voiceid.model.AccessDeniedException;
+import software.amazon.awssdk.services.voiceid.model.DescribeDomainRequest;
+import software.amazon.awssdk.services.voiceid.model.DescribeDomainResponse;
+import software.amazon.awssdk.services.voiceid.model.DomainStatus;
+import software.amazon.awssdk.services.voiceid.model.DomainSummary;
+import software.amazon.awssdk.services.voiceid.model.ListDomainsRequest;
+import software.amazon.awssdk.services.voiceid.model.ListDomainsResponse;
+import software.amazon.awssdk.services.voiceid.model.ListTagsForResourceRequest;
+
+import java.io.StringWriter;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class FleetExporterTest extends AbstractTestBase {
+    private static final Instant UPDATED_AT = Instant.parse("2022-06-01T00:00:00Z");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void export_WritesEveryTargetAndRecordsFailedTargets() throws Exception {
+        final Map<String, VoiceIdClient> clients = new HashMap<>();
+        clients.put("us-east-1", activeClient("domain-1", "domain-2"));
+        clients.put("eu-west-1", activeClient("domain-3"));
+        final VoiceIdClient deniedClient = mock(VoiceIdClient.class);
+        when(deniedClient.listDomains(any(ListDomainsRequest.class)))
+            .thenThrow(AccessDeniedException.builder().message("denied").build());
+        clients.put("ap-southeast-2", deniedClient);
+        final FleetExporter exporter =
+            new FleetExporter(2, 0, target -> clients.get(target.getRegion()), FleetExporter.Target::getAccountId,
+                              logger);
+
+        final StringWriter output = new StringWriter();
+        final FleetExporter.Summary summary = exporter.export(
+            Arrays.asList(FleetExporter.Target.parse("111111111111:us-east-1"),
+                          FleetExporter.Target.parse("222222222222:eu-west-1:audit"),
+                          FleetExporter.Target.parse("333333333333:ap-southeast-2")),
+            output);
+
+        assertThat(summary.getDomains()).isEqualTo(3L);
+        assertThat(summary.getFailedTargets()).isEqualTo(1);
+        final List<JsonNode> records = new ArrayList<>();
+        for (final String line : output.toString().split("\n")) {
+            records.add(objectMapper.readTree(line));
+        }
+        assertThat(records).hasSize(4);
+        assertThat(records).filteredOn(record -> record.has("model"))
+            .extracting(record -> record.get("accountId").asText() + "/" + record.get("model").get("DomainId").asText())
+            .containsExactlyInAnyOrder("111111111111/domain-1", "111111111111/domain-2", "222222222222/domain-3");
+        assertThat(records).filteredOn(record -> record.has("error"))
+            .extracting(record -> record.get("region").asText())
+            .containsExactly("ap-southeast-2");
+        for (final VoiceIdClient client : clients.values()) {
+            verify(client).close();
+        }
+    }
+
+    @Test
+    public void export_FailsTargetsWhoseCredentialsBelongToAnotherAccount() throws Exception {
+        final VoiceIdClient client = activeClient("domain-1");
+        final FleetExporter exporter = new FleetExporter(1, 0, target -> client, target -> "999999999999", logger);
+
+        final StringWriter output = new StringWriter();
+        final FleetExporter.Summary summary = exporter.export(
+            Collections.singletonList(FleetExporter.Target.parse("111111111111:us-east-1:audit")), output);
+
+        assertThat(summary.getDomains()).isZero();
+        assertThat(summary.getFailedTargets()).isEqualTo(1);
+        final JsonNode record = objectMapper.readTree(output.toString());
+        assertThat(record.has("model")).isFalse();
+        assertThat(record.get("accountId").asText()).isEqualTo("111111111111");
+        assertThat(record.get("error").asText()).contains("999999999999");
+        verify(client, never()).listDomains(any(ListDomainsRequest.class));
+        verify(client).close();
+    }
+
+    @Test
+    public void export_IncrementalReadsOnlyChangedDomains() throws Exception {
+        final VoiceIdClient client = activeClient("unchanged", "new");
+        final Map<String, DomainInventory.Entry> entries = new HashMap<>();
+        entries.put("unchanged", new DomainInventory.Entry(UPDATED_AT, ResourceModel.builder().domainId("unchanged")
+            .build()));
+        entries.put("deleted", new DomainInventory.Entry(UPDATED_AT, ResourceModel.builder().domainId("deleted")
+            .build()));
+        final ConcurrentMap<String, DomainInventory> inventories = new ConcurrentHashMap<>();
+        inventories.put("111111111111/us-east-1", new DomainInventory(entries));
+        final FleetExporter exporter = new FleetExporter(1, 0, target -> client, FleetExporter.Target::getAccountId,
+                                                         inventories, logger);
+
+        final StringWriter output = new StringWriter();
+        final FleetExporter.Summary summary = exporter.export(
+            Collections.singletonList(FleetExporter.Target.parse("111111111111:us-east-1")), output);
+
+        assertThat(summary.getDomains()).isEqualTo(2L);
+        assertThat(inventories.get("111111111111/us-east-1").getEntries()).containsOnlyKeys("unchanged", "new");
+        final List<String> exported = new ArrayList<>();
+        for (final String line : output.toString().split("\n")) {
+            exported.add(objectMapper.readTree(line).get("model").get("DomainId").asText());
+        }
+        assertThat(exported).containsExactlyInAnyOrder("unchanged", "new");
+        verify(client).describeDomain(DescribeDomainRequest.builder().domainId("new").build());
+        verify(client, never()).describeDomain(DescribeDomainRequest.builder().domainId("unchanged").build());
+    }
+
+    @Test
+    public void parse_Target() {
+        assertThat(FleetExporter.Target.parse("111111111111:us-east-1"))
+            .isEqualTo(new FleetExporter.Target("111111111111", "us-east-1", null));
+        assertThat(FleetExporter.Target.parse("111111111111:us-east-1:audit").getProfile()).isEqualTo("audit");
+        assertThrows(IllegalArgumentException.class, () -> FleetExporter.Target.parse("111111111111"));
+        assertThrows(IllegalArgumentException.class, () -> FleetExporter.Target.parse(":us-east-1"));
+        assertThrows(IllegalArgumentException.class, () -> FleetExporter.Target.parse("111111111111:us-east-1:"));
+    }
+
+    private static VoiceIdClient activeClient(final String... domainIds) {
+        final VoiceIdClient client = mock(VoiceIdClient.class);
+        final List<DomainSummary> domainSummaries = new ArrayList<>();
+        for (final String domainId : domainIds) {
+            domainSummaries.add(DomainSummary.builder()
+                                    .domainId(domainId)
+                                    .domainStatus(DomainStatus.ACTIVE)
+                                    .updatedAt(UPDATED_AT)
+                                    .build());
+        }
+        when(client.listDomains(any(ListDomainsRequest.class)))
+            .thenReturn(ListDomainsResponse.builder().domainSummaries(domainSummaries).build());
+        when(client.describeDomain(any(DescribeDomainRequest.class))).thenAnswer(invocation -> {
+            final DescribeDomainRequest request = invocation.getArgument(0);
+            return DescribeDomainResponse.builder()
+                .domain(TestDataProvider.getDomain(DomainStatus.ACTIVE).toBuilder()
+                            .domainId(request.domainId())
+                            .build())
+                .build();
+        });
+        when(client.listTagsForResource(any(ListTagsForResourceRequest.class)))
+            .thenReturn(TestDataProvider.listTagsForResourceResponse());
+        return client;
+    }
+}
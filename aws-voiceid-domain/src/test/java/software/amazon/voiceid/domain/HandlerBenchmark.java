@@ -0,0 +1,181 @@
+package software.amazon.voiceid.domain;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Measures how long the packaged handler takes to serve its first request and how fast it serves the ones after. Each
+ * launch starts a fresh JVM on the shaded jar running BenchmarkWorker, which serves the recorded workload events
+ * against a LocalVoiceId hosted by this process, and the results of all launches are summarized: time to first
+ * response from the moment the JVM is launched, steady state latency percentiles, heap after the first response and
+ * loaded class counts.
+ *
+ * Arguments: --jar path of the shaded jar (required), --launches JVMs to start (5), --rounds workload rounds per JVM
+ * (20), --prime to run Priming during init, and --jvm-arg, repeatable, for options such as -XX:SharedArchiveFile.
+ */
+public final class HandlerBenchmark {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int OUTPUT_TAIL_LINES = 20;
+
+    private HandlerBenchmark() {
+    }
+
+    public static void main(final String[] args) throws IOException, InterruptedException {
+        String jar = null;
+        int launches = 5;
+        int rounds = 20;
+        boolean prime = false;
+        final List<String> jvmArgs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--jar":
+                    jar = args[++i];
+                    break;
+                case "--launches":
+                    launches = Integer.parseInt(args[++i]);
+                    break;
+                case "--rounds":
+                    rounds = Integer.parseInt(args[++i]);
+                    break;
+                case "--prime":
+                    prime = true;
+                    break;
+                case "--jvm-arg":
+                    jvmArgs.add(args[++i]);
+                    break;
+                default:
+                    throw new IllegalArgumentException(String.format("Unknown argument %s", args[i]));
+            }
+        }
+        if (jar == null || launches < 1 || rounds < 2) {
+            throw new IllegalArgumentException("--jar is required, with at least 1 launch and 2 rounds");
+        }
+
+        final List<Launch> results = new ArrayList<>();
+        try (LocalVoiceId voiceId = LocalVoiceId.start(0)) {
+            for (int launch = 0; launch < launches; launch++) {
+                results.add(launch(jar, rounds, prime, jvmArgs, voiceId));
+            }
+        }
+        report(results, rounds, prime, jvmArgs);
+    }
+
+    private static Launch launch(final String jar,
+                                 final int rounds,
+                                 final boolean prime,
+                                 final List<String> jvmArgs,
+                                 final LocalVoiceId voiceId) throws IOException, InterruptedException {
+        final List<String> command = new ArrayList<>();
+        command.add(new File(System.getProperty("java.home"), "bin/java").getPath());
+        command.addAll(jvmArgs);
+        command.add("-cp");
+        // The worker and the recorded events come from the test classes, everything it measures from the jar.
+        command.add(jar + File.pathSeparator + new File(BenchmarkWorker.class.getProtectionDomain().getCodeSource()
+                                                            .getLocation().getPath()).getPath());
+        command.add(BenchmarkWorker.class.getName());
+        command.add(String.valueOf(rounds));
+        if (prime) {
+            command.add("--prime");
+        }
+        final ProcessBuilder processBuilder = new ProcessBuilder(command)
+            .redirectError(ProcessBuilder.Redirect.INHERIT);
+        processBuilder.environment().put("AWS_REGION", "us-east-1");
+        processBuilder.environment().put(ClientBuilder.ENDPOINT_OVERRIDE_ENV, voiceId.endpoint().toString());
+
+        final long launchMillis = System.currentTimeMillis();
+        final Process worker = processBuilder.start();
+        final LinkedList<String> tail = new LinkedList<>();
+        JsonNode result = null;
+        try (BufferedReader output = new BufferedReader(
+            new InputStreamReader(worker.getInputStream(), StandardCharsets.UTF_8))) {
+            for (String line = output.readLine(); line != null; line = output.readLine()) {
+                if (line.startsWith(BenchmarkWorker.RESULT_PREFIX)) {
+                    result = MAPPER.readTree(line.substring(BenchmarkWorker.RESULT_PREFIX.length()));
+                }
+                tail.add(line);
+                if (tail.size() > OUTPUT_TAIL_LINES) {
+                    tail.removeFirst();
+                }
+            }
+        }
+        if (worker.waitFor() != 0 || result == null) {
+            throw new IllegalStateException(String.format("Benchmark worker failed, last output:%n%s",
+                                                          String.join(System.lineSeparator(), tail)));
+        }
+        return new Launch(launchMillis, result);
+    }
+
+    private static void report(final List<Launch> launches,
+                               final int rounds,
+                               final boolean prime,
+                               final List<String> jvmArgs) {
+        final List<Long> steadyStateMicros = new ArrayList<>();
+        launches.forEach(launch -> launch.result.get("steadyStateLatenciesMicros")
+            .forEach(latency -> steadyStateMicros.add(latency.asLong())));
+        Collections.sort(steadyStateMicros);
+
+        System.out.printf("%d launches, %d rounds each, priming %s, JVM arguments %s%n",
+                          launches.size(), rounds, prime ? "on" : "off", jvmArgs);
+        printSpread("Time to first response (ms)", launches,
+                    launch -> launch.result.get("firstResponseMillis").asLong() - launch.launchMillis);
+        printSpread("  JVM start (ms)", launches,
+                    launch -> launch.result.get("jvmStartMillis").asLong() - launch.launchMillis);
+        printSpread("  Handler init (ms)", launches,
+                    launch -> launch.result.get("readyMillis").asLong() - launch.result.get("jvmStartMillis").asLong());
+        printSpread("  First request (ms)", launches,
+                    launch -> launch.result.get("firstResponseMillis").asLong()
+                        - launch.result.get("readyMillis").asLong());
+        printSpread("First round of all actions (ms)", launches,
+                    launch -> launch.result.get("firstRoundMicros").asLong() / 1_000L);
+        System.out.printf("Steady state latency (us over %d invocations): p50 %d, p90 %d, p99 %d, max %d%n",
+                          steadyStateMicros.size(),
+                          percentile(steadyStateMicros, 50),
+                          percentile(steadyStateMicros, 90),
+                          percentile(steadyStateMicros, 99),
+                          steadyStateMicros.get(steadyStateMicros.size() - 1));
+        printSpread("Heap after first response (KiB)", launches,
+                    launch -> launch.result.get("heapAfterFirstResponseBytes").asLong() / 1_024L);
+        printSpread("Loaded classes after first response", launches,
+                    launch -> launch.result.get("classesAfterFirstResponse").asLong());
+        printSpread("Loaded classes at exit", launches, launch -> launch.result.get("classesAtExit").asLong());
+    }
+
+    private static void printSpread(final String name,
+                                    final List<Launch> launches,
+                                    final ToLongFunction<Launch> metric) {
+        final List<Long> values = new ArrayList<>();
+        launches.forEach(launch -> values.add(metric.applyAsLong(launch)));
+        Collections.sort(values);
+        System.out.printf("%s: min %d, median %d, max %d%n",
+                          name, values.get(0), percentile(values, 50), values.get(values.size() - 1));
+    }
+
+    /**
+     * @return nearest-rank percentile of the sorted values
+     */
+    static long percentile(final List<Long> sortedValues, final int percentile) {
+        final int rank = (int) Math.ceil(percentile / 100.0 * sortedValues.size());
+        return sortedValues.get(Math.max(0, rank - 1));
+    }
+
+    private static final class Launch {
+        private final long launchMillis;
+        private final JsonNode result;
+
+        private Launch(final long launchMillis, final JsonNode result) {
+            this.launchMillis = launchMillis;
+            this.result = result;
+        }
+    }
+}
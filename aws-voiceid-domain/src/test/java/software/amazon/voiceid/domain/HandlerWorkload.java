@@ -0,0 +1,109 @@
+package software.amazon.voiceid.domain;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Takes a domain through CREATE, READ, UPDATE, LIST and DELETE by sending the test entrypoint events recorded in
+ * src/test/resources/workload to a packaged handler, which is expected to call LocalVoiceId. The domain id the create
+ * returned replaces {{DomainId}} in the later events. An action is invoked again with the returned callback context
+ * for as long as it reports IN_PROGRESS, and any other outcome than SUCCESS fails the workload.
+ */
+final class HandlerWorkload {
+    static final String[] ACTIONS = {"CREATE", "READ", "UPDATE", "LIST", "DELETE"};
+
+    private static final String DOMAIN_ID_PLACEHOLDER = "{{DomainId}}";
+    private static final int MAX_INVOCATIONS_PER_ACTION = 10;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * Sends one test entrypoint event to the handler
+     */
+    @FunctionalInterface
+    interface Invoker {
+        /**
+         * @return what the handler wrote in response
+         */
+        byte[] invoke(byte[] event) throws IOException;
+    }
+
+    private final Invoker invoker;
+
+    HandlerWorkload(final Invoker invoker) {
+        this.invoker = invoker;
+    }
+
+    /**
+     * @return invoker calling the test entrypoint of the handler in this JVM
+     */
+    static Invoker inProcess(final HandlerWrapper handlerWrapper) {
+        return event -> {
+            final ByteArrayOutputStream output = new ByteArrayOutputStream();
+            handlerWrapper.testEntrypoint(new ByteArrayInputStream(event), output,
+                                          new NativeRuntime.InvocationContext(
+                                              UUID.randomUUID().toString(),
+                                              "arn:aws:lambda:us-east-1:123456789012:function:workload",
+                                              System.currentTimeMillis() + 60_000L));
+            return output.toByteArray();
+        };
+    }
+
+    /**
+     * Runs every action once, in order, on a new domain
+     */
+    void run() throws IOException {
+        final String domainId = serve("CREATE", null).path("resourceModel").path("DomainId").asText();
+        for (int action = 1; action < ACTIONS.length; action++) {
+            serve(ACTIONS[action], domainId);
+        }
+    }
+
+    /**
+     * Serves the recorded event of one action until it is no longer IN_PROGRESS
+     *
+     * @return the final progress event
+     */
+    private JsonNode serve(final String action, final String domainId) throws IOException {
+        final ObjectNode event = recordedEvent(action, domainId);
+        for (int invocation = 0; invocation < MAX_INVOCATIONS_PER_ACTION; invocation++) {
+            final JsonNode progress = MAPPER.readTree(invoker.invoke(MAPPER.writeValueAsBytes(event)));
+            final String status = progress.path("status").asText();
+            if ("SUCCESS".equals(status)) {
+                return progress;
+            }
+            if (!"IN_PROGRESS".equals(status)) {
+                throw new IllegalStateException(String.format("%s failed: %s", action, progress));
+            }
+            event.set("callbackContext", progress.get("callbackContext"));
+        }
+        throw new IllegalStateException(String.format("%s did not finish", action));
+    }
+
+    private static ObjectNode recordedEvent(final String action, final String domainId) throws IOException {
+        final String resource = String.format("/workload/%s.json", action.toLowerCase(Locale.ROOT));
+        final ByteArrayOutputStream recorded = new ByteArrayOutputStream();
+        try (InputStream input = HandlerWorkload.class.getResourceAsStream(resource)) {
+            if (input == null) {
+                throw new IllegalStateException(String.format("No recorded event at %s", resource));
+            }
+            final byte[] buffer = new byte[8192];
+            for (int read = input.read(buffer); read >= 0; read = input.read(buffer)) {
+                recorded.write(buffer, 0, read);
+            }
+        }
+        String event = new String(recorded.toByteArray(), StandardCharsets.UTF_8);
+        if (domainId != null) {
+            event = event.replace(DOMAIN_ID_PLACEHOLDER, domainId);
+        }
+        return (ObjectNode) MAPPER.readTree(event);
+    }
+}
@@ -0,0 +1,157 @@
+package software.amazon.voiceid.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class HedgerTest {
+    private final AtomicLong now = new AtomicLong(1_000L);
+    private final BlockingQueue<CompletableFuture<String>> attempts = new LinkedBlockingQueue<>();
+
+    @Test
+    public void hedgeDelayFollowsThePercentileOfRecentLatencies() {
+        final Hedger hedger = hedger(90, 1.0);
+        assertThat(hedger.hedgeDelay()).isEmpty();
+
+        // The first calls only fill the window, the oldest of them falls out of it.
+        IntStream.rangeClosed(1, 11).forEach(latency -> hedger.callBlocking(() -> {
+            now.addAndGet(latency == 1 ? 100L : latency);
+            return "response";
+        }));
+
+        assertThat(hedger.hedgeDelay()).contains(Duration.ofMillis(10L));
+        assertThat(hedger(0, 1.0).hedgeDelay()).isEmpty();
+        assertThat(hedger(0, 1.0).isEnabled()).isFalse();
+    }
+
+    @Test
+    public void slowCallIsRacedByOneHedge() throws Exception {
+        final Hedger hedger = warmedUp(hedger(90, 1.0));
+
+        final CompletableFuture<String> result = hedger.call(this::nextAttempt);
+        final CompletableFuture<String> primary = attempts.poll(5L, TimeUnit.SECONDS);
+        attempts.poll(5L, TimeUnit.SECONDS).complete("hedge");
+
+        assertThat(result.get(5L, TimeUnit.SECONDS)).isEqualTo("hedge");
+        assertThat(primary.isCancelled()).isTrue();
+        assertThat(hedger.hedgesSent()).isEqualTo(1L);
+    }
+
+    @Test
+    public void failureIsReportedOnceEveryAttemptFailed() throws Exception {
+        final Hedger hedger = warmedUp(hedger(90, 1.0));
+
+        final CompletableFuture<String> recovered = hedger.call(this::nextAttempt);
+        attempts.poll(5L, TimeUnit.SECONDS);
+        final CompletableFuture<String> hedge = attempts.poll(5L, TimeUnit.SECONDS);
+        hedge.completeExceptionally(new IllegalStateException("hedge failed"));
+        assertThat(recovered.isDone()).isFalse();
+
+        final CompletableFuture<String> failed = hedger.call(this::nextAttempt);
+        final CompletableFuture<String> failedPrimary = attempts.poll(5L, TimeUnit.SECONDS);
+        final CompletableFuture<String> failedHedge = attempts.poll(5L, TimeUnit.SECONDS);
+        failedPrimary.completeExceptionally(new IllegalStateException("primary failed"));
+        failedHedge.completeExceptionally(new IllegalStateException("hedge failed"));
+
+        assertThat(assertThrows(CompletionException.class, failed::join).getCause())
+            .hasMessage("hedge failed");
+        recovered.cancel(true);
+    }
+
+    @Test
+    public void budgetBoundsTheHedgesSent() throws Exception {
+        final Hedger hedger = warmedUp(hedger(90, 0.5));
+        final long hedgesBefore = hedger.hedgesSent();
+
+        // The warm up left credit for one hedge, and every call earns half of one.
+        for (int call = 0; call < 4; call++) {
+            hedger.call(this::nextAttempt);
+            Thread.sleep(100L);
+        }
+
+        assertThat(hedger.hedgesSent() - hedgesBefore).isEqualTo(2L);
+        attempts.forEach(attempt -> attempt.complete("done"));
+    }
+
+    @Test
+    public void blockingCallIsRacedOnAnotherThread() {
+        final Hedger hedger = warmedUp(hedger(90, 1.0));
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicLong calls = new AtomicLong();
+
+        final String response = hedger.callBlocking(() -> {
+            if (calls.incrementAndGet() == 1L) {
+                try {
+                    release.await(5L, TimeUnit.SECONDS);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "primary";
+            }
+            return "hedge";
+        });
+        release.countDown();
+
+        assertThat(response).isEqualTo("hedge");
+        assertThrows(IllegalArgumentException.class, () -> hedger.callBlocking(() -> {
+            throw new IllegalArgumentException("invalid request");
+        }));
+    }
+
+    @Test
+    public void losingBlockingCallIsInterrupted() throws Exception {
+        final Hedger hedger = warmedUp(hedger(90, 1.0));
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        final AtomicLong calls = new AtomicLong();
+
+        final String response = hedger.callBlocking(() -> {
+            if (calls.incrementAndGet() == 1L) {
+                try {
+                    Thread.sleep(5_000L);
+                } catch (final InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return "primary";
+            }
+            return "hedge";
+        });
+
+        assertThat(response).isEqualTo("hedge");
+        assertThat(interrupted.await(5L, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private Hedger hedger(final int percentile, final double budget) {
+        return Hedger.of()
+            .percentile(percentile)
+            .budget(budget)
+            .windowSize(10)
+            .minSamples(10)
+            .currentTimeMillis(now::get)
+            .build();
+    }
+
+    /**
+     * Fills the window with calls that complete instantly, so that hedges are sent right away
+     */
+    private static Hedger warmedUp(final Hedger hedger) {
+        IntStream.range(0, 10).forEach(call -> hedger.callBlocking(() -> "response"));
+        return hedger;
+    }
+
+    private CompletableFuture<String> nextAttempt() {
+        final CompletableFuture<String> attempt = new CompletableFuture<>();
+        attempts.add(attempt);
+        return attempt;
+    }
+}
@@ -4,15 +4,23 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.voiceid.VoiceIdAsyncClient;
 import software.amazon.awssdk.services.voiceid.VoiceIdClient;
+import software.amazon.awssdk.services.voiceid.model.DescribeDomainRequest;
+import software.amazon.awssdk.services.voiceid.model.DescribeDomainResponse;
 import software.amazon.awssdk.services.voiceid.model.DomainStatus;
 import software.amazon.awssdk.services.voiceid.model.DomainSummary;
 import software.amazon.awssdk.services.voiceid.model.ListDomainsRequest;
 import software.amazon.awssdk.services.voiceid.model.ListDomainsResponse;
+import software.amazon.awssdk.services.voiceid.model.ListTagsForResourceRequest;
+import software.amazon.awssdk.services.voiceid.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.voiceid.model.ThrottlingException;
 import software.amazon.awssdk.services.voiceid.model.VoiceIdException;
 import software.amazon.cloudformation.exceptions.CfnGeneralServiceException;
+import software.amazon.cloudformation.exceptions.CfnThrottlingException;
 import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
 import software.amazon.cloudformation.proxy.OperationStatus;
 import software.amazon.cloudformation.proxy.ProgressEvent;
@@ -21,12 +29,18 @@ import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 
 import java.time.Duration;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -41,6 +55,10 @@ public class ListHandlerTest extends AbstractTestBase {
 
     @Mock VoiceIdClient voiceIdClient;
 
+    @Mock private ProxyClient<VoiceIdAsyncClient> asyncProxyClient;
+
+    @Mock VoiceIdAsyncClient voiceIdAsyncClient;
+
     private ListHandler handler = new ListHandler();
 
     @BeforeEach
@@ -48,11 +66,14 @@ public class ListHandlerTest extends AbstractTestBase {
         proxy = new AmazonWebServicesClientProxy(logger, MOCK_CREDENTIALS, () -> Duration.ofSeconds(600).toMillis());
         voiceIdClient = mock(VoiceIdClient.class);
         proxyClient = MOCK_PROXY(proxy, voiceIdClient);
+        voiceIdAsyncClient = mock(VoiceIdAsyncClient.class);
+        asyncProxyClient = MOCK_PROXY(proxy, voiceIdAsyncClient);
     }
 
     @AfterEach
     public void tear_down() {
         verifyNoMoreInteractions(voiceIdClient);
+        verifyNoMoreInteractions(voiceIdAsyncClient);
     }
 
     @Test
@@ -68,7 +89,7 @@ public class ListHandlerTest extends AbstractTestBase {
             .thenReturn(listDomainsResponse);
 
         final ProgressEvent<ResourceModel, CallbackContext> response =
-            handler.handleRequest(proxy, request, null, proxyClient, logger);
+            handler.handleRequest(proxy, request, null, proxyClient, asyncProxyClient, logger);
 
         final ResourceModel expectedModel1 = ResourceModel.builder().domainId("DomainId").build();
         final ResourceModel expectedModel2 = ResourceModel.builder().domainId("DomainId2").build();
@@ -98,7 +119,7 @@ public class ListHandlerTest extends AbstractTestBase {
             .thenReturn(listDomainsResponse);
 
         final ProgressEvent<ResourceModel, CallbackContext> response =
-            handler.handleRequest(proxy, request, null, proxyClient, logger);
+            handler.handleRequest(proxy, request, null, proxyClient, asyncProxyClient, logger);
 
         final ResourceModel expectedModel1 = ResourceModel.builder().domainId("DomainId").build();
         final ResourceModel expectedModel2 = ResourceModel.builder().domainId("DomainId2").build();
@@ -142,7 +163,7 @@ public class ListHandlerTest extends AbstractTestBase {
             .thenReturn(listDomainsResponse);
 
         final ProgressEvent<ResourceModel, CallbackContext> response =
-            handler.handleRequest(proxy, request, null, proxyClient, logger);
+            handler.handleRequest(proxy, request, null, proxyClient, asyncProxyClient, logger);
 
         final ResourceModel expectedModel1 = ResourceModel.builder().domainId("DomainId").build();
         final ResourceModel expectedModel2 = ResourceModel.builder().domainId("DomainId2").build();
@@ -169,7 +190,7 @@ public class ListHandlerTest extends AbstractTestBase {
             .thenReturn(ListDomainsResponse.builder().build());
 
         final ProgressEvent<ResourceModel, CallbackContext> response =
-            handler.handleRequest(proxy, request, null, proxyClient, logger);
+            handler.handleRequest(proxy, request, null, proxyClient, asyncProxyClient, logger);
 
         verify(proxyClient.client()).listDomains(any(ListDomainsRequest.class));
         assertThat(response).isNotNull();
@@ -192,7 +213,145 @@ public class ListHandlerTest extends AbstractTestBase {
             .thenThrow(VoiceIdException.class);
 
         assertThrows(CfnGeneralServiceException.class,
-                     () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger));
+                     () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, asyncProxyClient, logger));
+        verify(proxyClient.client()).listDomains(any(ListDomainsRequest.class));
+    }
+
+    @Test
+    public void handleRequest_FillsPageAcrossSuspendedDomains() {
+        final ListHandler fillingHandler = new ListHandler(HandlerOptions.builder().listTargetPageSize(2).build());
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .build();
+
+        final Map<String, ListDomainsResponse> pages = new HashMap<>();
+        pages.put(null, ListDomainsResponse.builder()
+            .domainSummaries(suspendedDomainSummary("DomainId3")).nextToken("page2").build());
+        pages.put("page2", ListDomainsResponse.builder()
+            .domainSummaries(TestDataProvider.getDomainSummaries()).nextToken("page3").build());
+        pages.put("page3", ListDomainsResponse.builder()
+            .domainSummaries(TestDataProvider.getDomainSummaries()).build());
+        when(voiceIdAsyncClient.listDomains(any(ListDomainsRequest.class)))
+            .thenAnswer(invocation -> CompletableFuture.completedFuture(
+                pages.get(invocation.getArgument(0, ListDomainsRequest.class).nextToken())));
+
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+            fillingHandler.handleRequest(proxy, request, null, proxyClient, asyncProxyClient, logger);
+
+        final ArgumentCaptor<ListDomainsRequest> captor = ArgumentCaptor.forClass(ListDomainsRequest.class);
+        // The third page is prefetched while the second is translated, and dropped once the page is full.
+        verify(voiceIdAsyncClient, times(3)).listDomains(captor.capture());
+        assertThat(captor.getAllValues()).extracting(ListDomainsRequest::nextToken)
+            .containsExactly(null, "page2", "page3");
+        assertThat(captor.getAllValues()).extracting(ListDomainsRequest::maxResults)
+            .containsOnly(Translator.LIST_DOMAINS_MAX_RESULTS);
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getNextToken()).isEqualTo("page3");
+        assertThat(response.getResourceModels()).containsExactly(ResourceModel.builder().domainId("DomainId").build(),
+                                                                 ResourceModel.builder().domainId("DomainId2").build());
+    }
+
+    @Test
+    public void handleRequest_FillingStopsAtTimeBudget() {
+        final AtomicLong now = new AtomicLong();
+        final ListHandler fillingHandler = new ListHandler(HandlerOptions.builder()
+                                                               .listTargetPageSize(10)
+                                                               .listTimeBudget(Duration.ofSeconds(20L))
+                                                               .build(),
+                                                           () -> now.getAndAdd(Duration.ofSeconds(15L).toMillis()));
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .nextToken("page1").build();
+
+        when(voiceIdAsyncClient.listDomains(any(ListDomainsRequest.class)))
+            .thenAnswer(invocation -> CompletableFuture.completedFuture(ListDomainsResponse.builder()
+                .domainSummaries(suspendedDomainSummary("DomainId3"))
+                .nextToken(invocation.getArgument(0, ListDomainsRequest.class).nextToken() + "+")
+                .build()));
+
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+            fillingHandler.handleRequest(proxy, request, null, proxyClient, asyncProxyClient, logger);
+
+        verify(voiceIdAsyncClient, times(3)).listDomains(any(ListDomainsRequest.class));
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getNextToken()).isEqualTo("page1++");
+        assertThat(response.getResourceModels()).isEmpty();
+    }
+
+    @Test
+    public void handleRequest_FillingStopsAtLastPage() {
+        final ListHandler fillingHandler = new ListHandler(HandlerOptions.builder().listTargetPageSize(10).build());
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .build();
+
+        when(voiceIdAsyncClient.listDomains(any(ListDomainsRequest.class)))
+            .thenReturn(CompletableFuture.completedFuture(ListDomainsResponse.builder()
+                                                              .domainSummaries(TestDataProvider.getDomainSummaries())
+                                                              .build()));
+
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+            fillingHandler.handleRequest(proxy, request, null, proxyClient, asyncProxyClient, logger);
+
+        verify(voiceIdAsyncClient).listDomains(any(ListDomainsRequest.class));
+        assertThat(response.getNextToken()).isNull();
+        assertThat(response.getResourceModels()).hasSize(2);
+    }
+
+    @Test
+    public void handleRequest_EnrichedList() {
+        final ListHandler enrichingHandler = new ListHandler(HandlerOptions.builder().enrichedList(true).build());
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .build();
+
+        when(voiceIdClient.listDomains(any(ListDomainsRequest.class)))
+            .thenReturn(ListDomainsResponse.builder().domainSummaries(TestDataProvider.getDomainSummaries()).build());
+
+        // The second domain was deleted between the list and the describe.
+        when(voiceIdAsyncClient.describeDomain(any(DescribeDomainRequest.class))).thenAnswer(invocation -> {
+            final CompletableFuture<DescribeDomainResponse> future = new CompletableFuture<>();
+            if (TestDataProvider.DOMAIN_ID.equals(invocation.getArgument(0, DescribeDomainRequest.class).domainId())) {
+                future.complete(TestDataProvider.describeDomainResponse());
+            } else {
+                future.completeExceptionally(ResourceNotFoundException.builder().build());
+            }
+            return future;
+        });
+
+        when(voiceIdAsyncClient.listTagsForResource(any(ListTagsForResourceRequest.class)))
+            .thenReturn(CompletableFuture.completedFuture(TestDataProvider.listTagsForResourceResponse()));
+
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+            enrichingHandler.handleRequest(proxy, request, new CallbackContext(), proxyClient, asyncProxyClient, logger);
+
+        verify(proxyClient.client()).listDomains(any(ListDomainsRequest.class));
+        verify(voiceIdAsyncClient, times(2)).describeDomain(any(DescribeDomainRequest.class));
+        verify(voiceIdAsyncClient).listTagsForResource(any(ListTagsForResourceRequest.class));
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModels()).containsExactly(TestDataProvider.getResourceModel());
+    }
+
+    @Test
+    public void handleRequest_EnrichedListFailure() {
+        final ListHandler enrichingHandler = new ListHandler(HandlerOptions.builder().enrichedList(true).build());
+        final ResourceHandlerRequest<ResourceModel> request = ResourceHandlerRequest.<ResourceModel>builder()
+            .build();
+
+        when(voiceIdClient.listDomains(any(ListDomainsRequest.class)))
+            .thenReturn(ListDomainsResponse.builder().domainSummaries(TestDataProvider.getDomainSummaries()).build());
+
+        final CompletableFuture<DescribeDomainResponse> throttled = new CompletableFuture<>();
+        throttled.completeExceptionally(ThrottlingException.builder().build());
+        when(voiceIdAsyncClient.describeDomain(any(DescribeDomainRequest.class))).thenReturn(throttled);
+
+        assertThrows(CfnThrottlingException.class,
+                     () -> enrichingHandler.handleRequest(proxy, request, new CallbackContext(), proxyClient,
+                                                          asyncProxyClient, logger));
         verify(proxyClient.client()).listDomains(any(ListDomainsRequest.class));
+        verify(voiceIdAsyncClient, atLeastOnce()).describeDomain(any(DescribeDomainRequest.class));
+    }
+
+    private static DomainSummary suspendedDomainSummary(final String domainId) {
+        return DomainSummary.builder()
+            .domainId(domainId)
+            .domainStatus(DomainStatus.SUSPENDED)
+            .build();
     }
 }
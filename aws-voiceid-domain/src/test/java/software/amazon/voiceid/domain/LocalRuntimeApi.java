@@ -0,0 +1,153 @@
+package software.amazon.voiceid.domain;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Local stand-in for the Lambda runtime API, for runs that drive a custom runtime such as NativeRuntime outside of
+ * Lambda. Each invoke queues an event for the runtime to take with its next request and waits for the response or
+ * error it posts back.
+ */
+class LocalRuntimeApi implements AutoCloseable {
+    private static final String PREFIX = "/2018-06-01/runtime";
+    private static final Duration INVOCATION_TIMEOUT = Duration.ofSeconds(60L);
+
+    private final BlockingQueue<Invocation> pending = new LinkedBlockingQueue<>();
+    private final Map<String, CompletableFuture<byte[]>> inFlight = new ConcurrentHashMap<>();
+    private final CompletableFuture<String> initError = new CompletableFuture<>();
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        final Thread thread = new Thread(runnable, "local-runtime-api");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final HttpServer server;
+
+    private LocalRuntimeApi(final HttpServer server) {
+        this.server = server;
+    }
+
+    static LocalRuntimeApi start() throws IOException {
+        final HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        final LocalRuntimeApi runtimeApi = new LocalRuntimeApi(server);
+        server.createContext(PREFIX, runtimeApi::handle);
+        server.setExecutor(runtimeApi.executor);
+        server.start();
+        return runtimeApi;
+    }
+
+    /**
+     * @return value of AWS_LAMBDA_RUNTIME_API for the runtime
+     */
+    String address() {
+        return String.format("localhost:%d", server.getAddress().getPort());
+    }
+
+    /**
+     * Hands the event to the runtime and waits for what the handler returned
+     */
+    byte[] invoke(final byte[] event) throws IOException {
+        final Invocation invocation = new Invocation(UUID.randomUUID().toString(), event);
+        inFlight.put(invocation.requestId, invocation.response);
+        pending.add(invocation);
+        try {
+            return invocation.response.get(INVOCATION_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (final ExecutionException e) {
+            throw new IOException(e.getCause().getMessage(), e.getCause());
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (final TimeoutException e) {
+            throw new IOException(initError.getNow("The runtime did not respond"), e);
+        } finally {
+            inFlight.remove(invocation.requestId);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        final String path = exchange.getRequestURI().getPath().substring(PREFIX.length());
+        if ("/invocation/next".equals(path)) {
+            final Invocation invocation;
+            try {
+                invocation = pending.take();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                exchange.close();
+                return;
+            }
+            exchange.getResponseHeaders().set("Lambda-Runtime-Aws-Request-Id", invocation.requestId);
+            final long deadlineMillis = System.currentTimeMillis() + INVOCATION_TIMEOUT.toMillis();
+            exchange.getResponseHeaders().set("Lambda-Runtime-Deadline-Ms", String.valueOf(deadlineMillis));
+            exchange.getResponseHeaders().set("Lambda-Runtime-Invoked-Function-Arn",
+                                              "arn:aws:lambda:us-east-1:123456789012:function:local");
+            respond(exchange, 200, invocation.event);
+            return;
+        }
+        final byte[] body = read(exchange.getRequestBody());
+        if ("/init/error".equals(path)) {
+            initError.complete(new String(body, StandardCharsets.UTF_8));
+        } else if (path.startsWith("/invocation/")) {
+            final String[] segments = path.split("/");
+            final CompletableFuture<byte[]> response = inFlight.get(segments[2]);
+            if (response != null && "response".equals(segments[3])) {
+                response.complete(body);
+            } else if (response != null) {
+                response.completeExceptionally(new IllegalStateException(new String(body, StandardCharsets.UTF_8)));
+            }
+        }
+        respond(exchange, 202, new byte[0]);
+    }
+
+    private static byte[] read(final InputStream input) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[8192];
+        for (int read = input.read(buffer); read >= 0; read = input.read(buffer)) {
+            bytes.write(buffer, 0, read);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void respond(final HttpExchange exchange, final int statusCode, final byte[] body)
+        throws IOException {
+        exchange.sendResponseHeaders(statusCode, body.length == 0 ? -1 : body.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(body);
+        }
+    }
+
+    private static final class Invocation {
+        private final String requestId;
+        private final byte[] event;
+        private final CompletableFuture<byte[]> response = new CompletableFuture<>();
+
+        private Invocation(final String requestId, final byte[] event) {
+            this.requestId = requestId;
+            this.event = event;
+        }
+    }
+}
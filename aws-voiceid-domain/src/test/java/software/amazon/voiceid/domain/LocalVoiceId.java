@@ -0,0 +1,187 @@
+package software.amazon.voiceid.domain;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Local stand-in for the VoiceID endpoint, for runs that take the packaged handlers through their actions without an
+ * AWS account. It speaks the JSON protocol of the operations the handlers call and keeps its domains in memory.
+ * Requests are not authenticated, and server side encryption updates complete immediately.
+ */
+class LocalVoiceId implements AutoCloseable {
+    private static final String ARN_PREFIX = "arn:aws:voiceid:us-east-1:123456789012:domain/";
+
+    static {
+        // The server writes headers and body separately, which Nagle's algorithm otherwise holds back until the
+        // client's delayed ACK, about 40 ms on every call. It is read once, when the first server is created.
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<String, ObjectNode> domains = new LinkedHashMap<>();
+    private final Map<String, Map<String, String>> tags = new LinkedHashMap<>();
+    private final HttpServer server;
+    private int createdDomains;
+
+    private LocalVoiceId(final HttpServer server) {
+        this.server = server;
+    }
+
+    /**
+     * Starts serving on the loopback interface
+     *
+     * @param port port to listen on, or 0 for any free port
+     */
+    static LocalVoiceId start(final int port) throws IOException {
+        final HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        final LocalVoiceId voiceId = new LocalVoiceId(server);
+        server.createContext("/", voiceId::handle);
+        server.start();
+        return voiceId;
+    }
+
+    URI endpoint() {
+        return URI.create(String.format("http://localhost:%d", server.getAddress().getPort()));
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private synchronized void handle(final HttpExchange exchange) throws IOException {
+        final String target = exchange.getRequestHeaders().getFirst("X-Amz-Target");
+        final JsonNode request = mapper.readTree(exchange.getRequestBody());
+        try {
+            respond(exchange, 200, serve(target.substring(target.indexOf('.') + 1), request));
+        } catch (final ServiceError e) {
+            respond(exchange, 400, mapper.createObjectNode().put("__type", e.type).put("message", e.getMessage()));
+        }
+    }
+
+    private ObjectNode serve(final String operation, final JsonNode request) {
+        final ObjectNode response = mapper.createObjectNode();
+        switch (operation) {
+            case "CreateDomain": {
+                final String domainId = String.format("LocalDomain%04d", ++createdDomains);
+                final ObjectNode domain = mapper.createObjectNode()
+                    .put("Arn", ARN_PREFIX + domainId)
+                    .put("CreatedAt", now())
+                    .put("DomainId", domainId)
+                    .put("DomainStatus", "ACTIVE");
+                applyUpdate(domain, request);
+                domains.put(domainId, domain);
+                tags.put(domainId, new TreeMap<>());
+                putTags(domainId, request.path("Tags"));
+                response.set("Domain", domain);
+                break;
+            }
+            case "DescribeDomain":
+                response.set("Domain", domain(request.path("DomainId").asText()));
+                break;
+            case "UpdateDomain": {
+                final ObjectNode domain = domain(request.path("DomainId").asText());
+                final String oldKmsKeyId = domain.path("ServerSideEncryptionConfiguration").path("KmsKeyId").asText();
+                applyUpdate(domain, request);
+                domain.putObject("ServerSideEncryptionUpdateDetails")
+                    .put("OldKmsKeyId", oldKmsKeyId)
+                    .put("UpdateStatus", "COMPLETED");
+                response.set("Domain", domain);
+                break;
+            }
+            case "DeleteDomain":
+                domain(request.path("DomainId").asText());
+                domains.remove(request.path("DomainId").asText());
+                break;
+            case "ListDomains": {
+                final ArrayNode summaries = response.putArray("DomainSummaries");
+                domains.values().forEach(summaries::add);
+                break;
+            }
+            case "ListTagsForResource": {
+                final ArrayNode tagList = response.putArray("Tags");
+                tags.get(domainIdOf(request)).forEach((key, value) -> tagList.addObject()
+                    .put("Key", key)
+                    .put("Value", value));
+                break;
+            }
+            case "TagResource":
+                putTags(domainIdOf(request), request.path("Tags"));
+                break;
+            case "UntagResource": {
+                final Map<String, String> domainTags = tags.get(domainIdOf(request));
+                request.path("TagKeys").forEach(key -> domainTags.remove(key.asText()));
+                break;
+            }
+            default:
+                throw new ServiceError("ValidationException", String.format("Unsupported operation %s", operation));
+        }
+        return response;
+    }
+
+    private ObjectNode domain(final String domainId) {
+        final ObjectNode domain = domains.get(domainId);
+        if (domain == null) {
+            throw new ServiceError("ResourceNotFoundException", String.format("Domain %s not found", domainId));
+        }
+        return domain;
+    }
+
+    private String domainIdOf(final JsonNode request) {
+        final String arn = request.path("ResourceArn").asText();
+        return domain(arn.substring(arn.lastIndexOf('/') + 1)).path("DomainId").asText();
+    }
+
+    private void applyUpdate(final ObjectNode domain, final JsonNode request) {
+        domain.put("Name", request.path("Name").asText());
+        if (request.has("Description")) {
+            domain.put("Description", request.path("Description").asText());
+        } else {
+            domain.remove("Description");
+        }
+        domain.set("ServerSideEncryptionConfiguration", request.path("ServerSideEncryptionConfiguration"));
+        domain.put("UpdatedAt", now());
+    }
+
+    private void putTags(final String domainId, final JsonNode tagList) {
+        tagList.forEach(tag -> tags.get(domainId).put(tag.path("Key").asText(), tag.path("Value").asText()));
+    }
+
+    private void respond(final HttpExchange exchange, final int statusCode, final JsonNode body) throws IOException {
+        final byte[] bytes = mapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/x-amz-json-1.0");
+        exchange.sendResponseHeaders(statusCode, bytes.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(bytes);
+        }
+    }
+
+    private static double now() {
+        return System.currentTimeMillis() / 1000.0;
+    }
+
+    private static final class ServiceError extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final String type;
+
+        private ServiceError(final String type, final String message) {
+            super(message);
+            this.type = type;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package software.amazon.voiceid.domain;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Check run by the native profile against the built native image. The image is started as a Lambda custom runtime
+ * against LocalRuntimeApi, with _HANDLER set to the test entrypoint, and HandlerWorkload takes a domain through every
+ * handler action on LocalVoiceId. The check fails if any action does not succeed.
+ */
+public final class NativeImageCheck {
+    private NativeImageCheck() {
+    }
+
+    /**
+     * @param args path of the native image
+     */
+    public static void main(final String[] args) throws IOException, InterruptedException {
+        final File image = new File(args[0]);
+        try (LocalVoiceId voiceId = LocalVoiceId.start(0);
+             LocalRuntimeApi runtimeApi = LocalRuntimeApi.start()) {
+            final ProcessBuilder processBuilder = new ProcessBuilder(image.getAbsolutePath()).inheritIO();
+            processBuilder.environment().put("AWS_LAMBDA_RUNTIME_API", runtimeApi.address());
+            processBuilder.environment().put("_HANDLER", "software.amazon.voiceid.domain.HandlerWrapper::testEntrypoint");
+            processBuilder.environment().put("AWS_REGION", "us-east-1");
+            processBuilder.environment().put(ClientBuilder.ENDPOINT_OVERRIDE_ENV, voiceId.endpoint().toString());
+            final Process runtime = processBuilder.start();
+            try {
+                new HandlerWorkload(runtimeApi::invoke).run();
+            } finally {
+                runtime.destroy();
+                runtime.waitFor(10L, TimeUnit.SECONDS);
+            }
+        }
+        System.out.printf("%s served %d actions%n", image.getName(), HandlerWorkload.ACTIONS.length);
+    }
+}
@@ -0,0 +1,218 @@
+package software.amazon.voiceid.domain;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.voiceid.VoiceIdAsyncClient;
+import software.amazon.awssdk.services.voiceid.VoiceIdClient;
+import software.amazon.awssdk.services.voiceid.model.DescribeDomainRequest;
+import software.amazon.awssdk.services.voiceid.model.DescribeDomainResponse;
+import software.amazon.awssdk.services.voiceid.model.ListDomainsRequest;
+import software.amazon.awssdk.services.voiceid.model.ListDomainsResponse;
+import software.amazon.awssdk.services.voiceid.model.ThrottlingException;
+import software.amazon.awssdk.services.voiceid.model.ValidationException;
+import software.amazon.cloudformation.exceptions.CfnInternalFailureException;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.ProxyClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class PacedProxyClientTest extends AbstractTestBase {
+    private final AtomicLong now = new AtomicLong(1_000L);
+    private final List<Duration> sleeps = new ArrayList<>();
+
+    @Test
+    public void spacesCallsByTheRateOfTheirApi() {
+        final ProxyClient<VoiceIdClient> proxyClient = pacedProxy(fixedRate(4.0), client());
+
+        for (int call = 0; call < 3; call++) {
+            listDomains(proxyClient);
+        }
+        describeDomain(proxyClient);
+        now.addAndGet(1_000L);
+        listDomains(proxyClient);
+
+        assertThat(sleeps).containsExactly(Duration.ofMillis(250L), Duration.ofMillis(250L));
+    }
+
+    @Test
+    public void throttledCallSlowsItsApiDown() {
+        final AdaptiveRateLimiter rateLimiter = fixedRate(4.0);
+        final VoiceIdClient voiceIdClient = client();
+        when(voiceIdClient.describeDomain(any(DescribeDomainRequest.class)))
+            .thenThrow(ThrottlingException.builder().build())
+            .thenThrow(ValidationException.builder().build());
+        final ProxyClient<VoiceIdClient> proxyClient = pacedProxy(rateLimiter, voiceIdClient);
+
+        assertThrows(ThrottlingException.class, () -> describeDomain(proxyClient));
+        assertThrows(ValidationException.class, () -> describeDomain(proxyClient));
+        listDomains(proxyClient);
+
+        assertThat(rateLimiter.metrics().get("DescribeDomain").getRate()).isEqualTo(2.0);
+        assertThat(rateLimiter.metrics().get("DescribeDomain").getThrottles()).isEqualTo(1L);
+        assertThat(rateLimiter.metrics().get("ListDomains").getRate()).isEqualTo(4.0);
+    }
+
+    @Test
+    public void asyncOutcomeAdaptsTheRate() {
+        final AdaptiveRateLimiter rateLimiter = fixedRate(4.0);
+        final VoiceIdAsyncClient voiceIdAsyncClient = mock(VoiceIdAsyncClient.class);
+        final CompletableFuture<DescribeDomainResponse> throttled = new CompletableFuture<>();
+        when(voiceIdAsyncClient.describeDomain(any(DescribeDomainRequest.class))).thenReturn(throttled);
+        final ProxyClient<VoiceIdAsyncClient> proxyClient = new PacedProxyClient<>(
+            MOCK_PROXY(proxy(), voiceIdAsyncClient), rateLimiter, "", sleeps::add);
+
+        final CompletableFuture<DescribeDomainResponse> future = proxyClient.injectCredentialsAndInvokeV2Async(
+            DescribeDomainRequest.builder().build(), proxyClient.client()::describeDomain);
+        throttled.completeExceptionally(ThrottlingException.builder().build());
+
+        assertThrows(RuntimeException.class, future::join);
+        assertThat(rateLimiter.metrics().get("DescribeDomain").getThrottles()).isEqualTo(1L);
+    }
+
+    @Test
+    public void asyncCallIsScheduledForItsTurn() {
+        final VoiceIdAsyncClient voiceIdAsyncClient = mock(VoiceIdAsyncClient.class);
+        when(voiceIdAsyncClient.describeDomain(any(DescribeDomainRequest.class)))
+            .thenReturn(CompletableFuture.completedFuture(DescribeDomainResponse.builder().build()));
+        final ProxyClient<VoiceIdAsyncClient> proxyClient = new PacedProxyClient<>(
+            MOCK_PROXY(proxy(), voiceIdAsyncClient), fixedRate(4.0), "", sleeps::add);
+
+        proxyClient.injectCredentialsAndInvokeV2Async(DescribeDomainRequest.builder().build(),
+                                                      proxyClient.client()::describeDomain).join();
+        final CompletableFuture<DescribeDomainResponse> paced = proxyClient.injectCredentialsAndInvokeV2Async(
+            DescribeDomainRequest.builder().build(), proxyClient.client()::describeDomain);
+
+        // The caller got the future back without waiting, and the call is only made once its turn comes.
+        assertThat(sleeps).isEmpty();
+        assertThat(paced.isDone()).isFalse();
+        paced.join();
+        verify(voiceIdAsyncClient, times(2)).describeDomain(any(DescribeDomainRequest.class));
+    }
+
+    @Test
+    public void turnPastTheDeadlineFailsTheCall() {
+        final AdaptiveRateLimiter rateLimiter = fixedRate(1.0);
+        final InvocationDeadline deadline = InvocationDeadline.fromNow(
+            InvocationDeadline.CHECKPOINT_RESERVE.plusMillis(1_500L), now::get);
+        final VoiceIdClient voiceIdClient = client();
+        final ProxyClient<VoiceIdClient> proxyClient = new PacedProxyClient<>(
+            MOCK_PROXY(proxy(), voiceIdClient), rateLimiter, "", deadline, sleeps::add);
+        final VoiceIdAsyncClient voiceIdAsyncClient = mock(VoiceIdAsyncClient.class);
+        final ProxyClient<VoiceIdAsyncClient> asyncProxyClient = new PacedProxyClient<>(
+            MOCK_PROXY(proxy(), voiceIdAsyncClient), rateLimiter, "", deadline, sleeps::add);
+        listDomains(proxyClient);
+
+        assertThrows(InvocationDeadlineException.class, () -> listDomains(proxyClient));
+        final CompletableFuture<ListDomainsResponse> future = asyncProxyClient.injectCredentialsAndInvokeV2Async(
+            ListDomainsRequest.builder().build(), asyncProxyClient.client()::listDomains);
+
+        assertThat(future).isCompletedExceptionally();
+        assertThrows(InvocationDeadlineException.class, () -> {
+            try {
+                future.join();
+            } catch (final CompletionException e) {
+                throw e.getCause();
+            }
+        });
+        assertThat(sleeps).isEmpty();
+        verify(voiceIdClient).listDomains(any(ListDomainsRequest.class));
+        verify(voiceIdAsyncClient, never()).listDomains(any(ListDomainsRequest.class));
+    }
+
+    @Test
+    public void interruptedWaitFailsTheCall() {
+        final ProxyClient<VoiceIdClient> proxyClient = new PacedProxyClient<>(
+            MOCK_PROXY(proxy(), client()), fixedRate(1.0), "", interval -> {
+                throw new InterruptedException();
+            });
+        listDomains(proxyClient);
+
+        assertThrows(CfnInternalFailureException.class, () -> listDomains(proxyClient));
+        assertThat(Thread.interrupted()).isTrue();
+    }
+
+    @Test
+    public void scopesKeepSeparateBudgets() {
+        final AdaptiveRateLimiter rateLimiter = fixedRate(4.0);
+        final VoiceIdClient throttledClient = client();
+        when(throttledClient.describeDomain(any(DescribeDomainRequest.class)))
+            .thenThrow(ThrottlingException.builder().build());
+        final ProxyClient<VoiceIdClient> throttledAccount =
+            pacedProxy(rateLimiter, "111111111111/us-east-1/", throttledClient);
+        final ProxyClient<VoiceIdClient> otherAccount = pacedProxy(rateLimiter, "222222222222/us-east-1/", client());
+
+        assertThrows(ThrottlingException.class, () -> describeDomain(throttledAccount));
+        describeDomain(otherAccount);
+        listDomains(throttledAccount);
+
+        // Neither the other account nor the first call of another API waited on the throttled bucket.
+        assertThat(sleeps).isEmpty();
+        assertThat(rateLimiter.metrics("111111111111/us-east-1/")).containsOnlyKeys(
+            "111111111111/us-east-1/DescribeDomain", "111111111111/us-east-1/ListDomains");
+        assertThat(rateLimiter.metrics().get("111111111111/us-east-1/DescribeDomain").getRate()).isEqualTo(2.0);
+        assertThat(rateLimiter.metrics().get("222222222222/us-east-1/DescribeDomain").getRate()).isEqualTo(4.0);
+    }
+
+    @Test
+    public void apiOf_StripsRequestSuffix() {
+        assertThat(PacedProxyClient.apiOf(DescribeDomainRequest.builder().build())).isEqualTo("DescribeDomain");
+    }
+
+    private AdaptiveRateLimiter fixedRate(final double callsPerSecond) {
+        return AdaptiveRateLimiter.of()
+            .initialRate(callsPerSecond)
+            .minRate(callsPerSecond / 10)
+            .maxRate(callsPerSecond)
+            .burst(1.0)
+            .increment(callsPerSecond / 10)
+            .currentTimeMillis(now::get)
+            .build();
+    }
+
+    private ProxyClient<VoiceIdClient> pacedProxy(final AdaptiveRateLimiter rateLimiter, final VoiceIdClient client) {
+        return pacedProxy(rateLimiter, "", client);
+    }
+
+    private ProxyClient<VoiceIdClient> pacedProxy(final AdaptiveRateLimiter rateLimiter,
+                                                  final String scope,
+                                                  final VoiceIdClient client) {
+        return new PacedProxyClient<>(MOCK_PROXY(proxy(), client), rateLimiter, scope, interval -> {
+            sleeps.add(interval);
+            now.addAndGet(interval.toMillis());
+        });
+    }
+
+    private static AmazonWebServicesClientProxy proxy() {
+        return new AmazonWebServicesClientProxy(logger, MOCK_CREDENTIALS, () -> Duration.ofSeconds(600).toMillis());
+    }
+
+    private static VoiceIdClient client() {
+        final VoiceIdClient voiceIdClient = mock(VoiceIdClient.class);
+        when(voiceIdClient.listDomains(any(ListDomainsRequest.class)))
+            .thenReturn(ListDomainsResponse.builder().build());
+        return voiceIdClient;
+    }
+
+    private static void listDomains(final ProxyClient<VoiceIdClient> proxyClient) {
+        proxyClient.injectCredentialsAndInvokeV2(ListDomainsRequest.builder().build(),
+                                                 proxyClient.client()::listDomains);
+    }
+
+    private static void describeDomain(final ProxyClient<VoiceIdClient> proxyClient) {
+        proxyClient.injectCredentialsAndInvokeV2(DescribeDomainRequest.builder().build(),
+                                                 proxyClient.client()::describeDomain);
+    }
+}
@@ -0,0 +1,26 @@
+package software.amazon.voiceid.domain;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+
+public class PrimingTest {
+    @Test
+    public void primesWithoutCallingTheService() {
+        assertDoesNotThrow(Priming::prime);
+    }
+
+    @Test
+    public void jitterStaysInRangeAcrossReseeds() {
+        for (int i = 0; i < 100; i++) {
+            Jitter.reseed();
+            assertThat(Jitter.nextDouble()).isGreaterThanOrEqualTo(0.0).isLessThan(1.0);
+        }
+    }
+
+    @Test
+    public void registeringWithoutCracIsHarmless() {
+        assertDoesNotThrow(Priming::register);
+    }
+}
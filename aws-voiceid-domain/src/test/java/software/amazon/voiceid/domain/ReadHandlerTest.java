@@ -4,10 +4,14 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.voiceid.VoiceIdAsyncClient;
 import software.amazon.awssdk.services.voiceid.VoiceIdClient;
 import software.amazon.awssdk.services.voiceid.model.DescribeDomainRequest;
+import software.amazon.awssdk.services.voiceid.model.DescribeDomainResponse;
+import software.amazon.awssdk.services.voiceid.model.DomainStatus;
 import software.amazon.awssdk.services.voiceid.model.ListTagsForResourceRequest;
 import software.amazon.awssdk.services.voiceid.model.ListTagsForResourceResponse;
 import software.amazon.awssdk.services.voiceid.model.ResourceNotFoundException;
@@ -26,6 +30,7 @@ import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 
 import java.time.Duration;
 import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -45,6 +50,10 @@ public class ReadHandlerTest extends AbstractTestBase {
 
     @Mock VoiceIdClient voiceIdClient;
 
+    @Mock private ProxyClient<VoiceIdAsyncClient> asyncProxyClient;
+
+    @Mock VoiceIdAsyncClient voiceIdAsyncClient;
+
     private ReadHandler handler = new ReadHandler();
 
     @BeforeEach
@@ -52,11 +61,14 @@ public class ReadHandlerTest extends AbstractTestBase {
         proxy = new AmazonWebServicesClientProxy(logger, MOCK_CREDENTIALS, () -> Duration.ofSeconds(600).toMillis());
         voiceIdClient = mock(VoiceIdClient.class);
         proxyClient = MOCK_PROXY(proxy, voiceIdClient);
+        voiceIdAsyncClient = mock(VoiceIdAsyncClient.class);
+        asyncProxyClient = MOCK_PROXY(proxy, voiceIdAsyncClient);
     }
 
     @AfterEach
     public void tear_down() {
         verifyNoMoreInteractions(voiceIdClient);
+        verifyNoMoreInteractions(voiceIdAsyncClient);
     }
 
     @Test
@@ -73,6 +85,7 @@ public class ReadHandlerTest extends AbstractTestBase {
                                                                                              request,
                                                                                              new CallbackContext(),
                                                                                              proxyClient,
+                                                                                             asyncProxyClient,
                                                                                              logger);
 
         verify(proxyClient.client()).describeDomain(any(DescribeDomainRequest.class));
@@ -100,6 +113,7 @@ public class ReadHandlerTest extends AbstractTestBase {
                                                                                              request,
                                                                                              new CallbackContext(),
                                                                                              proxyClient,
+                                                                                             asyncProxyClient,
                                                                                              logger);
 
         verify(proxyClient.client()).describeDomain(any(DescribeDomainRequest.class));
@@ -120,7 +134,7 @@ public class ReadHandlerTest extends AbstractTestBase {
             .thenThrow(ResourceNotFoundException.class);
 
         assertThrows(CfnNotFoundException.class,
-                     () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger));
+                     () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, asyncProxyClient, logger));
         verify(proxyClient.client()).describeDomain(any(DescribeDomainRequest.class));
     }
 
@@ -132,7 +146,7 @@ public class ReadHandlerTest extends AbstractTestBase {
             .thenReturn(TestDataProvider.describeDeletedDomainResponse());
 
         assertThrows(CfnNotFoundException.class,
-                     () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger));
+                     () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, asyncProxyClient, logger));
         verify(proxyClient.client()).describeDomain(any(DescribeDomainRequest.class));
     }
 
@@ -144,7 +158,7 @@ public class ReadHandlerTest extends AbstractTestBase {
             .thenThrow(ValidationException.class);
 
         assertThrows(CfnInvalidRequestException.class,
-                     () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger));
+                     () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, asyncProxyClient, logger));
         verify(proxyClient.client()).describeDomain(any(DescribeDomainRequest.class));
     }
 
@@ -156,7 +170,7 @@ public class ReadHandlerTest extends AbstractTestBase {
             .thenThrow(ThrottlingException.class);
 
         assertThrows(CfnThrottlingException.class,
-                     () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger));
+                     () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, asyncProxyClient, logger));
         verify(proxyClient.client()).describeDomain(any(DescribeDomainRequest.class));
     }
 
@@ -168,7 +182,158 @@ public class ReadHandlerTest extends AbstractTestBase {
             .thenThrow(VoiceIdException.class);
 
         assertThrows(CfnGeneralServiceException.class,
-                     () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger));
+                     () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, asyncProxyClient, logger));
         verify(proxyClient.client()).describeDomain(any(DescribeDomainRequest.class));
     }
+
+    @Test
+    public void handleRequest_ConcurrentSuccess() {
+        final ResourceHandlerRequest<ResourceModel> request = TestDataProvider.getAccountScopedRequest();
+
+        when(voiceIdAsyncClient.describeDomain(any(DescribeDomainRequest.class)))
+            .thenReturn(CompletableFuture.completedFuture(TestDataProvider.describeDomainResponse()));
+
+        when(voiceIdAsyncClient.listTagsForResource(any(ListTagsForResourceRequest.class)))
+            .thenReturn(CompletableFuture.completedFuture(TestDataProvider.listTagsForResourceResponse()));
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy,
+                                                                                             request,
+                                                                                             new CallbackContext(),
+                                                                                             proxyClient,
+                                                                                             asyncProxyClient,
+                                                                                             logger);
+
+        verify(asyncProxyClient.client()).describeDomain(any(DescribeDomainRequest.class));
+        final ArgumentCaptor<ListTagsForResourceRequest> listTagsCaptor =
+            ArgumentCaptor.forClass(ListTagsForResourceRequest.class);
+        verify(asyncProxyClient.client()).listTagsForResource(listTagsCaptor.capture());
+        assertThat(listTagsCaptor.getValue().resourceArn()).isEqualTo(TestDataProvider.DOMAIN_ARN);
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel()).isEqualTo(request.getDesiredResourceState());
+        assertThat(response.getErrorCode()).isNull();
+    }
+
+    @Test
+    public void handleRequest_ConcurrentArnMismatch() {
+        final ResourceHandlerRequest<ResourceModel> request = TestDataProvider.getAccountScopedRequest();
+        request.setAwsAccountId("210987654321");
+
+        when(voiceIdAsyncClient.describeDomain(any(DescribeDomainRequest.class)))
+            .thenReturn(CompletableFuture.completedFuture(TestDataProvider.describeDomainResponse()));
+
+        when(voiceIdAsyncClient.listTagsForResource(any(ListTagsForResourceRequest.class)))
+            .thenReturn(CompletableFuture.completedFuture(ListTagsForResourceResponse.builder().build()));
+
+        when(voiceIdClient.listTagsForResource(any(ListTagsForResourceRequest.class)))
+            .thenReturn(TestDataProvider.listTagsForResourceResponse());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy,
+                                                                                             request,
+                                                                                             new CallbackContext(),
+                                                                                             proxyClient,
+                                                                                             asyncProxyClient,
+                                                                                             logger);
+
+        verify(asyncProxyClient.client()).describeDomain(any(DescribeDomainRequest.class));
+        verify(asyncProxyClient.client()).listTagsForResource(any(ListTagsForResourceRequest.class));
+        final ArgumentCaptor<ListTagsForResourceRequest> listTagsCaptor =
+            ArgumentCaptor.forClass(ListTagsForResourceRequest.class);
+        verify(proxyClient.client()).listTagsForResource(listTagsCaptor.capture());
+        assertThat(listTagsCaptor.getValue().resourceArn()).isEqualTo(TestDataProvider.DOMAIN_ARN);
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel()).isEqualTo(request.getDesiredResourceState());
+    }
+
+    @Test
+    public void handleRequest_ConcurrentNotFound() {
+        final ResourceHandlerRequest<ResourceModel> request = TestDataProvider.getAccountScopedRequest();
+        final CompletableFuture<DescribeDomainResponse> notFound = new CompletableFuture<>();
+        notFound.completeExceptionally(ResourceNotFoundException.builder().build());
+
+        when(voiceIdAsyncClient.describeDomain(any(DescribeDomainRequest.class))).thenReturn(notFound);
+
+        when(voiceIdAsyncClient.listTagsForResource(any(ListTagsForResourceRequest.class)))
+            .thenReturn(new CompletableFuture<>());
+
+        assertThrows(CfnNotFoundException.class,
+                     () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, asyncProxyClient, logger));
+        verify(asyncProxyClient.client()).describeDomain(any(DescribeDomainRequest.class));
+        verify(asyncProxyClient.client()).listTagsForResource(any(ListTagsForResourceRequest.class));
+    }
+
+    @Test
+    public void handleRequest_CachedDescribe() {
+        final ResourceHandlerRequest<ResourceModel> request = TestDataProvider.getRequest();
+        final CallbackContext callbackContext = new CallbackContext();
+        callbackContext.cacheDescribeDomainResponse(TestDataProvider.describeDomainResponse());
+
+        when(voiceIdClient.listTagsForResource(any(ListTagsForResourceRequest.class)))
+            .thenReturn(TestDataProvider.listTagsForResourceResponse());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy,
+                                                                                             request,
+                                                                                             callbackContext,
+                                                                                             proxyClient,
+                                                                                             asyncProxyClient,
+                                                                                             logger);
+
+        verify(proxyClient.client()).listTagsForResource(any(ListTagsForResourceRequest.class));
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel()).isEqualTo(request.getDesiredResourceState());
+    }
+
+    @Test
+    public void handleRequest_CacheInvalidated() {
+        final ResourceHandlerRequest<ResourceModel> request = TestDataProvider.getRequest();
+        final CallbackContext callbackContext = new CallbackContext();
+        callbackContext.cacheDescribeDomainResponse(TestDataProvider.describeDomainResponse());
+        callbackContext.invalidateDescribeDomainResponse();
+
+        when(voiceIdClient.describeDomain(any(DescribeDomainRequest.class)))
+            .thenReturn(TestDataProvider.describeDomainResponse());
+
+        when(voiceIdClient.listTagsForResource(any(ListTagsForResourceRequest.class)))
+            .thenReturn(TestDataProvider.listTagsForResourceResponse());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy,
+                                                                                             request,
+                                                                                             callbackContext,
+                                                                                             proxyClient,
+                                                                                             asyncProxyClient,
+                                                                                             logger);
+
+        verify(proxyClient.client()).describeDomain(any(DescribeDomainRequest.class));
+        verify(proxyClient.client()).listTagsForResource(any(ListTagsForResourceRequest.class));
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+    }
+
+    @Test
+    public void handleRequest_CacheForOtherDomain() {
+        final ResourceHandlerRequest<ResourceModel> request = TestDataProvider.getRequest();
+        final CallbackContext callbackContext = new CallbackContext();
+        callbackContext.cacheDescribeDomainResponse(DescribeDomainResponse.builder()
+                                                        .domain(TestDataProvider.getDomain(DomainStatus.ACTIVE)
+                                                                    .toBuilder()
+                                                                    .domainId("OtherDomainId")
+                                                                    .build())
+                                                        .build());
+
+        when(voiceIdClient.describeDomain(any(DescribeDomainRequest.class)))
+            .thenReturn(TestDataProvider.describeDomainResponse());
+
+        when(voiceIdClient.listTagsForResource(any(ListTagsForResourceRequest.class)))
+            .thenReturn(TestDataProvider.listTagsForResourceResponse());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy,
+                                                                                             request,
+                                                                                             callbackContext,
+                                                                                             proxyClient,
+                                                                                             asyncProxyClient,
+                                                                                             logger);
+
+        verify(proxyClient.client()).describeDomain(any(DescribeDomainRequest.class));
+        verify(proxyClient.client()).listTagsForResource(any(ListTagsForResourceRequest.class));
+        assertThat(response.getResourceModel()).isEqualTo(request.getDesiredResourceState());
+    }
 }
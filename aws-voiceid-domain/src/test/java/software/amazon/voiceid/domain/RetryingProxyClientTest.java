@@ -0,0 +1,275 @@
+package software.amazon.voiceid.domain;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.core.exception.AbortedException;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.voiceid.VoiceIdAsyncClient;
+import software.amazon.awssdk.services.voiceid.VoiceIdClient;
+import software.amazon.awssdk.services.voiceid.model.ConflictException;
+import software.amazon.awssdk.services.voiceid.model.DescribeDomainRequest;
+import software.amazon.awssdk.services.voiceid.model.DescribeDomainResponse;
+import software.amazon.awssdk.services.voiceid.model.InternalServerException;
+import software.amazon.awssdk.services.voiceid.model.ThrottlingException;
+import software.amazon.awssdk.services.voiceid.model.ValidationException;
+import software.amazon.cloudformation.exceptions.CfnThrottlingException;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.HandlerErrorCode;
+import software.amazon.cloudformation.proxy.ProxyClient;
+import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
+
+import java.net.SocketException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RetryingProxyClientTest extends AbstractTestBase {
+    private static final DescribeDomainResponse RESPONSE = DescribeDomainResponse.builder().build();
+
+    private final List<Duration> sleeps = new ArrayList<>();
+
+    @Test
+    public void retriesRetryableErrorsWithGrowingBackoff() {
+        final VoiceIdClient voiceIdClient = mock(VoiceIdClient.class);
+        when(voiceIdClient.describeDomain(any(DescribeDomainRequest.class)))
+            .thenThrow(ThrottlingException.builder().build())
+            .thenThrow(InternalServerException.builder().build())
+            .thenReturn(RESPONSE);
+        final ProxyClient<VoiceIdClient> proxyClient = retryingProxy(voiceIdClient, budget(5, Duration.ofSeconds(10L)));
+
+        assertThat(describeDomain(proxyClient)).isEqualTo(RESPONSE);
+        assertThat(sleeps).containsExactly(Duration.ofMillis(100L), Duration.ofMillis(200L));
+    }
+
+    @Test
+    public void resetConnectionIsRetried() {
+        final VoiceIdClient voiceIdClient = mock(VoiceIdClient.class);
+        when(voiceIdClient.describeDomain(any(DescribeDomainRequest.class)))
+            .thenThrow(connectionReset())
+            .thenReturn(RESPONSE);
+        final ProxyClient<VoiceIdClient> proxyClient = retryingProxy(voiceIdClient, budget(5, Duration.ofSeconds(10L)));
+
+        assertThat(describeDomain(proxyClient)).isEqualTo(RESPONSE);
+        assertThat(sleeps).containsExactly(Duration.ofMillis(100L));
+        verify(voiceIdClient, times(2)).describeDomain(any(DescribeDomainRequest.class));
+    }
+
+    @Test
+    public void clientFailuresAreClassifiedLikeTheSdkDefault() {
+        final VoiceIdClient voiceIdClient = mock(VoiceIdClient.class);
+        when(voiceIdClient.describeDomain(any(DescribeDomainRequest.class)))
+            .thenThrow(AbortedException.builder().build())
+            .thenThrow(connectionReset());
+        final ProxyClient<VoiceIdClient> proxyClient = retryingProxy(voiceIdClient, budget(0, Duration.ofSeconds(10L)));
+
+        assertThrows(AbortedException.class, () -> describeDomain(proxyClient));
+        final RetryBudgetExhaustedException e =
+            assertThrows(RetryBudgetExhaustedException.class, () -> describeDomain(proxyClient));
+
+        assertThat(e.getErrorCode()).isEqualTo(HandlerErrorCode.NetworkFailure);
+        assertThat(e.getCause()).isInstanceOf(SdkClientException.class);
+        assertThat(Translator.isRetryable(SdkClientException.builder().message("no cause").build())).isFalse();
+    }
+
+    @Test
+    public void asyncResetConnectionIsRetried() {
+        final VoiceIdAsyncClient voiceIdAsyncClient = mock(VoiceIdAsyncClient.class);
+        when(voiceIdAsyncClient.describeDomain(any(DescribeDomainRequest.class)))
+            .thenReturn(failed(connectionReset()))
+            .thenReturn(CompletableFuture.completedFuture(RESPONSE));
+        final ProxyClient<VoiceIdAsyncClient> proxyClient = new RetryingProxyClient<>(
+            MOCK_PROXY(proxy(), voiceIdAsyncClient), budget(5, Duration.ofSeconds(10L)));
+
+        assertThat(describeDomainAsync(proxyClient).join()).isEqualTo(RESPONSE);
+        verify(voiceIdAsyncClient, times(2)).describeDomain(any(DescribeDomainRequest.class));
+    }
+
+    @Test
+    public void terminalErrorIsNotRetried() {
+        final VoiceIdClient voiceIdClient = mock(VoiceIdClient.class);
+        when(voiceIdClient.describeDomain(any(DescribeDomainRequest.class)))
+            .thenThrow(ValidationException.builder().build());
+        final ProxyClient<VoiceIdClient> proxyClient = retryingProxy(voiceIdClient, budget(5, Duration.ofSeconds(10L)));
+
+        assertThrows(ValidationException.class, () -> describeDomain(proxyClient));
+        verify(voiceIdClient).describeDomain(any(DescribeDomainRequest.class));
+        assertThat(sleeps).isEmpty();
+    }
+
+    @Test
+    public void spentBudgetReportsTheLastFailure() {
+        final VoiceIdClient voiceIdClient = mock(VoiceIdClient.class);
+        when(voiceIdClient.describeDomain(any(DescribeDomainRequest.class)))
+            .thenThrow(ThrottlingException.builder().build());
+        final ProxyClient<VoiceIdClient> proxyClient = retryingProxy(voiceIdClient, budget(2, Duration.ofSeconds(10L)));
+
+        final RetryBudgetExhaustedException e =
+            assertThrows(RetryBudgetExhaustedException.class, () -> describeDomain(proxyClient));
+
+        assertThat(e.getErrorCode()).isEqualTo(HandlerErrorCode.Throttling);
+        assertThat(e.getCause()).isInstanceOf(ThrottlingException.class);
+        verify(voiceIdClient, times(3)).describeDomain(any(DescribeDomainRequest.class));
+    }
+
+    @Test
+    public void asyncCallIsRetriedUntilItSucceeds() {
+        final VoiceIdAsyncClient voiceIdAsyncClient = mock(VoiceIdAsyncClient.class);
+        when(voiceIdAsyncClient.describeDomain(any(DescribeDomainRequest.class)))
+            .thenReturn(failed(ThrottlingException.builder().build()))
+            .thenReturn(CompletableFuture.completedFuture(RESPONSE));
+        final ProxyClient<VoiceIdAsyncClient> proxyClient = new RetryingProxyClient<>(
+            MOCK_PROXY(proxy(), voiceIdAsyncClient), budget(5, Duration.ofSeconds(10L)));
+
+        assertThat(describeDomainAsync(proxyClient).join()).isEqualTo(RESPONSE);
+    }
+
+    @Test
+    public void asyncCallFailsOnceTheBudgetIsSpent() {
+        final VoiceIdAsyncClient voiceIdAsyncClient = mock(VoiceIdAsyncClient.class);
+        when(voiceIdAsyncClient.describeDomain(any(DescribeDomainRequest.class)))
+            .thenReturn(failed(InternalServerException.builder().build()))
+            .thenReturn(failed(ValidationException.builder().build()));
+        final ProxyClient<VoiceIdAsyncClient> proxyClient = new RetryingProxyClient<>(
+            MOCK_PROXY(proxy(), voiceIdAsyncClient), budget(5, Duration.ofSeconds(10L)));
+        final ProxyClient<VoiceIdAsyncClient> exhaustedProxyClient = new RetryingProxyClient<>(
+            MOCK_PROXY(proxy(), voiceIdAsyncClient), budget(0, Duration.ofSeconds(10L)));
+
+        final CompletionException terminal =
+            assertThrows(CompletionException.class, () -> describeDomainAsync(proxyClient).join());
+        when(voiceIdAsyncClient.describeDomain(any(DescribeDomainRequest.class)))
+            .thenReturn(failed(ThrottlingException.builder().build()));
+        final CompletionException exhausted =
+            assertThrows(CompletionException.class, () -> describeDomainAsync(exhaustedProxyClient).join());
+
+        assertThat(terminal.getCause()).isInstanceOf(ValidationException.class);
+        assertThat(exhausted.getCause()).isInstanceOf(RetryBudgetExhaustedException.class);
+        assertThrows(CfnThrottlingException.class,
+                     () -> BaseHandlerStd.joinServiceCall(failed(ThrottlingException.builder().build())));
+    }
+
+    @Test
+    public void cancellingAsyncCallCancelsTheAttemptInFlight() {
+        final CompletableFuture<DescribeDomainResponse> attempt = new CompletableFuture<>();
+        @SuppressWarnings("unchecked")
+        final ProxyClient<VoiceIdAsyncClient> delegate = mock(ProxyClient.class);
+        when(delegate.client()).thenReturn(mock(VoiceIdAsyncClient.class));
+        doReturn(attempt).when(delegate).injectCredentialsAndInvokeV2Async(any(DescribeDomainRequest.class), any());
+        final ProxyClient<VoiceIdAsyncClient> proxyClient =
+            new RetryingProxyClient<>(delegate, budget(5, Duration.ofSeconds(10L)));
+
+        describeDomainAsync(proxyClient).cancel(true);
+
+        assertThat(attempt.isCancelled()).isTrue();
+    }
+
+    @Test
+    public void asyncFailureOutsideTheServiceIsNotRetried() {
+        final VoiceIdAsyncClient voiceIdAsyncClient = mock(VoiceIdAsyncClient.class);
+        when(voiceIdAsyncClient.describeDomain(any(DescribeDomainRequest.class)))
+            .thenReturn(failed(new IllegalStateException("connection reset")))
+            .thenThrow(new IllegalArgumentException("invalid request"));
+        final ProxyClient<VoiceIdAsyncClient> proxyClient = new RetryingProxyClient<>(
+            MOCK_PROXY(proxy(), voiceIdAsyncClient), budget(5, Duration.ofSeconds(10L)));
+
+        final CompletionException failed =
+            assertThrows(CompletionException.class, () -> describeDomainAsync(proxyClient).join());
+        final CompletionException thrown =
+            assertThrows(CompletionException.class, () -> describeDomainAsync(proxyClient).join());
+
+        assertThat(failed.getCause()).isInstanceOf(IllegalStateException.class);
+        assertThat(thrown.getCause()).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void writeHandlersResumeOnlyWhenACallbackIsSafe() {
+        final ResourceHandlerRequest<ResourceModel> request = TestDataProvider.getRequest();
+
+        request.getDesiredResourceState().setDomainId(null);
+        assertThat(new CreateHandler().resumesFromCallback(request)).isTrue();
+        // The create call carries a client token, so it is safe to repeat once the domain exists.
+        request.getDesiredResourceState().setDomainId(TestDataProvider.DOMAIN_ID);
+        assertThat(new CreateHandler().resumesFromCallback(request)).isTrue();
+        assertThat(new ReadHandler().resumesFromCallback(request)).isFalse();
+        assertThat(new DeleteHandler().resumesFromCallback(request)).isTrue();
+    }
+
+    @Test
+    public void budgetBoundsTheTotalBackoff() {
+        final RetryBudget retryBudget = budget(10, Duration.ofMillis(250L));
+
+        assertThat(retryBudget.reserveRetry(0)).contains(Duration.ofMillis(100L));
+        assertThat(retryBudget.reserveRetry(1)).isEqualTo(Optional.empty());
+        assertThat(retryBudget.retries()).isEqualTo(2);
+    }
+
+    @Test
+    public void isRetryable_ClassifiesServiceErrors() {
+        assertThat(Translator.isRetryable(ThrottlingException.builder().build())).isTrue();
+        assertThat(Translator.isRetryable(InternalServerException.builder().build())).isTrue();
+        assertThat(Translator.isRetryable(ValidationException.builder().build())).isFalse();
+        assertThat(Translator.isRetryable(ConflictException.builder().build())).isFalse();
+        assertThat(Translator.isRetryable(AwsServiceException.builder().statusCode(503).build())).isTrue();
+        assertThat(Translator.isRetryable(AwsServiceException.builder().statusCode(400).build())).isFalse();
+        assertThat(Translator.isRetryable(AwsServiceException.builder()
+                                              .statusCode(400)
+                                              .awsErrorDetails(AwsErrorDetails.builder()
+                                                                   .errorCode("ThrottlingException")
+                                                                   .build())
+                                              .build())).isTrue();
+    }
+
+    private RetryBudget budget(final int maxRetries, final Duration maxBackoff) {
+        return RetryBudget.of()
+            .maxRetries(maxRetries)
+            .maxBackoff(maxBackoff)
+            .baseDelay(Duration.ofMillis(100L))
+            .maxDelay(Duration.ofSeconds(1L))
+            .random(() -> 1.0)
+            .build();
+    }
+
+    private ProxyClient<VoiceIdClient> retryingProxy(final VoiceIdClient client, final RetryBudget retryBudget) {
+        return new RetryingProxyClient<>(MOCK_PROXY(proxy(), client), retryBudget, sleeps::add);
+    }
+
+    private static AmazonWebServicesClientProxy proxy() {
+        return new AmazonWebServicesClientProxy(logger, MOCK_CREDENTIALS, () -> Duration.ofSeconds(600).toMillis());
+    }
+
+    private static SdkClientException connectionReset() {
+        return SdkClientException.builder()
+            .message("Unable to execute HTTP request: Connection reset")
+            .cause(new SocketException("Connection reset"))
+            .build();
+    }
+
+    private static <ResponseT> CompletableFuture<ResponseT> failed(final Throwable e) {
+        final CompletableFuture<ResponseT> future = new CompletableFuture<>();
+        future.completeExceptionally(e);
+        return future;
+    }
+
+    private static DescribeDomainResponse describeDomain(final ProxyClient<VoiceIdClient> proxyClient) {
+        return proxyClient.injectCredentialsAndInvokeV2(DescribeDomainRequest.builder().build(),
+                                                        proxyClient.client()::describeDomain);
+    }
+
+    private static CompletableFuture<DescribeDomainResponse> describeDomainAsync(
+        final ProxyClient<VoiceIdAsyncClient> proxyClient) {
+        return proxyClient.injectCredentialsAndInvokeV2Async(DescribeDomainRequest.builder().build(),
+                                                             proxyClient.client()::describeDomain);
+    }
+}
@@ -0,0 +1,79 @@
+package software.amazon.voiceid.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ShortPollScheduleTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private final List<Duration> sleeps = new ArrayList<>();
+
+    private ShortPollSchedule schedule(final Duration budget, final double random) {
+        return ShortPollSchedule.of()
+            .budget(budget)
+            .minInterval(Duration.ofSeconds(2L))
+            .maxInterval(Duration.ofSeconds(4L))
+            .currentTimeMillis(now::get)
+            .random(() -> random)
+            .sleeper(interval -> {
+                sleeps.add(interval);
+                now.addAndGet(interval.toMillis());
+            })
+            .build();
+    }
+
+    @Test
+    public void awaitNextPoll_SleepsJitteredIntervalsUntilBudgetIsUsed() {
+        final ShortPollSchedule schedule = schedule(Duration.ofSeconds(10L), 0.5);
+        final long deadline = schedule.deadlineFromNow();
+
+        assertThat(schedule.awaitNextPoll(deadline)).isTrue();
+        assertThat(schedule.awaitNextPoll(deadline)).isTrue();
+        assertThat(schedule.awaitNextPoll(deadline)).isTrue();
+        assertThat(schedule.awaitNextPoll(deadline)).isFalse();
+
+        assertThat(sleeps).containsExactly(Duration.ofSeconds(3L), Duration.ofSeconds(3L), Duration.ofSeconds(3L));
+    }
+
+    @Test
+    public void awaitNextPoll_ZeroBudgetNeverSleeps() {
+        final ShortPollSchedule schedule = schedule(Duration.ZERO, 0.0);
+
+        assertThat(schedule.awaitNextPoll(schedule.deadlineFromNow())).isFalse();
+        assertThat(sleeps).isEmpty();
+    }
+
+    @Test
+    public void awaitNextPoll_GivesUpWhenInterrupted() {
+        final ShortPollSchedule schedule = ShortPollSchedule.of()
+            .budget(Duration.ofMinutes(1L))
+            .minInterval(Duration.ofSeconds(2L))
+            .maxInterval(Duration.ofSeconds(4L))
+            .sleeper(interval -> {
+                throw new InterruptedException();
+            })
+            .build();
+
+        try {
+            assertThat(schedule.awaitNextPoll(schedule.deadlineFromNow())).isFalse();
+            assertThat(Thread.currentThread().isInterrupted()).isTrue();
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    public void parseSeconds_FallsBackToZero() {
+        assertThat(HandlerOptions.parseSeconds("45")).isEqualTo(Duration.ofSeconds(45L));
+        assertThat(HandlerOptions.parseSeconds(null)).isEqualTo(Duration.ZERO);
+        assertThat(HandlerOptions.parseSeconds("-5")).isEqualTo(Duration.ZERO);
+        assertThat(HandlerOptions.parseSeconds("soon")).isEqualTo(Duration.ZERO);
+    }
+}
@@ -0,0 +1,151 @@
+package software.amazon.voiceid.domain;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import software.amazon.awssdk.services.voiceid.VoiceIdAsyncClient;
+import software.amazon.awssdk.services.voiceid.model.TagResourceRequest;
+import software.amazon.awssdk.services.voiceid.model.TagResourceResponse;
+import software.amazon.awssdk.services.voiceid.model.ThrottlingException;
+import software.amazon.awssdk.services.voiceid.model.UntagResourceRequest;
+import software.amazon.awssdk.services.voiceid.model.UntagResourceResponse;
+import software.amazon.cloudformation.exceptions.CfnThrottlingException;
+import software.amazon.cloudformation.proxy.AmazonWebServicesClientProxy;
+import software.amazon.cloudformation.proxy.ProxyClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TagHelperTest extends AbstractTestBase {
+
+    private VoiceIdAsyncClient voiceIdAsyncClient;
+
+    private ProxyClient<VoiceIdAsyncClient> asyncProxyClient;
+
+    private CallbackContext callbackContext;
+
+    @BeforeEach
+    public void setup() {
+        final AmazonWebServicesClientProxy proxy =
+            new AmazonWebServicesClientProxy(logger, MOCK_CREDENTIALS, () -> Duration.ofSeconds(600).toMillis());
+        voiceIdAsyncClient = mock(VoiceIdAsyncClient.class);
+        asyncProxyClient = MOCK_PROXY(proxy, voiceIdAsyncClient);
+        callbackContext = new CallbackContext();
+    }
+
+    @Test
+    public void addTagsInChunks_SplitsLargeTagSets() {
+        when(voiceIdAsyncClient.tagResource(any(TagResourceRequest.class)))
+            .thenReturn(CompletableFuture.completedFuture(TagResourceResponse.builder().build()));
+
+        BaseHandlerStd.joinServiceCall(
+            TagHelper.addTagsInChunks(asyncProxyClient, callbackContext, tags(120), TestDataProvider.DOMAIN_ARN));
+
+        final ArgumentCaptor<TagResourceRequest> captor = ArgumentCaptor.forClass(TagResourceRequest.class);
+        verify(voiceIdAsyncClient, times(3)).tagResource(captor.capture());
+        assertThat(captor.getAllValues().stream().mapToInt(request -> request.tags().size()))
+            .containsExactly(TagHelper.MAX_TAGS_PER_CALL, TagHelper.MAX_TAGS_PER_CALL, 20);
+        assertThat(captor.getAllValues()).allMatch(request -> TestDataProvider.DOMAIN_ARN.equals(request.resourceArn()));
+        assertThat(callbackContext.getCompletedTagKeys()).isEqualTo(tags(120).keySet());
+    }
+
+    @Test
+    public void addTagsInChunks_ResumesAfterCompletedChunks() {
+        callbackContext.markTagKeysCompleted(new ArrayList<>(tags(120).keySet()).subList(0, 100));
+        when(voiceIdAsyncClient.tagResource(any(TagResourceRequest.class)))
+            .thenReturn(CompletableFuture.completedFuture(TagResourceResponse.builder().build()));
+
+        BaseHandlerStd.joinServiceCall(
+            TagHelper.addTagsInChunks(asyncProxyClient, callbackContext, tags(120), TestDataProvider.DOMAIN_ARN));
+
+        final ArgumentCaptor<TagResourceRequest> captor = ArgumentCaptor.forClass(TagResourceRequest.class);
+        verify(voiceIdAsyncClient).tagResource(captor.capture());
+        assertThat(captor.getValue().tags()).hasSize(20);
+    }
+
+    @Test
+    public void removeTagsInChunks_BoundsCallsInFlight() throws Exception {
+        final BlockingQueue<CompletableFuture<UntagResourceResponse>> calls = new LinkedBlockingQueue<>();
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        when(voiceIdAsyncClient.untagResource(any(UntagResourceRequest.class))).thenAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            final CompletableFuture<UntagResourceResponse> future = new CompletableFuture<>();
+            calls.add(future);
+            return future;
+        });
+        final Set<String> tagKeys = new TreeSet<>(tags(10 * TagHelper.MAX_TAGS_PER_CALL).keySet());
+
+        final CompletableFuture<Void> result =
+            TagHelper.removeTagsInChunks(asyncProxyClient, callbackContext, tagKeys, TestDataProvider.DOMAIN_ARN);
+
+        for (int call = 0; call < 10; call++) {
+            final CompletableFuture<UntagResourceResponse> future = calls.poll(5L, TimeUnit.SECONDS);
+            inFlight.decrementAndGet();
+            future.complete(UntagResourceResponse.builder().build());
+        }
+        result.get(5L, TimeUnit.SECONDS);
+
+        verify(voiceIdAsyncClient, times(10)).untagResource(any(UntagResourceRequest.class));
+        assertThat(maxInFlight.get()).isEqualTo(TagHelper.MAX_CONCURRENT_TAG_CALLS);
+        assertThat(callbackContext.getCompletedTagKeys()).isEqualTo(tagKeys);
+    }
+
+    @Test
+    public void addTagsInChunks_StopsAfterFailedChunk() throws Exception {
+        final BlockingQueue<CompletableFuture<TagResourceResponse>> calls = new LinkedBlockingQueue<>();
+        when(voiceIdAsyncClient.tagResource(any(TagResourceRequest.class))).thenAnswer(invocation -> {
+            final CompletableFuture<TagResourceResponse> future = new CompletableFuture<>();
+            calls.add(future);
+            return future;
+        });
+
+        final CompletableFuture<Void> result = TagHelper.addTagsInChunks(asyncProxyClient, callbackContext,
+                                                                         tags(10 * TagHelper.MAX_TAGS_PER_CALL),
+                                                                         TestDataProvider.DOMAIN_ARN);
+
+        calls.poll(5L, TimeUnit.SECONDS).completeExceptionally(ThrottlingException.builder().build());
+        // The lanes still running finish their calls, and stop taking chunks once they see the failure.
+        int succeeded = 0;
+        while (!result.isDone()) {
+            final CompletableFuture<TagResourceResponse> future = calls.poll(100L, TimeUnit.MILLISECONDS);
+            if (future != null) {
+                future.complete(TagResourceResponse.builder().build());
+                succeeded++;
+            }
+        }
+
+        assertThrows(CfnThrottlingException.class, () -> BaseHandlerStd.joinServiceCall(result));
+        assertThat(succeeded).isLessThan(9);
+        assertThat(callbackContext.getCompletedTagKeys()).hasSize(succeeded * TagHelper.MAX_TAGS_PER_CALL)
+            .doesNotContain("Key000");
+    }
+
+    private static Map<String, String> tags(final int count) {
+        return IntStream.range(0, count)
+            .boxed()
+            .collect(Collectors.toMap(index -> String.format("Key%03d", index),
+                                      index -> "Value" + index,
+                                      (first, second) -> first,
+                                      TreeMap::new));
+    }
+}
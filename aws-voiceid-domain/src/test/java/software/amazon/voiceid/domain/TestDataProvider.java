@@ -24,6 +24,10 @@ public class TestDataProvider {
     protected static final String DOMAIN_ID = "DomainId";
     protected static final String KMS_KEY_ID = "KmsKeyId";
     protected static final String NAME = "Name";
+    protected static final String PARTITION = "aws";
+    protected static final String REGION = "us-east-1";
+    protected static final String ACCOUNT_ID = "123456789012";
+    protected static final String DOMAIN_ARN = "arn:aws:voiceid:us-east-1:123456789012:domain/DomainId";
     protected static final ServerSideEncryptionConfiguration
         SERVER_SIDE_ENCRYPTION_CONFIGURATION =
         ServerSideEncryptionConfiguration.builder().kmsKeyId(KMS_KEY_ID).build();
@@ -32,6 +36,7 @@ public class TestDataProvider {
 
     protected static Domain getDomain(final DomainStatus domainStatus) {
         return Domain.builder()
+            .arn(DOMAIN_ARN)
             .description(DESCRIPTION)
             .domainId(DOMAIN_ID)
             .domainStatus(domainStatus)
@@ -71,6 +76,15 @@ public class TestDataProvider {
             .build();
     }
 
+    protected static ResourceHandlerRequest<ResourceModel> getAccountScopedRequest() {
+        return ResourceHandlerRequest.<ResourceModel>builder()
+            .awsPartition(PARTITION)
+            .region(REGION)
+            .awsAccountId(ACCOUNT_ID)
+            .desiredResourceState(getResourceModel())
+            .build();
+    }
+
     protected static DescribeDomainResponse describeDomainResponse() {
         return DescribeDomainResponse.builder()
             .domain(getDomain(DomainStatus.ACTIVE))
@@ -119,7 +133,7 @@ public class TestDataProvider {
 
     protected static UpdateDomainResponse updateDomainResponse() {
         return UpdateDomainResponse.builder()
-            .domain(Domain.builder().build())
+            .domain(getDomain(DomainStatus.ACTIVE))
             .build();
     }
 
@@ -159,6 +173,10 @@ public class TestDataProvider {
                 .build();
     }
 
+    protected static Map<String, String> getModelTags() {
+        return TAGS.stream().collect(Collectors.toMap(Tag::getKey, Tag::getValue));
+    }
+
     protected static Map<String, String> getTags() {
         return new HashMap<String, String>() {{
             put("key-1", "value-1");
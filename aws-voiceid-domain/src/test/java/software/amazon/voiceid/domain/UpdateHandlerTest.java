@@ -7,6 +7,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.services.voiceid.VoiceIdAsyncClient;
 import software.amazon.awssdk.services.voiceid.VoiceIdClient;
 import software.amazon.awssdk.services.voiceid.model.AccessDeniedException;
 import software.amazon.awssdk.services.voiceid.model.ConflictException;
@@ -15,6 +16,7 @@ import software.amazon.awssdk.services.voiceid.model.ListTagsForResourceRequest;
 import software.amazon.awssdk.services.voiceid.model.ServerSideEncryptionConfiguration;
 import software.amazon.awssdk.services.voiceid.model.TagResourceRequest;
 import software.amazon.awssdk.services.voiceid.model.TagResourceResponse;
+import software.amazon.awssdk.services.voiceid.model.ThrottlingException;
 import software.amazon.awssdk.services.voiceid.model.UntagResourceRequest;
 import software.amazon.awssdk.services.voiceid.model.UntagResourceResponse;
 import software.amazon.awssdk.services.voiceid.model.UpdateDomainRequest;
@@ -34,7 +36,13 @@ import software.amazon.cloudformation.proxy.ResourceHandlerRequest;
 import software.amazon.cloudformation.proxy.delay.Constant;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -60,6 +68,12 @@ public class UpdateHandlerTest extends AbstractTestBase {
     @Mock
     VoiceIdClient voiceIdClient;
 
+    @Mock
+    private ProxyClient<VoiceIdAsyncClient> asyncProxyClient;
+
+    @Mock
+    VoiceIdAsyncClient voiceIdAsyncClient;
+
     private Constant stabilizationDelay = Constant.of()
         .timeout(Duration.ofSeconds(10L))
         .delay(Duration.ofSeconds(5L))
@@ -69,22 +83,30 @@ public class UpdateHandlerTest extends AbstractTestBase {
 
     final UpdateHandler handler = new UpdateHandler();
 
+    final UpdateHandler concurrentHandler =
+        new UpdateHandler(stabilizationDelay, HandlerOptions.builder().concurrentUpdatePhases(true).build());
+
     @BeforeEach
     public void setup() {
         proxy = new AmazonWebServicesClientProxy(logger, MOCK_CREDENTIALS, () -> Duration.ofSeconds(600).toMillis());
         voiceIdClient = mock(VoiceIdClient.class);
         proxyClient = MOCK_PROXY(proxy, voiceIdClient);
+        voiceIdAsyncClient = mock(VoiceIdAsyncClient.class);
+        asyncProxyClient = MOCK_PROXY(proxy, voiceIdAsyncClient);
     }
 
     @AfterEach
     public void tear_down() {
         verify(voiceIdClient, atLeastOnce()).serviceName();
         verifyNoMoreInteractions(voiceIdClient);
+        verifyNoMoreInteractions(voiceIdAsyncClient);
     }
 
     @Test
     public void handleRequest_SimpleSuccess() {
         final ResourceHandlerRequest<ResourceModel> request = TestDataProvider.getRequest();
+        request.setPreviousResourceTags(TestDataProvider.getModelTags());
+        request.setDesiredResourceTags(TestDataProvider.getModelTags());
 
         when(voiceIdClient.describeDomain(any(DescribeDomainRequest.class)))
             .thenReturn(TestDataProvider.describeDomainResponse());
@@ -92,13 +114,11 @@ public class UpdateHandlerTest extends AbstractTestBase {
         when(voiceIdClient.updateDomain(any(UpdateDomainRequest.class)))
             .thenReturn(TestDataProvider.updateDomainResponse());
 
-        when(voiceIdClient.listTagsForResource(any(ListTagsForResourceRequest.class)))
-            .thenReturn(TestDataProvider.listTagsForResourceResponse());
-
         final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy,
                                                                                              request,
                                                                                              new CallbackContext(),
                                                                                              proxyClient,
+                                                                                             asyncProxyClient,
                                                                                              logger);
 
         verify(proxyClient.client()).updateDomain(any(UpdateDomainRequest.class));
@@ -126,24 +146,22 @@ public class UpdateHandlerTest extends AbstractTestBase {
         when(voiceIdClient.updateDomain(any(UpdateDomainRequest.class)))
             .thenReturn(TestDataProvider.updateDomainResponse());
 
-        when(voiceIdClient.tagResource(any(TagResourceRequest.class)))
-            .thenReturn(TagResourceResponse.builder().build());
-
-        when(voiceIdClient.untagResource(any(UntagResourceRequest.class)))
-            .thenReturn(UntagResourceResponse.builder().build());
+        when(voiceIdAsyncClient.tagResource(any(TagResourceRequest.class)))
+            .thenReturn(CompletableFuture.completedFuture(TagResourceResponse.builder().build()));
 
-        when(voiceIdClient.listTagsForResource(any(ListTagsForResourceRequest.class)))
-            .thenReturn(TestDataProvider.listTagsForResourceResponse());
+        when(voiceIdAsyncClient.untagResource(any(UntagResourceRequest.class)))
+            .thenReturn(CompletableFuture.completedFuture(UntagResourceResponse.builder().build()));
 
         final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy,
                                                                                              request,
                                                                                              new CallbackContext(),
                                                                                              proxyClient,
+                                                                                             asyncProxyClient,
                                                                                              logger);
 
         verify(proxyClient.client()).updateDomain(any(UpdateDomainRequest.class));
-        verify(proxyClient.client()).tagResource(any(TagResourceRequest.class));
-        verify(proxyClient.client()).untagResource(any(UntagResourceRequest.class));
+        verify(voiceIdAsyncClient).tagResource(any(TagResourceRequest.class));
+        verify(voiceIdAsyncClient).untagResource(any(UntagResourceRequest.class));
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
         assertThat(response.getCallbackDelaySeconds()).isEqualTo(0);
@@ -154,11 +172,82 @@ public class UpdateHandlerTest extends AbstractTestBase {
     }
 
     @Test
-    public void handleRequest_StabilizationSucceeds() {
+    public void handleRequest_TagOnlyUpdateSkipsUpdateDomain() {
         final ResourceHandlerRequest<ResourceModel> request = TestDataProvider.getRequest();
+        request.setPreviousResourceState(TestDataProvider.getResourceModel());
+        request.setPreviousResourceTags(TestDataProvider.getTags());
+        request.setDesiredResourceTags(TestDataProvider.getModelTags());
+
+        when(voiceIdClient.describeDomain(any(DescribeDomainRequest.class)))
+            .thenReturn(TestDataProvider.describeDomainResponse());
+
+        when(voiceIdAsyncClient.tagResource(any(TagResourceRequest.class)))
+            .thenReturn(CompletableFuture.completedFuture(TagResourceResponse.builder().build()));
+
+        when(voiceIdAsyncClient.untagResource(any(UntagResourceRequest.class)))
+            .thenReturn(CompletableFuture.completedFuture(UntagResourceResponse.builder().build()));
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy,
+                                                                                             request,
+                                                                                             new CallbackContext(),
+                                                                                             proxyClient,
+                                                                                             asyncProxyClient,
+                                                                                             logger);
+
+        verify(proxyClient.client(), never()).updateDomain(any(UpdateDomainRequest.class));
+        // Only the pre-update check; there is nothing to stabilize.
+        verify(proxyClient.client()).describeDomain(any(DescribeDomainRequest.class));
+        verify(voiceIdAsyncClient).tagResource(any(TagResourceRequest.class));
+        verify(voiceIdAsyncClient).untagResource(any(UntagResourceRequest.class));
+        assertThat(response).isNotNull();
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(0);
+        assertThat(response.getResourceModel()).isEqualTo(request.getDesiredResourceState());
+        assertThat(response.getMessage()).isNull();
+        assertThat(response.getErrorCode()).isNull();
+    }
+
+    @Test
+    public void handleRequest_DescriptionChangeUpdatesDomain() {
+        final ResourceHandlerRequest<ResourceModel> request = TestDataProvider.getRequest();
+        final ResourceModel previousModel = TestDataProvider.getResourceModel();
+        previousModel.setDescription("PreviousDescription");
+        request.setPreviousResourceState(previousModel);
+        request.setPreviousResourceTags(TestDataProvider.getModelTags());
+        request.setDesiredResourceTags(TestDataProvider.getModelTags());
+
+        when(voiceIdClient.describeDomain(any(DescribeDomainRequest.class)))
+            .thenReturn(TestDataProvider.describeDomainResponse());
+
+        when(voiceIdClient.updateDomain(any(UpdateDomainRequest.class)))
+            .thenReturn(TestDataProvider.updateDomainResponse());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = handler.handleRequest(proxy,
+                                                                                             request,
+                                                                                             new CallbackContext(),
+                                                                                             proxyClient,
+                                                                                             asyncProxyClient,
+                                                                                             logger);
+
+        verify(proxyClient.client()).updateDomain(any(UpdateDomainRequest.class));
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel()).isEqualTo(request.getDesiredResourceState());
+    }
 
-        // There are four describeDomain calls: first is for pre-existence check, second and third during stabilization,
-        // and the last is the returned result from the ReadHandler which calls describeDomain itself.
+    @Test
+    public void handleRequest_StabilizationSucceeds() {
+        final ResourceHandlerRequest<ResourceModel> request = TestDataProvider.getRequest();
+        request.setPreviousResourceTags(TestDataProvider.getModelTags());
+        request.setDesiredResourceTags(TestDataProvider.getModelTags());
+        final ResourceModel previousModel = TestDataProvider.getResourceModel();
+        previousModel.setServerSideEncryptionConfiguration(
+            software.amazon.voiceid.domain.ServerSideEncryptionConfiguration.builder()
+                .kmsKeyId("PreviousKmsKeyId")
+                .build());
+        request.setPreviousResourceState(previousModel);
+
+        // There are three describeDomain calls: first is for pre-existence check, second and third during
+        // stabilization. The returned model is projected from the last of them.
         when(voiceIdClient.describeDomain(any(DescribeDomainRequest.class)))
             .thenReturn(TestDataProvider.describeDomainResponse(), TestDataProvider.describeStabilizingDomainResponse(),
                         TestDataProvider.describeStabilizedDomainResponse());
@@ -166,13 +255,11 @@ public class UpdateHandlerTest extends AbstractTestBase {
         when(voiceIdClient.updateDomain(any(UpdateDomainRequest.class)))
             .thenReturn(TestDataProvider.updateDomainResponse());
 
-        when(voiceIdClient.listTagsForResource(any(ListTagsForResourceRequest.class)))
-            .thenReturn(TestDataProvider.listTagsForResourceResponse());
-
         final ProgressEvent<ResourceModel, CallbackContext> response = handlerWithSetDelay.handleRequest(proxy,
                                                                                                          request,
                                                                                                          new CallbackContext(),
                                                                                                          proxyClient,
+                                                                                                         asyncProxyClient,
                                                                                                          logger);
 
         final ResourceModel resourceModel = request.getDesiredResourceState();
@@ -199,7 +286,7 @@ public class UpdateHandlerTest extends AbstractTestBase {
         assertThat(updateDomainRequestArgumentCaptor.getValue()).isEqualToIgnoringNullFields(expectedUpdateDomainRequest);
 
         verify(proxyClient.client(),
-               times(4)).describeDomain(describeDomainRequestArgumentCaptor.capture());
+               times(3)).describeDomain(describeDomainRequestArgumentCaptor.capture());
         assertThat(describeDomainRequestArgumentCaptor.getValue())
             .isEqualToIgnoringNullFields(expectedDescribeDomainRequest);
 
@@ -212,6 +299,79 @@ public class UpdateHandlerTest extends AbstractTestBase {
         assertThat(response.getErrorCode()).isNull();
     }
 
+    @Test
+    public void handleRequest_VerifyWithRead() {
+        final UpdateHandler verifyingHandler =
+            new UpdateHandler(stabilizationDelay, HandlerOptions.builder().verifyWritesWithRead(true).build());
+        final ResourceHandlerRequest<ResourceModel> request = TestDataProvider.getRequest();
+
+        when(voiceIdClient.describeDomain(any(DescribeDomainRequest.class)))
+            .thenReturn(TestDataProvider.describeDomainResponse());
+
+        when(voiceIdClient.updateDomain(any(UpdateDomainRequest.class)))
+            .thenReturn(TestDataProvider.updateDomainResponse());
+
+        when(voiceIdClient.listTagsForResource(any(ListTagsForResourceRequest.class)))
+            .thenReturn(TestDataProvider.listTagsForResourceResponse());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = verifyingHandler.handleRequest(proxy,
+                                                                                                      request,
+                                                                                                      new CallbackContext(),
+                                                                                                      proxyClient,
+                                                                                                      asyncProxyClient,
+                                                                                                      logger);
+
+        verify(proxyClient.client()).updateDomain(any(UpdateDomainRequest.class));
+        // Pre-update check and stabilization; the read reuses the stabilization poll.
+        verify(proxyClient.client(), times(2)).describeDomain(any(DescribeDomainRequest.class));
+        verify(proxyClient.client()).listTagsForResource(any(ListTagsForResourceRequest.class));
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel()).isEqualTo(request.getDesiredResourceState());
+    }
+
+    @Test
+    public void handleRequest_StabilizesWithinInvocation() {
+        final AtomicLong now = new AtomicLong();
+        final List<Duration> sleeps = new ArrayList<>();
+        final HandlerOptions options = HandlerOptions.builder().inInvocationPollBudget(Duration.ofSeconds(30L)).build();
+        final UpdateHandler pollingHandler = new UpdateHandler(stabilizationDelay, options, ShortPollSchedule.of()
+            .budget(options.getInInvocationPollBudget())
+            .minInterval(Duration.ofSeconds(2L))
+            .maxInterval(Duration.ofSeconds(2L))
+            .currentTimeMillis(now::get)
+            .sleeper(interval -> {
+                sleeps.add(interval);
+                now.addAndGet(interval.toMillis());
+            })
+            .build());
+        final ResourceHandlerRequest<ResourceModel> request = TestDataProvider.getRequest();
+        request.setPreviousResourceTags(TestDataProvider.getModelTags());
+        request.setDesiredResourceTags(TestDataProvider.getModelTags());
+
+        when(voiceIdClient.describeDomain(any(DescribeDomainRequest.class)))
+            .thenReturn(TestDataProvider.describeDomainResponse(), TestDataProvider.describeStabilizingDomainResponse(),
+                        TestDataProvider.describeStabilizingDomainResponse(),
+                        TestDataProvider.describeStabilizedDomainResponse());
+
+        when(voiceIdClient.updateDomain(any(UpdateDomainRequest.class)))
+            .thenReturn(TestDataProvider.updateDomainResponse());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response = pollingHandler.handleRequest(proxy,
+                                                                                                    request,
+                                                                                                    new CallbackContext(),
+                                                                                                    proxyClient,
+                                                                                                    asyncProxyClient,
+                                                                                                    logger);
+
+        verify(proxyClient.client()).updateDomain(any(UpdateDomainRequest.class));
+        verify(proxyClient.client(), times(4)).describeDomain(any(DescribeDomainRequest.class));
+        // Both stabilizing polls were followed by a short in-invocation wait rather than the stabilization delay.
+        assertThat(sleeps).containsExactly(Duration.ofSeconds(2L), Duration.ofSeconds(2L));
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getCallbackDelaySeconds()).isEqualTo(0);
+        assertThat(response.getResourceModel()).isEqualTo(request.getDesiredResourceState());
+    }
+
     @Test
     public void handleRequest_StabilizationTimesOut() {
         final ResourceHandlerRequest<ResourceModel> request = TestDataProvider.getRequest();
@@ -228,6 +388,7 @@ public class UpdateHandlerTest extends AbstractTestBase {
                                                                                                          request,
                                                                                                          new CallbackContext(),
                                                                                                          proxyClient,
+                                                                                                         asyncProxyClient,
                                                                                                          logger);
 
         verify(proxyClient.client()).updateDomain(any(UpdateDomainRequest.class));
@@ -256,6 +417,7 @@ public class UpdateHandlerTest extends AbstractTestBase {
                                                              request,
                                                              new CallbackContext(),
                                                              proxyClient,
+                                                             asyncProxyClient,
                                                              logger));
         verify(proxyClient.client()).updateDomain(any(UpdateDomainRequest.class));
         verify(proxyClient.client(), times(2)).describeDomain(any(DescribeDomainRequest.class));
@@ -273,11 +435,11 @@ public class UpdateHandlerTest extends AbstractTestBase {
         when(voiceIdClient.updateDomain(any(UpdateDomainRequest.class)))
             .thenReturn(TestDataProvider.updateDomainResponse());
 
-        when(voiceIdClient.tagResource(any(TagResourceRequest.class)))
-            .thenThrow(VoiceIdException.class);
+        when(voiceIdAsyncClient.tagResource(any(TagResourceRequest.class)))
+            .thenReturn(failedFuture(VoiceIdException.builder().build()));
 
         assertThrows(CfnGeneralServiceException.class,
-                     () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger));
+                     () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, asyncProxyClient, logger));
         verify(proxyClient.client()).updateDomain(any(UpdateDomainRequest.class));
     }
 
@@ -293,13 +455,14 @@ public class UpdateHandlerTest extends AbstractTestBase {
         when(voiceIdClient.updateDomain(any(UpdateDomainRequest.class)))
             .thenReturn(TestDataProvider.updateDomainResponse());
 
-        when(voiceIdClient.untagResource(any(UntagResourceRequest.class)))
-            .thenThrow(VoiceIdException.class);
+        when(voiceIdAsyncClient.untagResource(any(UntagResourceRequest.class)))
+            .thenReturn(failedFuture(VoiceIdException.builder().build()));
 
         assertThrows(CfnGeneralServiceException.class,
-                     () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger));
+                     () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, asyncProxyClient, logger));
         verify(proxyClient.client()).updateDomain(any(UpdateDomainRequest.class));
-        verify(proxyClient.client(), never()).tagResource(any(TagResourceRequest.class));
+        verify(voiceIdAsyncClient).untagResource(any(UntagResourceRequest.class));
+        verify(voiceIdAsyncClient, never()).tagResource(any(TagResourceRequest.class));
     }
 
     @Test
@@ -314,14 +477,195 @@ public class UpdateHandlerTest extends AbstractTestBase {
         when(voiceIdClient.updateDomain(any(UpdateDomainRequest.class)))
             .thenReturn(TestDataProvider.updateDomainResponse());
 
-        when(voiceIdClient.tagResource(any(TagResourceRequest.class)))
-            .thenThrow(AccessDeniedException.class);
+        when(voiceIdAsyncClient.tagResource(any(TagResourceRequest.class)))
+            .thenReturn(failedFuture(AccessDeniedException.builder().build()));
 
         assertThrows(CfnAccessDeniedException.class,
-                     () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger));
+                     () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, asyncProxyClient, logger));
         verify(proxyClient.client()).updateDomain(any(UpdateDomainRequest.class));
     }
 
+    @Test
+    public void handleRequest_TagChunksResumeWithDomainArn() {
+        final ResourceHandlerRequest<ResourceModel> request = TestDataProvider.getAccountScopedRequest();
+        request.setPreviousResourceState(TestDataProvider.getResourceModel());
+        final Map<String, String> desiredTags = new HashMap<>();
+        for (int tag = 0; tag < TagHelper.MAX_TAGS_PER_CALL + 10; tag++) {
+            desiredTags.put(String.format("key-%02d", tag), "value");
+        }
+        request.setDesiredResourceTags(desiredTags);
+        final CallbackContext callbackContext = new CallbackContext();
+
+        when(voiceIdClient.describeDomain(any(DescribeDomainRequest.class)))
+            .thenReturn(TestDataProvider.describeDomainResponse());
+
+        // The second chunk runs out of retries, which hands the request back to CloudFormation to resume later.
+        final AtomicInteger tagCalls = new AtomicInteger();
+        when(voiceIdAsyncClient.tagResource(any(TagResourceRequest.class))).thenAnswer(invocation ->
+            tagCalls.getAndIncrement() == 1
+                ? failedFuture(new RetryBudgetExhaustedException(ThrottlingException.builder().build()))
+                : CompletableFuture.completedFuture(TagResourceResponse.builder().build()));
+
+        assertThrows(RetryBudgetExhaustedException.class,
+                     () -> handler.handleRequest(proxy, request, callbackContext, proxyClient, asyncProxyClient,
+                                                 logger));
+
+        // The resumed invocation finds the pre-update check in the call graph and does not describe the domain again.
+        when(voiceIdAsyncClient.describeDomain(any(DescribeDomainRequest.class)))
+            .thenReturn(CompletableFuture.completedFuture(TestDataProvider.describeDomainResponse()));
+        when(voiceIdAsyncClient.listTagsForResource(any(ListTagsForResourceRequest.class)))
+            .thenReturn(CompletableFuture.completedFuture(TestDataProvider.listTagsForResourceResponse()));
+
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+            handler.handleRequest(proxy, request, callbackContext, proxyClient, asyncProxyClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        verify(proxyClient.client()).describeDomain(any(DescribeDomainRequest.class));
+        verify(voiceIdAsyncClient).describeDomain(any(DescribeDomainRequest.class));
+        verify(voiceIdAsyncClient).listTagsForResource(any(ListTagsForResourceRequest.class));
+        final ArgumentCaptor<TagResourceRequest> tagRequests = ArgumentCaptor.forClass(TagResourceRequest.class);
+        verify(voiceIdAsyncClient, times(3)).tagResource(tagRequests.capture());
+        assertThat(tagRequests.getAllValues()).extracting(TagResourceRequest::resourceArn)
+            .containsOnly(TestDataProvider.DOMAIN_ARN);
+        // Only the failed chunk is sent again.
+        assertThat(tagRequests.getAllValues().get(2).tags())
+            .containsExactlyInAnyOrderElementsOf(tagRequests.getAllValues().get(1).tags())
+            .doesNotContainAnyElementsOf(tagRequests.getAllValues().get(0).tags());
+    }
+
+    @Test
+    public void handleRequest_ConcurrentPhasesSuccess() {
+        final ResourceHandlerRequest<ResourceModel> request = TestDataProvider.getRequest();
+        request.setPreviousResourceTags(TestDataProvider.getTags());
+        request.setDesiredResourceTags(TestDataProvider.getModelTags());
+
+        when(voiceIdClient.describeDomain(any(DescribeDomainRequest.class)))
+            .thenReturn(TestDataProvider.describeDomainResponse());
+
+        when(voiceIdClient.updateDomain(any(UpdateDomainRequest.class)))
+            .thenReturn(TestDataProvider.updateDomainResponse());
+
+        when(voiceIdAsyncClient.tagResource(any(TagResourceRequest.class)))
+            .thenReturn(CompletableFuture.completedFuture(TagResourceResponse.builder().build()));
+
+        when(voiceIdAsyncClient.untagResource(any(UntagResourceRequest.class)))
+            .thenReturn(CompletableFuture.completedFuture(UntagResourceResponse.builder().build()));
+
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+            concurrentHandler.handleRequest(proxy, request, new CallbackContext(), proxyClient, asyncProxyClient,
+                                            logger);
+
+        verify(proxyClient.client()).updateDomain(any(UpdateDomainRequest.class));
+        verify(voiceIdAsyncClient).tagResource(any(TagResourceRequest.class));
+        verify(voiceIdAsyncClient).untagResource(any(UntagResourceRequest.class));
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(response.getResourceModel()).isEqualTo(request.getDesiredResourceState());
+    }
+
+    @Test
+    public void handleRequest_ConcurrentTagFailureReportedAfterUpdate() {
+        final ResourceHandlerRequest<ResourceModel> request = TestDataProvider.getRequest();
+        request.setPreviousResourceTags(TestDataProvider.getTags());
+        request.setDesiredResourceTags(TestDataProvider.getModelTags());
+
+        when(voiceIdClient.describeDomain(any(DescribeDomainRequest.class)))
+            .thenReturn(TestDataProvider.describeDomainResponse());
+
+        when(voiceIdClient.updateDomain(any(UpdateDomainRequest.class)))
+            .thenReturn(TestDataProvider.updateDomainResponse());
+
+        when(voiceIdAsyncClient.tagResource(any(TagResourceRequest.class)))
+            .thenReturn(failedFuture(AccessDeniedException.builder().build()));
+
+        when(voiceIdAsyncClient.untagResource(any(UntagResourceRequest.class)))
+            .thenReturn(failedFuture(ValidationException.builder().build()));
+
+        // Tagging runs before untagging in the sequential update, so its failure is the one reported.
+        assertThrows(CfnAccessDeniedException.class,
+                     () -> concurrentHandler.handleRequest(proxy, request, new CallbackContext(), proxyClient,
+                                                           asyncProxyClient, logger));
+        verify(proxyClient.client()).updateDomain(any(UpdateDomainRequest.class));
+        verify(voiceIdAsyncClient).tagResource(any(TagResourceRequest.class));
+        verify(voiceIdAsyncClient).untagResource(any(UntagResourceRequest.class));
+    }
+
+    @Test
+    public void handleRequest_ConcurrentUpdateFailureSendsNoTags() {
+        final ResourceHandlerRequest<ResourceModel> request = TestDataProvider.getRequest();
+        request.setPreviousResourceTags(TestDataProvider.getTags());
+        request.setDesiredResourceTags(TestDataProvider.getModelTags());
+
+        when(voiceIdClient.describeDomain(any(DescribeDomainRequest.class)))
+            .thenReturn(TestDataProvider.describeDomainResponse());
+
+        when(voiceIdClient.updateDomain(any(UpdateDomainRequest.class)))
+            .thenThrow(ConflictException.class);
+
+        assertThrows(CfnResourceConflictException.class,
+                     () -> concurrentHandler.handleRequest(proxy, request, new CallbackContext(), proxyClient,
+                                                           asyncProxyClient, logger));
+        verify(proxyClient.client()).updateDomain(any(UpdateDomainRequest.class));
+        verify(voiceIdAsyncClient, never()).tagResource(any(TagResourceRequest.class));
+        verify(voiceIdAsyncClient, never()).untagResource(any(UntagResourceRequest.class));
+    }
+
+    @Test
+    public void handleRequest_ConcurrentTagFailureRetriedAfterCallback() {
+        final ResourceHandlerRequest<ResourceModel> request = TestDataProvider.getAccountScopedRequest();
+        final ResourceModel previousModel = TestDataProvider.getResourceModel();
+        previousModel.setServerSideEncryptionConfiguration(
+            software.amazon.voiceid.domain.ServerSideEncryptionConfiguration.builder()
+                .kmsKeyId("PreviousKmsKeyId")
+                .build());
+        request.setPreviousResourceState(previousModel);
+        request.setPreviousResourceTags(TestDataProvider.getTags());
+        request.setDesiredResourceTags(TestDataProvider.getModelTags());
+        final CallbackContext callbackContext = new CallbackContext();
+        // Too little time is left to wait out the stabilization delay, so the update hands the request back.
+        final AmazonWebServicesClientProxy callbackProxy =
+            new AmazonWebServicesClientProxy(logger, MOCK_CREDENTIALS, () -> Duration.ofSeconds(1).toMillis());
+
+        when(voiceIdClient.describeDomain(any(DescribeDomainRequest.class)))
+            .thenReturn(TestDataProvider.describeDomainResponse(), TestDataProvider.describeStabilizingDomainResponse(),
+                        TestDataProvider.describeStabilizedDomainResponse());
+
+        when(voiceIdClient.updateDomain(any(UpdateDomainRequest.class)))
+            .thenReturn(TestDataProvider.updateDomainResponse());
+
+        when(voiceIdAsyncClient.tagResource(any(TagResourceRequest.class)))
+            .thenReturn(failedFuture(AccessDeniedException.builder().build()))
+            .thenReturn(CompletableFuture.completedFuture(TagResourceResponse.builder().build()));
+
+        when(voiceIdAsyncClient.untagResource(any(UntagResourceRequest.class)))
+            .thenReturn(CompletableFuture.completedFuture(UntagResourceResponse.builder().build()));
+
+        final ProgressEvent<ResourceModel, CallbackContext> callback =
+            concurrentHandler.handleRequest(callbackProxy, request, callbackContext, proxyClient, asyncProxyClient,
+                                            logger);
+
+        assertThat(callback.getStatus()).isEqualTo(OperationStatus.IN_PROGRESS);
+        assertThat(callbackContext.getFailedTagKeys()).containsExactlyInAnyOrderElementsOf(
+            TestDataProvider.getModelTags().keySet());
+        assertThat(callbackContext.getCompletedTagKeys()).containsExactlyInAnyOrderElementsOf(
+            TestDataProvider.getTags().keySet());
+
+        final ProgressEvent<ResourceModel, CallbackContext> response =
+            concurrentHandler.handleRequest(proxy, request, callbackContext, proxyClient, asyncProxyClient, logger);
+
+        assertThat(response.getStatus()).isEqualTo(OperationStatus.SUCCESS);
+        assertThat(callbackContext.getFailedTagKeys()).isEmpty();
+        verify(proxyClient.client()).updateDomain(any(UpdateDomainRequest.class));
+        verify(proxyClient.client(), times(3)).describeDomain(any(DescribeDomainRequest.class));
+        // The failed tags are sent again, the removals that went through are not.
+        final ArgumentCaptor<TagResourceRequest> tagRequests = ArgumentCaptor.forClass(TagResourceRequest.class);
+        verify(voiceIdAsyncClient, times(2)).tagResource(tagRequests.capture());
+        assertThat(tagRequests.getAllValues().get(1).tags())
+            .containsExactlyInAnyOrderElementsOf(tagRequests.getAllValues().get(0).tags());
+        assertThat(tagRequests.getAllValues()).extracting(TagResourceRequest::resourceArn)
+            .containsOnly(TestDataProvider.DOMAIN_ARN);
+        verify(voiceIdAsyncClient).untagResource(any(UntagResourceRequest.class));
+    }
+
     @Test
     public void handleRequest_Suspended() {
         final ResourceHandlerRequest<ResourceModel> request = TestDataProvider.getRequest();
@@ -330,7 +674,7 @@ public class UpdateHandlerTest extends AbstractTestBase {
             .thenReturn(TestDataProvider.describeDeletedDomainResponse());
 
         assertThrows(CfnNotFoundException.class,
-                     () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger));
+                     () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, asyncProxyClient, logger));
         verify(proxyClient.client()).describeDomain(any(DescribeDomainRequest.class));
     }
 
@@ -345,7 +689,7 @@ public class UpdateHandlerTest extends AbstractTestBase {
             .thenThrow(ValidationException.class);
 
         assertThrows(CfnInvalidRequestException.class,
-                     () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger));
+                     () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, asyncProxyClient, logger));
         verify(proxyClient.client()).updateDomain(any(UpdateDomainRequest.class));
     }
 
@@ -360,7 +704,7 @@ public class UpdateHandlerTest extends AbstractTestBase {
             .thenThrow(ConflictException.class);
 
         assertThrows(CfnResourceConflictException.class,
-                     () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger));
+                     () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, asyncProxyClient, logger));
         verify(proxyClient.client()).updateDomain(any(UpdateDomainRequest.class));
     }
 
@@ -375,7 +719,13 @@ public class UpdateHandlerTest extends AbstractTestBase {
             .thenThrow(VoiceIdException.class);
 
         assertThrows(CfnGeneralServiceException.class,
-                     () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, logger));
+                     () -> handler.handleRequest(proxy, request, new CallbackContext(), proxyClient, asyncProxyClient, logger));
         verify(proxyClient.client()).updateDomain(any(UpdateDomainRequest.class));
     }
+
+    private static <T> CompletableFuture<T> failedFuture(final Throwable cause) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(cause);
+        return future;
+    }
 }